@@ -0,0 +1,60 @@
+package benchmarks;
+
+import driver.DriverFactory;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openqa.selenium.WebDriver;
+import server.StorefrontServer;
+import utils.Config;
+
+import java.io.IOException;
+
+/**
+ * Estado compartilhado dos benchmarks de navegador: servidor local de lojas e uma sessão headless,
+ * criados uma vez por fork e encerrados ao final.
+ * A medição de latência dos comandos fica desligada (-Dmetrics.commands.enabled=false no fork) para
+ * não somar o custo do listener aos resultados.
+ */
+@State(Scope.Benchmark)
+public class BrowserFixture {
+
+    StorefrontServer server;
+    WebDriver driver;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        server = new StorefrontServer(0, 0, StorefrontServer.MIN_RESULTS, "(?i).*inexistente.*");
+        server.start();
+        Config.setOverride("amazon.url", server.getAmazonUrl());
+        Config.setOverride("magalu.url", server.getMagaluUrl());
+        driver = DriverFactory.createDriver();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (driver != null) {
+            driver.quit();
+        }
+        if (server != null) {
+            server.stop();
+        }
+        Config.clearOverride("amazon.url");
+        Config.clearOverride("magalu.url");
+    }
+
+    /**
+     * Monta a URL de resultados do site local com a quantidade de cards informada.
+     * @param site "amazon" ou "magalu".
+     * @param term O termo buscado.
+     * @param size A quantidade de cards da página.
+     * @return A URL da página de resultados.
+     */
+    String resultsUrl(String site, String term, int size) {
+        return "amazon".equals(site)
+                ? server.getAmazonUrl() + "s?k=" + term + "&n=" + size
+                : server.getMagaluUrl() + "busca/" + term + "/?n=" + size;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.Config;
+import utils.ConfigReader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das leituras do {@link ConfigReader} e do retrato {@link Config}, chamadas várias vezes por cenário
+ * (timeouts, URLs, orçamentos). Não precisa de navegador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+
+    @Benchmark
+    public String getProperty() {
+        return ConfigReader.getProperty("amazon.url");
+    }
+
+    @Benchmark
+    public String getPropertyWithDefault() {
+        return ConfigReader.getProperty("browser", "chrome");
+    }
+
+    @Benchmark
+    public int getIntProperty() {
+        return ConfigReader.getIntProperty("timeout.seconds", 10);
+    }
+
+    @Benchmark
+    public boolean getBooleanProperty() {
+        return ConfigReader.getBooleanProperty("block.enabled", false);
+    }
+
+    @Benchmark
+    public int configTimeoutSeconds() {
+        return Config.get().getTimeoutSeconds();
+    }
+
+    @Benchmark
+    public String configSiteString() {
+        return Config.get().forSite("amazon").getString("pageload.strategy", "normal");
+    }
+}
@@ -0,0 +1,28 @@
+package benchmarks;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import pages.BasePage;
+
+/**
+ * Page Object mínimo sobre a home da Amazon local, que expõe as esperas protegidas da {@link BasePage}
+ * (isDisplayed, isElementReady) para os benchmarks.
+ */
+public class FixturePage extends BasePage {
+
+    @FindBy(id = "twotabsearchtextbox")
+    private WebElement searchInput;
+
+    public FixturePage(WebDriver driver) {
+        super(driver);
+    }
+
+    public boolean isSearchInputDisplayed() {
+        return isDisplayed(searchInput);
+    }
+
+    public boolean isSearchInputReady() {
+        return isElementReady(searchInput);
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pages.AmazonHomePage;
+import pages.AmazonResultsPage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks das esperas da {@link pages.BasePage} (isDisplayed, isElementReady) e do custo de construção dos
+ * Page Objects, contra a home e a página de resultados da Amazon local em um navegador headless.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dheadless=true", "-Dmetrics.commands.enabled=false"})
+public class PageObjectBenchmark {
+
+    private BrowserFixture fixture;
+    private FixturePage homePage;
+
+    @Setup(Level.Trial)
+    public void setUp(BrowserFixture fixture) {
+        this.fixture = fixture;
+        fixture.driver.get(fixture.server.getAmazonUrl());
+        homePage = new FixturePage(fixture.driver);
+    }
+
+    @Benchmark
+    public boolean isDisplayed() {
+        return homePage.isSearchInputDisplayed();
+    }
+
+    @Benchmark
+    public boolean isElementReady() {
+        return homePage.isSearchInputReady();
+    }
+
+    /**
+     * Construção sem espera: apenas a ligação dos campos @FindBy (ElementBinder).
+     */
+    @Benchmark
+    public AmazonHomePage constructHomePage() {
+        return new AmazonHomePage(fixture.driver);
+    }
+
+    /**
+     * Construção com a espera do construtor pelos elementos chave da página (título, mensagem ou lista).
+     */
+    @Benchmark
+    public AmazonResultsPage constructResultsPage(ResultsPageState state) {
+        return new AmazonResultsPage(fixture.driver);
+    }
+
+    /**
+     * Deixa a página de resultados carregada para o benchmark de construção da AmazonResultsPage.
+     */
+    @State(Scope.Benchmark)
+    public static class ResultsPageState {
+
+        @Setup(Level.Trial)
+        public void load(BrowserFixture fixture) {
+            fixture.driver.get(fixture.resultsUrl("amazon", "kindle", 60));
+        }
+    }
+}
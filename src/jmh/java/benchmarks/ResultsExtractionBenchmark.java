@@ -0,0 +1,75 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+import pages.AmazonResultsPage;
+import pages.MagaluResultsPage;
+import pages.ResultsSnapshot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks da extração dos resultados de busca nas páginas locais, por site e por quantidade de cards:
+ * o {@link ResultsSnapshot} (uma chamada executeScript) e, como referência, a leitura elemento a elemento.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dheadless=true", "-Dmetrics.commands.enabled=false"})
+public class ResultsExtractionBenchmark {
+
+    @Param({"amazon", "magalu"})
+    public String site;
+
+    @Param({"60", "1000"})
+    public int resultsSize;
+
+    private BrowserFixture fixture;
+    private AmazonResultsPage amazonPage;
+    private MagaluResultsPage magaluPage;
+    private By titles;
+
+    @Setup(Level.Trial)
+    public void setUp(BrowserFixture fixture) {
+        this.fixture = fixture;
+        fixture.driver.get(fixture.resultsUrl(site, "kindle", resultsSize));
+        if ("amazon".equals(site)) {
+            amazonPage = new AmazonResultsPage(fixture.driver);
+            titles = By.cssSelector("div[data-cel-widget^='search_result_'] h2 a span");
+        } else {
+            magaluPage = new MagaluResultsPage(fixture.driver);
+            titles = By.cssSelector("[data-testid='product-card-content'] [data-testid='product-title']");
+        }
+    }
+
+    @Benchmark
+    public ResultsSnapshot snapshot() {
+        return amazonPage != null ? amazonPage.refreshSnapshot() : magaluPage.refreshSnapshot();
+    }
+
+    @Benchmark
+    public List<String> elementByElement() {
+        List<WebElement> elements = fixture.driver.findElements(titles);
+        List<String> texts = new ArrayList<>(elements.size());
+        for (WebElement element : elements) {
+            texts.add(element.getText());
+        }
+        return texts;
+    }
+}
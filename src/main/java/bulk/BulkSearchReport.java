@@ -0,0 +1,198 @@
+package bulk;
+
+import utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resultado de uma validação em lote ({@link BulkSearchRunner}): contagens, vazão, latência por termo e, com a camada
+ * HTTP, quantos termos foram escalonados ao navegador.
+ *
+ * Os resultados de cada termo são gravados em disco pelo runner; aqui ficam somente os contadores, um histograma
+ * de memória fixa e as primeiras falhas (até bulk.max.failures.reported), para que a memória não cresça com o
+ * tamanho do arquivo.
+ */
+public final class BulkSearchReport {
+
+    private final int workers;
+    private final int httpWorkers;
+    private final int maxFailures;
+    private final long startNanos = System.nanoTime();
+    private volatile long endNanos;
+
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong httpValidated = new AtomicLong();
+    private final AtomicLong escalated = new AtomicLong();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<>());
+    private volatile String readError;
+
+    BulkSearchReport(int workers, int httpWorkers, int maxFailures) {
+        this.workers = workers;
+        this.httpWorkers = httpWorkers;
+        this.maxFailures = maxFailures;
+    }
+
+    void recordPassed(long nanos) {
+        passed.incrementAndGet();
+        latency.record(nanos);
+    }
+
+    void recordFailed(SearchTerm term, String reason, long nanos, boolean error) {
+        (error ? errors : failed).incrementAndGet();
+        latency.record(nanos);
+        if (failures.size() < maxFailures) {
+            failures.add(term + ": " + reason);
+        }
+    }
+
+    void recordRead() {
+        read.incrementAndGet();
+    }
+
+    void recordHttpValidated() {
+        httpValidated.incrementAndGet();
+    }
+
+    void recordEscalated() {
+        escalated.incrementAndGet();
+    }
+
+    void setReadError(String readError) {
+        this.readError = readError;
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * @return A quantidade de termos validados (aprovados, reprovados e com erro).
+     */
+    public long getTotal() {
+        return passed.get() + failed.get() + errors.get();
+    }
+
+    public long getPassed() {
+        return passed.get();
+    }
+
+    public long getFailed() {
+        return failed.get();
+    }
+
+    public long getErrors() {
+        return errors.get();
+    }
+
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * @return A quantidade de termos lidos do arquivo e não validados (todas as sessões de navegador falharam).
+     */
+    public long getNotValidated() {
+        return Math.max(0, read.get() - getTotal());
+    }
+
+    /**
+     * @return A quantidade de termos escalonados da camada HTTP ao navegador (HTML não conclusivo), 0 sem a camada HTTP.
+     */
+    public long getEscalated() {
+        return escalated.get();
+    }
+
+    /**
+     * @return O erro de leitura do arquivo de termos (a validação parou nele), ou null se o arquivo foi lido inteiro.
+     */
+    public String getReadError() {
+        return readError;
+    }
+
+    /**
+     * @return As primeiras falhas (termo e motivo), limitadas a bulk.max.failures.reported.
+     */
+    public List<String> getFailures() {
+        synchronized (failures) {
+            return new ArrayList<>(failures);
+        }
+    }
+
+    /**
+     * @return true se todos os termos foram validados e corresponderam ao esperado, e o arquivo foi lido inteiro.
+     */
+    public boolean isSuccessful() {
+        return failed.get() == 0 && errors.get() == 0 && readError == null && getNotValidated() == 0;
+    }
+
+    /**
+     * @return O tempo decorrido da validação em milissegundos (até agora, se ainda estiver em andamento).
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos);
+    }
+
+    /**
+     * @return A vazão da validação em buscas por minuto.
+     */
+    public double getSearchesPerMinute() {
+        long elapsed = getElapsedMillis();
+        return elapsed == 0 ? 0 : getTotal() * 60_000.0 / elapsed;
+    }
+
+    /**
+     * @return O resumo da latência por termo (ver {@link LatencyHistogram#summary()}).
+     */
+    public Map<String, Object> getLatencySummary() {
+        return latency.summary();
+    }
+
+    /**
+     * @return Uma linha de progresso: termos validados, falhas e vazão até o momento.
+     */
+    public String progress() {
+        return String.format("LOTE: %d termo(s) validado(s) | falhas: %d | erros: %d | %.1f buscas/min",
+                getTotal(), failed.get(), errors.get(), getSearchesPerMinute());
+    }
+
+    @Override
+    public String toString() {
+        Map<String, Object> summary = latency.summary();
+        StringBuilder text = new StringBuilder("VALIDAÇÃO EM LOTE - RESULTADO:\n");
+        text.append(String.format("  Termos: %d | Aprovados: %d | Reprovados: %d | Erros: %d | Sessões: %d%n",
+                getTotal(), passed.get(), failed.get(), errors.get(), workers));
+        if (httpWorkers > 0) {
+            long http = httpValidated.get();
+            long browser = escalated.get();
+            text.append(String.format("  Camada HTTP (%d threads): %d validado(s) sem navegador | %d escalonado(s) ao navegador (%.1f%%)%n",
+                    httpWorkers, http, browser, http + browser == 0 ? 0 : browser * 100.0 / (http + browser)));
+        }
+        text.append(String.format("  Duração: %.1f s | Vazão: %.1f buscas/min%n", getElapsedMillis() / 1000.0, getSearchesPerMinute()));
+        text.append("  Latência por termo (ms): média ").append(summary.get("meanMs")).append(" | p50 ").append(summary.get("p50Ms"))
+                .append(" | p90 ").append(summary.get("p90Ms")).append(" | p99 ").append(summary.get("p99Ms"))
+                .append(" | máx ").append(summary.get("maxMs"));
+        if (readError != null) {
+            text.append("\n  Leitura interrompida: ").append(readError);
+        }
+        if (getNotValidated() > 0) {
+            text.append("\n  Não validados (sem sessão de navegador disponível): ").append(getNotValidated());
+        }
+        for (String failure : getFailures()) {
+            text.append("\n  FALHA ").append(failure);
+        }
+        long omitted = failed.get() + errors.get() - getFailures().size();
+        if (omitted > 0) {
+            text.append("\n  ... e mais ").append(omitted).append(" falha(s) no arquivo de resultados.");
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,403 @@
+package bulk;
+
+import driver.DriverPool;
+import driver.RoundTripBudgetListener;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import pages.AmazonHomePage;
+import pages.HttpResultsPage;
+import pages.MagaluHomePage;
+import pages.ResultsSnapshot;
+import utils.Config;
+import utils.LatencyRegistry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validação em lote de termos de busca lidos de um arquivo ({@link SearchTermReader}), sem criar um cenário
+ * do Cucumber por linha.
+ *
+ * Uma thread de leitura alimenta uma fila limitada (back-pressure: o arquivo nunca é carregado inteiro) e várias
+ * sessões do {@link DriverPool} consomem a fila em paralelo: a thread do cenário usa a sessão que já possui e cada
+ * thread auxiliar empresta a sua no primeiro termo que receber. Cada termo passa pelas mesmas Page Objects dos
+ * cenários (por padrão pela busca direta na URL de resultados, sem carregar a página inicial) e pelo retrato dos
+ * resultados, e o resultado é gravado imediatamente no arquivo de resultados (NDJSON).
+ * Uma sessão que deixa de responder é reciclada e substituída por outra, sem interromper o lote.
+ *
+ * Com bulk.tier=http, os termos passam antes por uma camada HTTP ({@link HttpResultsPage}): várias threads baixam
+ * a página de resultados sem navegador e validam o HTML; somente os termos cujo HTML não é conclusivo seguem
+ * (escalonados) para a fila das sessões de navegador.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - bulk.workers: sessões de navegador em paralelo (padrão 2; limitado à capacidade do pool, driver.pool.size).
+ * - bulk.tier: browser (padrão; todos os termos no navegador) ou http (camada HTTP com escalonamento ao navegador).
+ * - bulk.http.workers: threads da camada HTTP (padrão 16).
+ * - bulk.search.direct: true (padrão) para buscar pela URL de resultados; false para digitar na página inicial.
+ * - bulk.results.file: arquivo de resultados por termo (padrão target/cucumber-reports/bulk-results.ndjson).
+ * - bulk.progress.every: imprime o progresso a cada N termos (padrão 100).
+ * - bulk.max.failures.reported: quantidade de falhas detalhadas no relatório do cenário (padrão 50).
+ *
+ * A latência de cada termo é registrada no {@link LatencyRegistry} (categoria "bulk", por camada, site e resultado
+ * esperado).
+ */
+public final class BulkSearchRunner {
+
+    public static final String CATEGORY = "bulk";
+
+    private static final SearchTerm END = new SearchTerm("", "", SearchTerm.Expectation.RESULTS, "", -1);
+
+    private final Path termsFile;
+    private final int workers;
+    private final int httpWorkers; // 0 sem a camada HTTP
+    private final Path resultsFile;
+    private final boolean direct;
+    private final long progressEvery;
+    private final BulkSearchReport report;
+    private final BlockingQueue<SearchTerm> queue;
+    private final BlockingQueue<SearchTerm> browserQueue;
+    private final Json json = new Json();
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicInteger activeHttpWorkers = new AtomicInteger();
+    private volatile boolean aborted;
+    private Writer results;
+
+    /**
+     * Prepara a validação de um arquivo de termos com a configuração atual.
+     * @param termsFile O arquivo de termos (.csv, .ndjson ou .jsonl).
+     */
+    public BulkSearchRunner(Path termsFile) {
+        Config config = Config.get();
+        this.termsFile = termsFile;
+        this.workers = Math.max(1, Math.min(config.getInt("bulk.workers", 2), DriverPool.getCapacity()));
+        this.httpWorkers = "http".equalsIgnoreCase(config.getString("bulk.tier", "browser").trim())
+                ? Math.max(1, config.getInt("bulk.http.workers", 16)) : 0;
+        this.resultsFile = Paths.get(config.getString("bulk.results.file", "target/cucumber-reports/bulk-results.ndjson"));
+        this.direct = config.getBoolean("bulk.search.direct", true);
+        this.progressEvery = Math.max(1, config.getLong("bulk.progress.every", 100));
+        this.report = new BulkSearchReport(workers, httpWorkers, Math.max(0, config.getInt("bulk.max.failures.reported", 50)));
+        this.browserQueue = new ArrayBlockingQueue<>(workers * 4);
+        this.queue = httpWorkers > 0 ? new ArrayBlockingQueue<>(httpWorkers * 4) : browserQueue;
+    }
+
+    /**
+     * Valida todos os termos do arquivo. Deve ser chamado pela thread do cenário, que já possui uma sessão do pool.
+     * @return O relatório da validação.
+     * @throws IOException se o arquivo de resultados não puder ser criado.
+     */
+    public BulkSearchReport run() throws IOException {
+        System.out.println("LOTE: validando " + termsFile + " com " + workers + " sessão(ões)"
+                + (httpWorkers > 0 ? " e " + httpWorkers + " thread(s) HTTP" : "") + " | resultados em " + resultsFile);
+        if (resultsFile.getParent() != null) {
+            Files.createDirectories(resultsFile.getParent());
+        }
+        results = new BufferedWriter(Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8));
+        Thread producer = new Thread(this::produce, "bulk-reader");
+        producer.setDaemon(true);
+        AtomicInteger helperIds = new AtomicInteger();
+        ExecutorService helpers = workers - 1 + httpWorkers > 0 ? Executors.newFixedThreadPool(workers - 1 + httpWorkers, runnable -> {
+            Thread thread = new Thread(runnable, "bulk-worker-" + helperIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        activeWorkers.set(workers);
+        activeHttpWorkers.set(httpWorkers);
+        try {
+            producer.start();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < httpWorkers; i++) {
+                futures.add(helpers.submit(this::consumeHttp));
+            }
+            for (int i = 1; i < workers; i++) {
+                futures.add(helpers.submit(() -> consume(true)));
+            }
+            consume(false); // A thread do cenário também consome a fila, com a sessão que já possui
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (Exception e) {
+                    System.err.println("ERRO EM SESSÃO DO LOTE: " + e.getMessage());
+                }
+            }
+            producer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted = true;
+        } finally {
+            if (helpers != null) {
+                helpers.shutdownNow();
+            }
+            results.close();
+            report.finish();
+        }
+        return report;
+    }
+
+    /**
+     * Lê o arquivo e alimenta a fila; ao final (ou em erro de leitura) envia um marcador de fim por consumidor.
+     */
+    private void produce() {
+        try (SearchTermReader reader = new SearchTermReader(termsFile)) {
+            while (!aborted && reader.hasNext()) {
+                SearchTerm term = reader.next();
+                report.recordRead();
+                offer(queue, term);
+            }
+        } catch (Exception e) {
+            report.setReadError(e.toString());
+            System.err.println("ERRO AO LER TERMOS DE BUSCA: " + e);
+        } finally {
+            for (int i = 0; i < (httpWorkers > 0 ? httpWorkers : workers); i++) {
+                offer(queue, END);
+            }
+        }
+    }
+
+    private void offer(BlockingQueue<SearchTerm> target, SearchTerm term) {
+        try {
+            while (!aborted && !target.offer(term, 1, TimeUnit.SECONDS)) {
+                // Fila cheia: os consumidores ainda estão trabalhando
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            aborted = true;
+        }
+    }
+
+    /**
+     * Camada HTTP: consome a fila de entrada até o marcador de fim e escalona ao navegador os termos cujo HTML não
+     * é conclusivo. A última thread HTTP a terminar envia os marcadores de fim às sessões de navegador.
+     */
+    private void consumeHttp() {
+        try {
+            SearchTerm term;
+            while (!aborted && (term = queue.poll(1, TimeUnit.SECONDS)) != END) {
+                if (term != null && !validateHttp(term)) {
+                    report.recordEscalated();
+                    offer(browserQueue, term);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (activeHttpWorkers.decrementAndGet() == 0) {
+                for (int i = 0; i < workers; i++) {
+                    offer(browserQueue, END);
+                }
+            }
+        }
+    }
+
+    /**
+     * Consome a fila das sessões de navegador até o marcador de fim.
+     * @param helper true nas threads auxiliares, que emprestam (e devolvem) a própria sessão do pool.
+     */
+    private void consume(boolean helper) {
+        WebDriver driver = null;
+        boolean healthy = true;
+        try {
+            SearchTerm term;
+            while (!aborted && (term = browserQueue.poll(1, TimeUnit.SECONDS)) != END) {
+                if (term == null) {
+                    continue;
+                }
+                if (driver == null) {
+                    driver = DriverPool.lease(); // Na thread do cenário, a sessão que ela já possui
+                }
+                if (validate(driver, term)) {
+                    // A sessão não responde mais: recicla e empresta outra
+                    DriverPool.release(true);
+                    driver = null;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            healthy = false;
+            System.err.println("ERRO AO EMPRESTAR SESSÃO PARA O LOTE: " + e.getMessage());
+        } finally {
+            if (helper) {
+                DriverPool.release(!healthy);
+            }
+            if (activeWorkers.decrementAndGet() == 0) {
+                aborted = true; // Nenhuma sessão restante: a leitura para
+            }
+        }
+    }
+
+    /**
+     * Valida um termo pela camada HTTP.
+     * @return false se o HTML não foi conclusivo (ou a requisição falhou) e o termo deve ser validado no navegador.
+     */
+    private boolean validateHttp(SearchTerm term) throws InterruptedException {
+        long start = System.nanoTime();
+        ResultsSnapshot snapshot;
+        try {
+            snapshot = HttpResultsPage.fetch(term.getSite(), term.getTerm());
+        } catch (IOException e) {
+            return false;
+        } catch (IllegalArgumentException e) {
+            finish(term, "http", e.getClass().getSimpleName() + ": " + e.getMessage(), true, System.nanoTime() - start);
+            return true;
+        }
+        if (snapshot == null) {
+            return false;
+        }
+        report.recordHttpValidated();
+        finish(term, "http", check(term, snapshot), false, System.nanoTime() - start);
+        return true;
+    }
+
+    /**
+     * Valida um termo no navegador.
+     * @return true se a sessão deixou de responder e deve ser substituída.
+     */
+    private boolean validate(WebDriver driver, SearchTerm term) {
+        RoundTripBudgetListener.endInvocation(); // Cada termo é uma nova chamada dos Page Objects (mesmas linhas a cada termo)
+        long start = System.nanoTime();
+        String failure;
+        boolean error = false;
+        try {
+            failure = check(term, search(driver, term));
+        } catch (RuntimeException e) {
+            error = true;
+            failure = e.getClass().getSimpleName() + ": " + firstLine(e.getMessage());
+        }
+        finish(term, "browser", failure, error, System.nanoTime() - start);
+        return error && !isAlive(driver);
+    }
+
+    /**
+     * Registra o resultado de um termo: latência, contadores do relatório, arquivo de resultados e progresso.
+     */
+    private void finish(SearchTerm term, String tier, String failure, boolean error, long elapsed) {
+        LatencyRegistry.record(CATEGORY, tier + "." + term.getSite() + "." + term.getExpectation().name().toLowerCase(Locale.ROOT), elapsed);
+        if (failure == null) {
+            report.recordPassed(elapsed);
+        } else {
+            report.recordFailed(term, failure, elapsed, error);
+        }
+        writeResult(term, tier, failure == null ? "passed" : error ? "error" : "failed", failure, elapsed);
+        if (report.getTotal() % progressEvery == 0) {
+            System.out.println(report.progress());
+        }
+    }
+
+    private ResultsSnapshot search(WebDriver driver, SearchTerm term) {
+        switch (term.getSite()) {
+            case "amazon":
+                AmazonHomePage amazon = new AmazonHomePage(driver);
+                if (direct) {
+                    return amazon.searchDirect(term.getTerm()).getSnapshot();
+                }
+                amazon.navigateToHomePage();
+                return amazon.searchFor(term.getTerm()).getSnapshot();
+            case "magalu":
+                MagaluHomePage magalu = new MagaluHomePage(driver);
+                if (direct) {
+                    return magalu.searchDirect(term.getTerm()).getSnapshot();
+                }
+                magalu.navigateToHomePage();
+                return magalu.searchFor(term.getTerm()).getSnapshot();
+            default:
+                throw new IllegalArgumentException("Site não suportado: '" + term.getSite() + "' (use amazon ou magalu).");
+        }
+    }
+
+    /**
+     * Compara o retrato dos resultados com o esperado, com as mesmas verificações dos steps de busca.
+     * @return null se corresponder, ou o motivo da falha.
+     */
+    static String check(SearchTerm term, ResultsSnapshot results) {
+        String searched = term.getTerm().toLowerCase(Locale.ROOT);
+        switch (term.getExpectation()) {
+            case RESULTS:
+                if (!results.hasResults()) {
+                    return "nenhum resultado listado " + results;
+                }
+                String echo = results.getSearchTermEcho();
+                if (!echo.isEmpty() && !echo.toLowerCase(Locale.ROOT).contains(searched)) {
+                    return "o termo ecoado ('" + echo + "') não corresponde ao buscado";
+                }
+                return null;
+            case NO_RESULTS:
+                if (!results.isNoResults()) {
+                    return "mensagem de 'nenhum resultado' não exibida " + results;
+                }
+                String shown = results.getNoResultsTerm();
+                if (!shown.isEmpty() && !shown.equalsIgnoreCase(term.getTerm())) {
+                    return "o termo da mensagem de 'nenhum resultado' ('" + shown + "') não corresponde ao buscado";
+                }
+                return null;
+            default:
+                if (!results.hasResults()) {
+                    return "nenhum resultado para verificar o primeiro produto " + results;
+                }
+                String title = results.getFirstProductTitle();
+                if (!title.toLowerCase(Locale.ROOT).contains(term.getExpectedTitle().toLowerCase(Locale.ROOT))) {
+                    return "o primeiro resultado ('" + title + "') não contém '" + term.getExpectedTitle() + "'";
+                }
+                return null;
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void writeResult(SearchTerm term, String tier, String status, String detail, long nanos) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("line", term.getLine());
+        line.put("site", term.getSite());
+        line.put("term", term.getTerm());
+        line.put("expect", term.getExpectation().name().toLowerCase(Locale.ROOT));
+        line.put("tier", tier);
+        line.put("status", status);
+        line.put("ms", TimeUnit.NANOSECONDS.toMillis(nanos));
+        line.put("thread", Thread.currentThread().getName());
+        if (detail != null) {
+            line.put("detail", detail);
+        }
+        StringBuilder out = new StringBuilder();
+        json.newOutput(out).setPrettyPrint(false).write(line);
+        synchronized (this) {
+            try {
+                results.write(out.toString());
+                results.write('\n');
+            } catch (IOException e) {
+                System.err.println("ERRO AO GRAVAR RESULTADO DO LOTE: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+}
@@ -0,0 +1,94 @@
+package bulk;
+
+import java.util.Locale;
+
+/**
+ * Uma linha do arquivo de termos: o site, o termo buscado e o resultado esperado da busca.
+ */
+public final class SearchTerm {
+
+    /**
+     * Resultado esperado de uma busca.
+     */
+    public enum Expectation {
+        /** A busca deve listar produtos e ecoar o termo (quando a página o ecoa). */
+        RESULTS,
+        /** A busca deve exibir a mensagem de "nenhum resultado". */
+        NO_RESULTS,
+        /** O título do primeiro produto deve conter o texto esperado. */
+        FIRST_TITLE;
+
+        /**
+         * Converte o valor da coluna "expect" (results, no_results/no-results/noresults ou first_title/title).
+         * @param value O valor lido do arquivo.
+         * @return O resultado esperado correspondente.
+         * @throws IllegalArgumentException se o valor não for reconhecido.
+         */
+        public static Expectation parse(String value) {
+            String normalized = value.trim().toLowerCase(Locale.ROOT).replace('-', '_');
+            switch (normalized) {
+                case "results":
+                case "resultados":
+                    return RESULTS;
+                case "no_results":
+                case "noresults":
+                case "sem_resultados":
+                    return NO_RESULTS;
+                case "first_title":
+                case "title":
+                case "primeiro_titulo":
+                    return FIRST_TITLE;
+                default:
+                    throw new IllegalArgumentException("Resultado esperado não reconhecido: '" + value + "'.");
+            }
+        }
+    }
+
+    private final String site;
+    private final String term;
+    private final Expectation expectation;
+    private final String expectedTitle;
+    private final long line;
+
+    /**
+     * Construtor do termo.
+     * @param site O site da busca ("amazon" ou "magalu").
+     * @param term O termo a ser buscado.
+     * @param expectation O resultado esperado.
+     * @param expectedTitle O texto esperado no título do primeiro produto (FIRST_TITLE), ou vazio.
+     * @param line A linha do arquivo (para as mensagens de falha).
+     */
+    public SearchTerm(String site, String term, Expectation expectation, String expectedTitle, long line) {
+        this.site = site.trim().toLowerCase(Locale.ROOT);
+        this.term = term;
+        this.expectation = expectation;
+        this.expectedTitle = expectedTitle == null ? "" : expectedTitle;
+        this.line = line;
+    }
+
+    public String getSite() {
+        return site;
+    }
+
+    public String getTerm() {
+        return term;
+    }
+
+    public Expectation getExpectation() {
+        return expectation;
+    }
+
+    public String getExpectedTitle() {
+        return expectedTitle;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    @Override
+    public String toString() {
+        return site + ":'" + term + "' (" + expectation + (expectation == Expectation.FIRST_TITLE ? " '" + expectedTitle + "'" : "")
+                + ", linha " + line + ")";
+    }
+}
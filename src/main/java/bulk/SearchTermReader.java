@@ -0,0 +1,195 @@
+package bulk;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Leitura incremental de um arquivo de termos de busca (CSV ou NDJSON), uma linha por vez:
+ * a memória usada não depende do tamanho do arquivo.
+ *
+ * CSV (extensão .csv): cabeçalho obrigatório com as colunas site, term, expect e, opcionalmente, title
+ * (em qualquer ordem). Valores com vírgula podem ser escritos entre aspas duplas ("" para uma aspa).
+ * NDJSON (extensão .ndjson ou .jsonl): um objeto por linha com os mesmos campos, ex:
+ * {"site": "amazon", "term": "Kindle", "expect": "first_title", "title": "Kindle"}
+ *
+ * Em ambos os formatos, linhas em branco e linhas começando com # são ignoradas.
+ * O campo expect aceita results, no_results ou first_title ({@link SearchTerm.Expectation#parse(String)}).
+ */
+public final class SearchTermReader implements Iterator<SearchTerm>, Closeable {
+
+    private static final Json JSON = new Json();
+
+    private final Path file;
+    private final BufferedReader reader;
+    private final boolean ndjson;
+    private int siteColumn = -1;
+    private int termColumn = -1;
+    private int expectColumn = -1;
+    private int titleColumn = -1;
+    private long lineNumber;
+    private SearchTerm next;
+
+    /**
+     * Abre o arquivo de termos. No CSV, lê o cabeçalho imediatamente.
+     * @param file O arquivo .csv, .ndjson ou .jsonl.
+     * @throws IOException se o arquivo não puder ser aberto.
+     * @throws IllegalArgumentException se o cabeçalho do CSV não tiver as colunas obrigatórias.
+     */
+    public SearchTermReader(Path file) throws IOException {
+        this.file = file;
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        this.ndjson = name.endsWith(".ndjson") || name.endsWith(".jsonl");
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        if (!ndjson) {
+            readHeader();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public SearchTerm next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SearchTerm term = next;
+        next = null;
+        return term;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        String line;
+        while ((line = nextDataLine()) != null) {
+            List<String> columns = parseCsvLine(line);
+            for (int i = 0; i < columns.size(); i++) {
+                switch (columns.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "site":
+                        siteColumn = i;
+                        break;
+                    case "term":
+                        termColumn = i;
+                        break;
+                    case "expect":
+                        expectColumn = i;
+                        break;
+                    case "title":
+                        titleColumn = i;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (siteColumn < 0 || termColumn < 0 || expectColumn < 0) {
+                reader.close();
+                throw new IllegalArgumentException("Cabeçalho inválido em " + file + " (esperado site,term,expect[,title]): " + line);
+            }
+            return;
+        }
+    }
+
+    private SearchTerm readNext() {
+        try {
+            String line = nextDataLine();
+            if (line == null) {
+                return null;
+            }
+            return ndjson ? fromJson(line) : fromCsv(line);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler " + file, e);
+        } catch (IllegalArgumentException | JsonException e) {
+            throw new IllegalArgumentException(file + ", linha " + lineNumber + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lê a próxima linha que não está em branco nem é comentário.
+     */
+    private String nextDataLine() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                return line;
+            }
+        }
+        return null;
+    }
+
+    private SearchTerm fromCsv(String line) {
+        List<String> columns = parseCsvLine(line);
+        return new SearchTerm(column(columns, siteColumn), column(columns, termColumn),
+                SearchTerm.Expectation.parse(column(columns, expectColumn)), column(columns, titleColumn), lineNumber);
+    }
+
+    private SearchTerm fromJson(String line) {
+        Map<String, Object> values = JSON.toType(line, Json.MAP_TYPE);
+        return new SearchTerm(field(values, "site"), field(values, "term"),
+                SearchTerm.Expectation.parse(field(values, "expect")), field(values, "title"), lineNumber);
+    }
+
+    private static String column(List<String> columns, int index) {
+        return index >= 0 && index < columns.size() ? columns.get(index).trim() : "";
+    }
+
+    private static String field(Map<String, Object> values, String name) {
+        Object value = values.get(name);
+        return value == null ? "" : value.toString();
+    }
+
+    /**
+     * Divide uma linha CSV em colunas, respeitando valores entre aspas duplas.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> columns = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+}
@@ -0,0 +1,54 @@
+package driver;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+import utils.Config;
+import utils.LatencyRegistry;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Listener do WebDriver que mede a latência de cada comando (WebDriver.get, WebElement.click, etc.)
+ * e a registra no {@link LatencyRegistry}, categoria "commands".
+ *
+ * Propriedade (sistema ou config.properties): metrics.commands.enabled (padrão true).
+ */
+public class CommandTimingListener implements WebDriverListener {
+
+    public static final String CATEGORY = "commands";
+
+    // Pilha por thread: chamadas aninhadas (ex: elemento retornado por findElement) têm seus próprios inícios
+    private final ThreadLocal<Deque<Long>> startTimes = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Verifica se a medição de latência dos comandos está habilitada (metrics.commands.enabled).
+     * @return true se habilitada.
+     */
+    public static boolean isEnabled() {
+        return Config.get().getBoolean("metrics.commands.enabled", true);
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        startTimes.get().push(System.nanoTime());
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        finish(method);
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        finish(method);
+    }
+
+    private void finish(Method method) {
+        Long start = startTimes.get().poll();
+        if (start != null) {
+            LatencyRegistry.record(CATEGORY, method.getDeclaringClass().getSimpleName() + "." + method.getName(), System.nanoTime() - start);
+        }
+    }
+}
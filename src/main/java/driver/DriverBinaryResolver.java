@@ -0,0 +1,242 @@
+package driver;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+import utils.Config;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Resolve o binário do driver do navegador (chromedriver, geckodriver) uma única vez por JVM, no lugar de chamar
+ * WebDriverManager.setup() a cada sessão criada.
+ *
+ * Ordem de resolução:
+ * 1. Binário configurado (driver.chrome.path / driver.firefox.path).
+ * 2. Cache em disco (driver.cache.dir), indexado pela versão principal do navegador instalado.
+ * 3. WebDriverManager (detecção de versão e download, pode usar a rede). O binário obtido é copiado para o cache.
+ *
+ * Com driver.offline=true somente as opções 1 e 2 são usadas: sem binário pré-provisionado, a criação do
+ * navegador falha imediatamente em vez de tentar a rede.
+ *
+ * O índice do cache guarda também quanto tempo levou a resolução completa, usado para estimar o tempo economizado.
+ */
+public final class DriverBinaryResolver {
+
+    private static final String INDEX_FILE = "drivers.properties";
+    private static final Pattern VERSION = Pattern.compile("(\\d+)\\.\\d+");
+
+    private static final class Resolution {
+        private final String browser;
+        private final String browserVersion;
+        private final Path driverPath;
+        private final String source;
+        private final long fullResolutionMillis;
+
+        private Resolution(String browser, String browserVersion, Path driverPath, String source, long fullResolutionMillis) {
+            this.browser = browser;
+            this.browserVersion = browserVersion;
+            this.driverPath = driverPath;
+            this.source = source;
+            this.fullResolutionMillis = fullResolutionMillis;
+        }
+    }
+
+    private static final Map<String, Resolution> resolved = new ConcurrentHashMap<>();
+    private static final AtomicLong setups = new AtomicLong();
+    private static final AtomicLong spentNanos = new AtomicLong();
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Garante que o driver do navegador esteja resolvido e configurado (webdriver.chrome.driver / webdriver.gecko.driver).
+     * Somente a primeira chamada por navegador na JVM faz a resolução; as demais são gratuitas.
+     * @param browser O navegador ("chrome" ou "firefox").
+     * @throws IllegalStateException no modo offline, se não houver binário pré-provisionado.
+     */
+    public static void setup(String browser) {
+        long start = System.nanoTime();
+        try {
+            resolved.computeIfAbsent(browser, DriverBinaryResolver::resolve);
+        } finally {
+            setups.incrementAndGet();
+            spentNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Verifica se o modo offline estrito está habilitado (driver.offline).
+     * @return true se somente binários pré-provisionados podem ser usados.
+     */
+    public static boolean isOffline() {
+        return Config.get().getBoolean("driver.offline", false);
+    }
+
+    private static Resolution resolve(String browser) {
+        Config config = Config.get();
+        String configured = config.getString("driver." + browser + ".path");
+        if (configured != null) {
+            Path path = Paths.get(configured);
+            if (!Files.isExecutable(path)) {
+                throw new IllegalStateException("Driver configurado em driver." + browser + ".path não encontrado ou sem permissão de execução: " + path);
+            }
+            return apply(new Resolution(browser, null, path, "configurado", 0));
+        }
+
+        Path cacheDir = getCacheDir();
+        String version = detectBrowserVersion(browser);
+        Properties index = loadIndex(cacheDir);
+        if (version != null) {
+            String cachedPath = index.getProperty(browser + "." + version + ".path");
+            if (cachedPath != null && Files.isExecutable(Paths.get(cachedPath))) {
+                long fullMillis = Long.parseLong(index.getProperty(browser + "." + version + ".resolve.ms", "0"));
+                return apply(new Resolution(browser, version, Paths.get(cachedPath), "cache em disco", fullMillis));
+            }
+        }
+        if (isOffline()) {
+            throw new IllegalStateException("MODO OFFLINE (driver.offline=true): nenhum driver pré-provisionado para " + browser
+                    + (version != null ? " " + version : " (versão do navegador não detectada)")
+                    + ". Configure driver." + browser + ".path ou provisione o cache em " + cacheDir + ".");
+        }
+
+        long start = System.nanoTime();
+        WebDriverManager manager = manager(browser);
+        manager.setup();
+        long fullMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        Path downloaded = Paths.get(manager.getDownloadedDriverPath());
+        if (version == null) {
+            return apply(new Resolution(browser, null, downloaded, "WebDriverManager", fullMillis));
+        }
+        Path cached = store(cacheDir, index, browser, version, downloaded, fullMillis);
+        return apply(new Resolution(browser, version, cached, "WebDriverManager", fullMillis));
+    }
+
+    private static Resolution apply(Resolution resolution) {
+        System.setProperty("firefox".equals(resolution.browser) ? "webdriver.gecko.driver" : "webdriver.chrome.driver",
+                resolution.driverPath.toString());
+        System.out.println("DRIVER RESOLVIDO: " + resolution.browser
+                + (resolution.browserVersion != null ? " " + resolution.browserVersion : "") + " | "
+                + resolution.source + " | " + resolution.driverPath);
+        return resolution;
+    }
+
+    private static WebDriverManager manager(String browser) {
+        return "firefox".equals(browser) ? WebDriverManager.firefoxdriver() : WebDriverManager.chromedriver();
+    }
+
+    /**
+     * Detecta a versão principal do navegador instalado (ex: "126"), executando o navegador com --version.
+     * @return A versão principal, ou null se não for possível detectar.
+     */
+    private static String detectBrowserVersion(String browser) {
+        try {
+            Optional<Path> browserPath = manager(browser).getBrowserPath();
+            if (!browserPath.isPresent()) {
+                return null;
+            }
+            Process process = new ProcessBuilder(browserPath.get().toString(), "--version").redirectErrorStream(true).start();
+            String output;
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                output = reader.readLine();
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+            Matcher matcher = VERSION.matcher(output == null ? "" : output);
+            return matcher.find() ? matcher.group(1) : null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("AVISO: Não foi possível detectar a versão do " + browser + ": " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static Path getCacheDir() {
+        return Paths.get(Config.get().getString("driver.cache.dir",
+                Paths.get(System.getProperty("user.home"), ".cache", "desafio-klok", "drivers").toString()));
+    }
+
+    private static Properties loadIndex(Path cacheDir) {
+        Properties index = new Properties();
+        Path file = cacheDir.resolve(INDEX_FILE);
+        if (Files.exists(file)) {
+            try (InputStream input = Files.newInputStream(file)) {
+                index.load(input);
+            } catch (IOException e) {
+                System.err.println("AVISO: Índice do cache de drivers ilegível (" + file + "): " + e.getMessage());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Copia o driver baixado para o cache ({browser}/{versão}/) e atualiza o índice (gravação atômica).
+     * @return O caminho do driver no cache, ou o caminho baixado se a cópia falhar.
+     */
+    private static Path store(Path cacheDir, Properties index, String browser, String version, Path downloaded, long fullMillis) {
+        try {
+            Path target = cacheDir.resolve(browser).resolve(version).resolve(downloaded.getFileName());
+            Files.createDirectories(target.getParent());
+            Files.copy(downloaded, target, StandardCopyOption.REPLACE_EXISTING);
+            target.toFile().setExecutable(true);
+            index.setProperty(browser + "." + version + ".path", target.toAbsolutePath().toString());
+            index.setProperty(browser + "." + version + ".resolve.ms", String.valueOf(fullMillis));
+            Path temp = Files.createTempFile(cacheDir, INDEX_FILE, ".tmp");
+            try (OutputStream output = Files.newOutputStream(temp)) {
+                index.store(output, "Drivers resolvidos por versão principal do navegador");
+            }
+            Files.move(temp, cacheDir.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return target;
+        } catch (IOException e) {
+            System.err.println("AVISO: Não foi possível gravar o driver no cache (" + cacheDir + "): " + e.getMessage());
+            return downloaded;
+        }
+    }
+
+    /**
+     * Imprime como cada driver foi resolvido e o tempo economizado em relação a uma resolução completa por sessão
+     * (e por cenário, considerando os empréstimos do pool).
+     */
+    public static void printStats() {
+        if (resolved.isEmpty()) {
+            return;
+        }
+        long sessions = setups.get();
+        long spentMillis = TimeUnit.NANOSECONDS.toMillis(spentNanos.get());
+        long scenarios = DriverPool.getLeaseCount();
+        System.out.println("RESOLUÇÃO DE DRIVERS" + (isOffline() ? " (offline)" : "") + ": " + sessions + " sessão(ões) criada(s) | "
+                + spentMillis + " ms gastos na resolução");
+        for (Resolution resolution : resolved.values()) {
+            StringBuilder line = new StringBuilder("  " + resolution.browser
+                    + (resolution.browserVersion != null ? " " + resolution.browserVersion : "") + " via " + resolution.source);
+            if (resolution.fullResolutionMillis > 0) {
+                // Sem o cache, cada cenário (ou cada sessão criada) pagaria uma resolução completa
+                long savedMillis = Math.max(0, resolution.fullResolutionMillis * Math.max(sessions, scenarios) - spentMillis);
+                line.append(" | resolução completa: ").append(resolution.fullResolutionMillis).append(" ms")
+                        .append(" | ~").append(savedMillis).append(" ms economizados");
+                if (scenarios > 0) {
+                    line.append(" (~").append(savedMillis / scenarios).append(" ms por cenário)");
+                }
+            }
+            System.out.println(line);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import utils.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fábrica de instâncias de WebDriver.
+ * Centraliza a criação dos navegadores (Chrome/Firefox) com base nas propriedades definidas,
+ * para que o pool de drivers possa criar novas sessões sempre que necessário.
+ */
+public class DriverFactory {
+
+    private static final CommandTimingListener commandTimingListener = new CommandTimingListener();
+    private static final List<WebDriverListener> listeners = new CopyOnWriteArrayList<>();
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Registra um listener que será instalado em todas as sessões criadas a partir de agora
+     * (ex: pelos Hooks, antes do aquecimento do pool).
+     * @param listener O listener do WebDriver.
+     */
+    public static void registerListener(WebDriverListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Obtém o tipo de navegador configurado.
+     * Resolvido uma vez no {@link Config} (ex: -Dbrowser=firefox, perfil ou config.properties; padrão "chrome").
+     * @return O nome do navegador em minúsculas.
+     */
+    public static String getBrowserType() {
+        return Config.get().getBrowser();
+    }
+
+    /**
+     * Verifica se o navegador deve ser iniciado em modo headless.
+     * Resolvido uma vez no {@link Config} (ex: -Dheadless=true, perfil ou config.properties; padrão "false").
+     * @return true se o modo headless estiver habilitado.
+     */
+    public static boolean isHeadless() {
+        return Config.get().isHeadless();
+    }
+
+    /**
+     * Cria uma nova instância de WebDriver de acordo com o navegador e o modo headless configurados.
+     * O driver é decorado com o {@link CommandTimingListener} (latência de cada comando) e com os listeners registrados.
+     * @return Uma nova sessão de WebDriver.
+     */
+    public static WebDriver createDriver() {
+        WebDriver driver = createRawDriver();
+        List<WebDriverListener> active = new ArrayList<>();
+        if (CommandTimingListener.isEnabled()) {
+            active.add(commandTimingListener);
+        }
+        active.addAll(listeners);
+        if (active.isEmpty()) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(active.toArray(new WebDriverListener[0])).decorate(driver);
+    }
+
+    private static WebDriver createRawDriver() {
+        String browserType = getBrowserType();
+        boolean isHeadless = isHeadless();
+
+        System.out.println("CRIANDO NAVEGADOR: " + browserType + " | HEADLESS: " + isHeadless
+                + " | CARREGAMENTO: " + PageLoadPolicy.getSessionStrategy().toString());
+
+        // É recomendado evitar misturar waits implícitos e explícitos.
+        // A BasePage já utiliza waits explícitos (WebDriverWait).
+        // Se fosse usar implicit wait:
+        // int implicitWait = Config.get().getInt("implicit.wait.seconds", 0);
+        // if (implicitWait > 0) {
+        //     driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
+        // }
+
+        switch (browserType) {
+            case "firefox":
+                DriverBinaryResolver.setup("firefox"); // Resolvido uma vez por JVM (cache em disco / driver.offline)
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                if (isHeadless) {
+                    firefoxOptions.addArguments("--headless");
+                }
+                firefoxOptions.setPageLoadStrategy(PageLoadPolicy.getSessionStrategy());
+                NetworkBlocker.configure(firefoxOptions); // Modo página enxuta (block.enabled)
+                // firefoxOptions.addArguments("--start-maximized"); // Maximizar pode ser instável em headless no Firefox
+                return new FirefoxDriver(firefoxOptions);
+            case "chrome":
+            default: // Chrome como padrão
+                DriverBinaryResolver.setup("chrome"); // Resolvido uma vez por JVM (cache em disco / driver.offline)
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.addArguments("--disable-extensions"); // Desabilita extensões
+                chromeOptions.addArguments("--disable-popup-blocking"); // Desabilita bloqueio de pop-ups
+                // chromeOptions.addArguments("--incognito"); // Para rodar em modo anônimo
+
+                if (isHeadless) {
+                    chromeOptions.addArguments("--headless=new"); // Novo modo headless do Chrome
+                    chromeOptions.addArguments("--disable-gpu"); // Necessário para algumas versões/ambientes em headless
+                    chromeOptions.addArguments("--window-size=1920,1080"); // Garante tamanho consistente em headless
+                } else {
+                    chromeOptions.addArguments("--start-maximized"); // Inicia o navegador maximizado
+                }
+                if (TabMultiplexer.isEnabled()) {
+                    // Várias abas por navegador: abas em segundo plano não devem ter timers nem renderização reduzidos
+                    chromeOptions.addArguments("--disable-background-timer-throttling");
+                    chromeOptions.addArguments("--disable-backgrounding-occluded-windows");
+                    chromeOptions.addArguments("--disable-renderer-backgrounding");
+                }
+                chromeOptions.setPageLoadStrategy(PageLoadPolicy.getSessionStrategy()); // A BasePage completa a espera de cada site
+                NetworkBlocker.configure(chromeOptions); // Modo página enxuta (block.enabled)
+                ChromeDriver chromeDriver = new ChromeDriver(chromeOptions);
+                NetworkBlocker.apply(chromeDriver);
+                return chromeDriver;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import utils.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de sessões de WebDriver compartilhado por toda a execução.
+ * Cada thread empresta (lease) uma sessão no início do cenário e a devolve ao final,
+ * evitando abrir e fechar um navegador por cenário. As sessões são resetadas entre cenários ({@link SessionReset})
+ * e recicladas (encerradas e recriadas) após um número máximo de usos, em caso de falha do cenário ou se o reset,
+ * a verificação de saúde ou a verificação de isolamento falharem.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - driver.pool.size: quantidade máxima de sessões vivas (padrão 1; nunca menor que -Dthreads).
+ * - driver.pool.max.uses: quantidade de cenários por sessão antes de reciclá-la (padrão 20).
+ * - driver.pool.warmup: quantidade de sessões pré-criadas no @BeforeAll (padrão = driver.pool.size; nunca menor que -Dthreads).
+ * - driver.pool.lease.timeout.seconds: tempo máximo de espera por uma sessão livre (padrão 300).
+ * - session.mode: reset (padrão; reutiliza a sessão entre cenários) ou quit (um navegador novo por cenário).
+ * - session.isolation.check: verifica, após o reset, que nenhum cookie ou storage restou (padrão true).
+ * - driver.tabs.per.browser: com valor maior que 1, cada cenário recebe uma aba de um navegador compartilhado
+ *   ({@link TabMultiplexer}) no lugar de uma sessão inteira.
+ */
+public class DriverPool {
+
+    private static final BlockingQueue<DriverSession> idleSessions = new LinkedBlockingQueue<>();
+    private static final Set<DriverSession> liveSessions = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<DriverSession> currentSession = new ThreadLocal<>();
+
+    private static final int threads = Config.get().getThreads(); // -Dthreads (execução paralela)
+    private static final int poolSize = Math.max(threads, getIntSetting("driver.pool.size", 1));
+    private static final int maxUses = Math.max(1, getIntSetting("driver.pool.max.uses", 20));
+    private static final int leaseTimeoutSeconds = getIntSetting("driver.pool.lease.timeout.seconds", 300);
+    private static final Semaphore capacity = new Semaphore(poolSize);
+    private static final boolean resetMode = !"quit".equalsIgnoreCase(Config.get().getString("session.mode", "reset"));
+
+    // Métricas do pool
+    private static final AtomicLong leases = new AtomicLong();
+    private static final AtomicLong reuses = new AtomicLong();
+    private static final AtomicLong created = new AtomicLong();
+    private static final AtomicLong recycled = new AtomicLong();
+    private static final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private static final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private static final AtomicLong resets = new AtomicLong();
+    private static final AtomicLong totalResetNanos = new AtomicLong();
+    private static final AtomicLong totalCreateNanos = new AtomicLong();
+
+    private DriverPool() {
+    }
+
+    /**
+     * Pré-cria sessões de navegador em paralelo para que os primeiros cenários não paguem o custo de inicialização.
+     * Deve ser chamado uma única vez no @BeforeAll.
+     */
+    public static void warmUp() {
+        if (TabMultiplexer.isEnabled()) {
+            TabMultiplexer.warmUp(getIntSetting("driver.pool.warmup", 1));
+            return;
+        }
+        int warmup = Math.min(poolSize, Math.max(threads, getIntSetting("driver.pool.warmup", poolSize)));
+        System.out.println("POOL DE DRIVERS: tamanho " + poolSize + " | pré-criando " + warmup + " sessão(ões) | máx. usos por sessão: " + maxUses
+                + " | modo: " + (resetMode ? "reset" + (SessionReset.isIsolationCheckEnabled() ? " (com verificação de isolamento)" : "") : "quit"));
+        if (warmup == 0) {
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(warmup);
+        try {
+            List<Future<DriverSession>> futures = new ArrayList<>();
+            for (int i = 0; i < warmup; i++) {
+                if (!capacity.tryAcquire()) {
+                    break;
+                }
+                futures.add(executor.submit(DriverPool::createSession));
+            }
+            for (Future<DriverSession> future : futures) {
+                try {
+                    idleSessions.offer(future.get());
+                } catch (Exception e) {
+                    capacity.release();
+                    System.err.println("ERRO AO PRÉ-CRIAR SESSÃO DO POOL: " + e.getMessage());
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Empresta uma sessão para a thread atual. Reutiliza uma sessão livre, cria uma nova se ainda houver
+     * capacidade ou aguarda até que outra thread devolva uma sessão.
+     * @return O WebDriver emprestado à thread atual.
+     */
+    public static WebDriver lease() {
+        DriverSession existing = currentSession.get();
+        if (existing != null) {
+            return existing.getDriver(); // A thread já possui uma sessão emprestada
+        }
+
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(leaseTimeoutSeconds);
+        DriverSession session = TabMultiplexer.isEnabled() ? TabMultiplexer.open(leaseTimeoutSeconds) : null;
+        try {
+            while (session == null) {
+                session = idleSessions.poll();
+                if (session == null && capacity.tryAcquire()) {
+                    try {
+                        session = createSession();
+                    } catch (RuntimeException e) {
+                        capacity.release();
+                        throw e;
+                    }
+                }
+                if (session == null) {
+                    session = idleSessions.poll(200, TimeUnit.MILLISECONDS);
+                }
+                if (session == null && System.nanoTime() > deadline) {
+                    throw new IllegalStateException("Nenhuma sessão de navegador ficou livre em " + leaseTimeoutSeconds + "s (driver.pool.size=" + poolSize + ").");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido enquanto aguardava uma sessão do pool.", e);
+        }
+
+        long waited = System.nanoTime() - start;
+        totalLeaseWaitNanos.addAndGet(waited);
+        maxLeaseWaitNanos.accumulateAndGet(waited, Math::max);
+        leases.incrementAndGet();
+        if (session.getUses() > 0) {
+            reuses.incrementAndGet();
+        }
+
+        session.markLeased(Thread.currentThread());
+        currentSession.set(session);
+        System.out.println("POOL DE DRIVERS: " + session + " emprestada para " + Thread.currentThread().getName()
+                + " (espera: " + TimeUnit.NANOSECONDS.toMillis(waited) + " ms)");
+        return session.getDriver();
+    }
+
+    /**
+     * Obtém o WebDriver emprestado à thread atual.
+     * Garante que a sessão pertence à thread chamadora, para que nenhum navegador seja compartilhado entre threads.
+     * @return O WebDriver da sessão atual.
+     * @throws IllegalStateException se a thread não possuir sessão emprestada.
+     */
+    public static WebDriver getDriver() {
+        DriverSession session = currentSession.get();
+        if (session == null) {
+            throw new IllegalStateException("A thread " + Thread.currentThread().getName() + " não possui sessão de navegador emprestada. Verifique os Hooks.");
+        }
+        if (session.getOwner() != Thread.currentThread()) {
+            throw new IllegalStateException(session + " está emprestada para outra thread (" + session.getOwner() + ").");
+        }
+        return session.getDriver();
+    }
+
+    /**
+     * Verifica se a thread atual possui uma sessão emprestada.
+     * @return true se houver sessão emprestada.
+     */
+    public static boolean hasDriver() {
+        return currentSession.get() != null;
+    }
+
+    /**
+     * Devolve a sessão da thread atual ao pool.
+     * A sessão é resetada para o próximo cenário, ou reciclada se falhou, atingiu o máximo de usos, se o reset não
+     * deixou a sessão saudável e isolada, ou se session.mode=quit.
+     * @param failed true se o cenário falhou (a sessão será descartada).
+     */
+    public static void release(boolean failed) {
+        DriverSession session = currentSession.get();
+        if (session == null) {
+            return;
+        }
+        currentSession.remove();
+        session.markReleased();
+
+        if (TabMultiplexer.isEnabled()) {
+            TabMultiplexer.close(session, failed); // A aba é fechada; o navegador continua atendendo as demais
+            return;
+        }
+        String reason = failed ? "cenário falhou"
+                : !resetMode ? "session.mode=quit"
+                : session.getUses() >= maxUses ? "máximo de usos atingido"
+                : resetSession(session);
+        if (reason != null) {
+            recycle(session, reason);
+            return;
+        }
+        idleSessions.offer(session);
+    }
+
+    /**
+     * Encerra todas as sessões do pool e imprime as métricas de uso.
+     * Deve ser chamado uma única vez no @AfterAll.
+     */
+    public static void shutdown() {
+        for (DriverSession session : new ArrayList<>(liveSessions)) {
+            quitQuietly(session);
+        }
+        idleSessions.clear();
+        TabMultiplexer.shutdown();
+        printStats();
+    }
+
+    /**
+     * Imprime as métricas do pool: tempo de espera por sessão e taxa de reutilização.
+     */
+    public static void printStats() {
+        long totalLeases = leases.get();
+        long avgWaitMs = totalLeases == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalLeaseWaitNanos.get() / totalLeases);
+        double reuseRate = totalLeases == 0 ? 0 : (reuses.get() * 100.0) / totalLeases;
+        System.out.println("POOL DE DRIVERS - MÉTRICAS:");
+        System.out.println("  Empréstimos: " + totalLeases + " | Reutilizações: " + reuses.get() + String.format(" (%.1f%%)", reuseRate));
+        System.out.println("  Sessões criadas: " + created.get() + " | Recicladas: " + recycled.get());
+        System.out.println("  Espera por sessão: média " + avgWaitMs + " ms | máxima " + TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitNanos.get()) + " ms");
+        long avgCreateMs = created.get() == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalCreateNanos.get() / created.get());
+        long avgResetMs = resets.get() == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalResetNanos.get() / resets.get());
+        if (TabMultiplexer.isEnabled()) {
+            TabMultiplexer.printStats();
+            return;
+        }
+        System.out.println("  Criação de sessão: média " + avgCreateMs + " ms | Reset: " + resets.get() + " (média " + avgResetMs
+                + " ms) | Falhas de isolamento: " + SessionReset.getIsolationFailures());
+    }
+
+    private static DriverSession createSession() {
+        long start = System.nanoTime();
+        DriverSession session = new DriverSession(DriverFactory.createDriver());
+        totalCreateNanos.addAndGet(System.nanoTime() - start);
+        liveSessions.add(session);
+        created.incrementAndGet();
+        return session;
+    }
+
+    /**
+     * Limpa o estado da sessão entre cenários (janelas extras, storage, cookies, about:blank) e verifica
+     * a saúde e o isolamento da sessão ({@link SessionReset}).
+     * @return null se o reset foi bem-sucedido, ou o motivo para reciclar a sessão.
+     */
+    private static String resetSession(DriverSession session) {
+        long start = System.nanoTime();
+        String problem = SessionReset.reset(session.getDriver());
+        totalResetNanos.addAndGet(System.nanoTime() - start);
+        resets.incrementAndGet();
+        if (problem != null) {
+            System.err.println("POOL DE DRIVERS: falha ao resetar " + session + ": " + problem);
+        }
+        return problem;
+    }
+
+    private static void recycle(DriverSession session, String reason) {
+        System.out.println("POOL DE DRIVERS: reciclando " + session + " (" + reason + ").");
+        recycled.incrementAndGet();
+        quitQuietly(session);
+    }
+
+    private static void quitQuietly(DriverSession session) {
+        if (!liveSessions.remove(session)) {
+            return;
+        }
+        try {
+            session.getDriver().quit();
+        } catch (Exception e) {
+            System.err.println("ERRO AO FECHAR " + session + ": " + e.getMessage());
+        } finally {
+            capacity.release();
+        }
+    }
+
+    /**
+     * @return A quantidade de sessões de navegador vivas (livres ou emprestadas) no pool.
+     */
+    public static int getLiveSessionCount() {
+        return liveSessions.size();
+    }
+
+    /**
+     * @return A quantidade máxima de sessões que podem estar emprestadas ao mesmo tempo (driver.pool.size, ou
+     * navegadores x abas com {@link TabMultiplexer}).
+     */
+    public static int getCapacity() {
+        return TabMultiplexer.isEnabled() ? TabMultiplexer.getCapacity() : poolSize;
+    }
+
+    /**
+     * @return A quantidade de empréstimos de sessão (um por cenário) desde o início da execução.
+     */
+    public static long getLeaseCount() {
+        return leases.get();
+    }
+
+    /**
+     * Lê uma configuração inteira do retrato da configuração (propriedades de sistema, perfis e config.properties).
+     */
+    private static int getIntSetting(String key, int defaultValue) {
+        return Config.get().getInt(key, defaultValue);
+    }
+}
@@ -0,0 +1,69 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Representa uma sessão de navegador gerenciada pelo {@link DriverPool}.
+ * Guarda o WebDriver e a quantidade de vezes que a sessão já foi emprestada a um cenário.
+ */
+public class DriverSession {
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final int id;
+    private final WebDriver driver;
+    private int uses;
+    private volatile Thread owner;
+
+    /**
+     * Construtor da DriverSession.
+     * @param driver A instância do WebDriver controlada por esta sessão.
+     */
+    DriverSession(WebDriver driver) {
+        this.id = SEQUENCE.incrementAndGet();
+        this.driver = driver;
+    }
+
+    /**
+     * @return O identificador sequencial da sessão (útil para logs).
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return A instância do WebDriver desta sessão.
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * @return Quantas vezes esta sessão já foi emprestada.
+     */
+    public int getUses() {
+        return uses;
+    }
+
+    /**
+     * @return A thread que detém o empréstimo atual, ou null se a sessão estiver livre.
+     */
+    public Thread getOwner() {
+        return owner;
+    }
+
+    void markLeased(Thread thread) {
+        this.owner = thread;
+        this.uses++;
+    }
+
+    void markReleased() {
+        this.owner = null;
+    }
+
+    @Override
+    public String toString() {
+        return "Sessao#" + id + " (usos: " + uses + ")";
+    }
+}
@@ -0,0 +1,297 @@
+package driver;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import utils.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+/**
+ * Modo "página enxuta": bloqueia imagens, fontes, mídia, anúncios e rastreadores que nenhuma asserção utiliza,
+ * reduzindo a latência de carregamento e a memória de cada navegador.
+ *
+ * No Chrome o bloqueio é feito pelo DevTools (Network.setBlockedURLs), sem interceptar cada requisição,
+ * e a contagem de requisições bloqueadas vem do log de performance do ChromeDriver (Network.loadingFailed).
+ * Os bytes economizados são uma estimativa: média de bytes das requisições do mesmo tipo que foram carregadas
+ * nesta execução ou, na falta delas, um valor padrão por tipo.
+ * No Firefox apenas imagens e fontes são bloqueadas (via preferências, para a sessão inteira) e não há contagem.
+ *
+ * Os padrões são por site: como as sessões do pool atendem os dois sites, a {@link pages.BasePage} aplica a lista do
+ * site antes de cada navegação ({@link #applySite(WebDriver, String)}), de modo que os padrões da Amazon não valem na
+ * Magalu e vice-versa. Antes da primeira navegação vale a lista comum (tipos de recurso e block.url.patterns).
+ *
+ * Propriedades (sistema ou config.properties):
+ * - block.enabled: true para ativar o modo (padrão false).
+ * - block.resource.types: tipos bloqueados (image, font, media, stylesheet); {site}.block.resource.types
+ *   (ex: magalu.block.resource.types) substitui a lista no site.
+ * - block.url.patterns: padrões de URL bloqueados nos dois sites (curingas "*").
+ * - block.amazon.patterns, block.magalu.patterns: padrões de URL bloqueados somente no site.
+ */
+public class NetworkBlocker {
+
+    private static final Map<String, List<String>> RESOURCE_TYPE_PATTERNS = new HashMap<>();
+    private static final Map<String, Long> DEFAULT_BYTES_BY_TYPE = new HashMap<>();
+
+    static {
+        RESOURCE_TYPE_PATTERNS.put("image", Arrays.asList("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.avif*", "*.svg*", "*.ico*"));
+        RESOURCE_TYPE_PATTERNS.put("font", Arrays.asList("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"));
+        RESOURCE_TYPE_PATTERNS.put("media", Arrays.asList("*.mp4*", "*.webm*", "*.m3u8*", "*.mp3*", "*.ogg*"));
+        RESOURCE_TYPE_PATTERNS.put("stylesheet", Collections.singletonList("*.css*"));
+
+        DEFAULT_BYTES_BY_TYPE.put("Image", 35_000L);
+        DEFAULT_BYTES_BY_TYPE.put("Font", 40_000L);
+        DEFAULT_BYTES_BY_TYPE.put("Media", 300_000L);
+        DEFAULT_BYTES_BY_TYPE.put("Script", 25_000L);
+        DEFAULT_BYTES_BY_TYPE.put("Stylesheet", 20_000L);
+    }
+
+    private static final boolean enabled = Config.get().getBoolean("block.enabled", false);
+    private static final Set<String> resourceTypes = splitSetting(Config.get(), "block.resource.types", "image,font,media", true);
+    private static final List<String> commonPatterns = buildUrlPatterns(null);
+    private static final Map<String, List<String>> sitePatterns = new ConcurrentHashMap<>();
+
+    // Média de bytes carregados por tipo de recurso (aprendida das requisições não bloqueadas)
+    private static final Map<String, AtomicLong[]> loadedBytesByType = new ConcurrentHashMap<>();
+    private static final AtomicLong totalBlocked = new AtomicLong();
+    private static final AtomicLong totalRequests = new AtomicLong();
+    private static final AtomicLong totalSavedBytes = new AtomicLong();
+
+    private NetworkBlocker() {
+    }
+
+    /**
+     * @return true se o modo de bloqueio estiver ativo.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ajusta as opções do Chrome antes da criação do navegador (habilita o log de performance para a contagem).
+     * @param options As opções do Chrome.
+     */
+    public static void configure(ChromeOptions options) {
+        if (!enabled) {
+            return;
+        }
+        LoggingPreferences logging = new LoggingPreferences();
+        logging.enable(LogType.PERFORMANCE, Level.ALL);
+        options.setCapability(ChromeOptions.LOGGING_PREFS, logging);
+    }
+
+    /**
+     * Ajusta as opções do Firefox antes da criação do navegador (bloqueio de imagens/fontes por preferência).
+     * @param options As opções do Firefox.
+     */
+    public static void configure(FirefoxOptions options) {
+        if (!enabled) {
+            return;
+        }
+        if (resourceTypes.contains("image")) {
+            options.addPreference("permissions.default.image", 2);
+        }
+        if (resourceTypes.contains("font")) {
+            options.addPreference("browser.display.use_document_fonts", 0);
+        }
+    }
+
+    /**
+     * Ativa o bloqueio de URLs na aba atual do navegador com a lista comum aos sites (somente Chrome/Chromium).
+     * @param driver O WebDriver original (não decorado) recém-criado.
+     */
+    public static void apply(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            HasCdp cdp = (HasCdp) driver;
+            cdp.executeCdpCommand("Network.enable", new HashMap<>());
+            setBlockedUrls(cdp, commonPatterns);
+        } catch (Exception e) {
+            System.err.println("BLOQUEIO DE REQUISIÇÕES: não foi possível ativar no navegador: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Troca a lista de URLs bloqueadas da aba atual pela do site, antes de navegar para ele (somente Chrome/Chromium).
+     * Custa uma chamada ao DevTools por navegação, e somente com o modo ativo.
+     * @param driver O WebDriver do cenário.
+     * @param site O nome do site (ex: "amazon", "magalu").
+     */
+    public static void applySite(WebDriver driver, String site) {
+        if (!enabled || !(driver instanceof HasCdp)) {
+            return;
+        }
+        try {
+            setBlockedUrls((HasCdp) driver, sitePatterns.computeIfAbsent(site, NetworkBlocker::buildUrlPatterns));
+        } catch (Exception e) {
+            System.err.println("BLOQUEIO DE REQUISIÇÕES: não foi possível aplicar os padrões de " + site + ": " + e.getMessage());
+        }
+    }
+
+    private static void setBlockedUrls(HasCdp cdp, List<String> patterns) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("urls", patterns);
+        cdp.executeCdpCommand("Network.setBlockedURLs", params);
+    }
+
+    /**
+     * Descarta o log de performance acumulado (ex: navegação de reset), para que o relatório conte somente o cenário atual.
+     * @param driver O WebDriver do cenário.
+     */
+    public static void startScenario(WebDriver driver) {
+        if (enabled && driver instanceof HasCdp) {
+            readPerformanceLog(driver);
+        }
+    }
+
+    /**
+     * Contabiliza as requisições bloqueadas no cenário e retorna um resumo para o log/relatório.
+     * @param driver O WebDriver do cenário.
+     * @return O resumo do cenário, ou null se o modo estiver desativado ou não houver dados.
+     */
+    public static String finishScenario(WebDriver driver) {
+        if (!enabled || !(driver instanceof HasCdp)) {
+            return null;
+        }
+        List<LogEntry> entries = readPerformanceLog(driver);
+        Json json = new Json();
+        Map<String, String> typeByRequest = new HashMap<>();
+        Map<String, Integer> blockedByType = new LinkedHashMap<>();
+        int requests = 0;
+
+        for (LogEntry entry : entries) {
+            Map<String, Object> message;
+            try {
+                Map<String, Object> raw = json.toType(entry.getMessage(), Json.MAP_TYPE);
+                message = asMap(raw.get("message"));
+            } catch (Exception e) {
+                continue;
+            }
+            String method = String.valueOf(message.get("method"));
+            Map<String, Object> params = asMap(message.get("params"));
+            String requestId = String.valueOf(params.get("requestId"));
+            switch (method) {
+                case "Network.requestWillBeSent":
+                    requests++;
+                    typeByRequest.put(requestId, String.valueOf(params.get("type")));
+                    break;
+                case "Network.loadingFinished":
+                    Object length = params.get("encodedDataLength");
+                    String loadedType = typeByRequest.get(requestId);
+                    if (loadedType != null && length instanceof Number) {
+                        AtomicLong[] stats = loadedBytesByType.computeIfAbsent(loadedType, t -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+                        stats[0].addAndGet(((Number) length).longValue());
+                        stats[1].incrementAndGet();
+                    }
+                    break;
+                case "Network.loadingFailed":
+                    if (params.get("blockedReason") != null) {
+                        String blockedType = String.valueOf(params.getOrDefault("type", typeByRequest.getOrDefault(requestId, "Other")));
+                        blockedByType.merge(blockedType, 1, Integer::sum);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        int blocked = blockedByType.values().stream().mapToInt(Integer::intValue).sum();
+        long savedBytes = 0;
+        for (Map.Entry<String, Integer> blockedType : blockedByType.entrySet()) {
+            savedBytes += estimatedBytes(blockedType.getKey()) * blockedType.getValue();
+        }
+        totalBlocked.addAndGet(blocked);
+        totalRequests.addAndGet(requests);
+        totalSavedBytes.addAndGet(savedBytes);
+        return "REQUISIÇÕES BLOQUEADAS: " + blocked + " de " + requests + " " + blockedByType
+                + String.format(" | ~%.1f KB economizados (estimativa)", savedBytes / 1024.0);
+    }
+
+    /**
+     * Imprime o total de requisições bloqueadas e bytes economizados na execução.
+     */
+    public static void printStats() {
+        if (!enabled) {
+            return;
+        }
+        System.out.println("BLOQUEIO DE REQUISIÇÕES - MÉTRICAS:");
+        StringBuilder active = new StringBuilder("comuns " + commonPatterns.size());
+        new TreeMap<>(sitePatterns).forEach((site, patterns) -> active.append(", ").append(site).append(' ').append(patterns.size()));
+        System.out.println("  Padrões ativos: " + active + " | Bloqueadas: " + totalBlocked.get() + " de " + totalRequests.get()
+                + String.format(" requisições | ~%.1f MB economizados (estimativa)", totalSavedBytes.get() / (1024.0 * 1024.0)));
+    }
+
+    private static long estimatedBytes(String type) {
+        AtomicLong[] stats = loadedBytesByType.get(type);
+        if (stats != null && stats[1].get() > 0) {
+            return stats[0].get() / stats[1].get();
+        }
+        return DEFAULT_BYTES_BY_TYPE.getOrDefault(type, 10_000L);
+    }
+
+    private static List<LogEntry> readPerformanceLog(WebDriver driver) {
+        try {
+            return driver.manage().logs().get(LogType.PERFORMANCE).getAll();
+        } catch (Exception e) {
+            return Collections.emptyList();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : Collections.emptyMap();
+    }
+
+    /**
+     * @param site O nome do site, ou null para a lista comum (antes da primeira navegação).
+     * @return Os padrões dos tipos de recurso do site, de block.url.patterns e de block.{site}.patterns.
+     */
+    private static List<String> buildUrlPatterns(String site) {
+        Config config = Config.get().forSite(site);
+        Set<String> patterns = new LinkedHashSet<>();
+        for (String type : splitSetting(config, "block.resource.types", "image,font,media", true)) {
+            List<String> typePatterns = RESOURCE_TYPE_PATTERNS.get(type);
+            if (typePatterns != null) {
+                patterns.addAll(typePatterns);
+            } else {
+                System.err.println("AVISO: Tipo de recurso desconhecido em block.resource.types: " + type);
+            }
+        }
+        patterns.addAll(splitSetting(config, "block.url.patterns", "", false));
+        if (site != null) {
+            patterns.addAll(splitSetting(config, "block." + site + ".patterns", "", false));
+        }
+        return new ArrayList<>(patterns);
+    }
+
+    private static Set<String> splitSetting(Config config, String key, String defaultValue, boolean lowerCase) {
+        Set<String> values = new LinkedHashSet<>();
+        String raw = config.getString(key, defaultValue);
+        for (String value : raw.split(",")) {
+            if (!value.trim().isEmpty()) {
+                values.add(lowerCase ? value.trim().toLowerCase(Locale.ROOT) : value.trim());
+            }
+        }
+        return values;
+    }
+}
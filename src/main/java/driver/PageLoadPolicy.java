@@ -0,0 +1,208 @@
+package driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import utils.Config;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Estratégia de carregamento de página (normal, eager ou none) por site.
+ *
+ * A estratégia é uma capability da sessão do navegador, portanto a sessão é criada com a estratégia mais permissiva
+ * entre as configuradas, e a {@code BasePage} completa a espera de cada site (document.readyState + elementos
+ * interagíveis). Assim, a navegação retorna assim que a página está utilizável.
+ *
+ * O tempo economizado é medido no próprio navegador: o instante em que a página ficou pronta é comparado com o
+ * fim do evento "load" (Navigation Timing). Como o "load" termina depois do retorno da navegação, cada medição
+ * fica no sessionStorage da aba e é coletada na próxima navegação ou no fim do cenário.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - pageload.strategy: estratégia padrão (normal, eager, none). Padrão: normal.
+ * - amazon.pageload.strategy / magalu.pageload.strategy: estratégia de cada site (padrão: pageload.strategy).
+ */
+public class PageLoadPolicy {
+
+    private static final String STORAGE_KEY = "__pageLoadTimings";
+
+    // Registra o instante de "pronto" e agenda a gravação do fim do "load" no sessionStorage da aba
+    private static final String MARK_READY_SCRIPT =
+            "var site = arguments[0], ready = performance.now();"
+                    + "function save() {"
+                    + "  var nav = performance.getEntriesByType('navigation')[0];"
+                    + "  var loadEnd = nav ? nav.loadEventEnd : 0;"
+                    + "  try {"
+                    + "    var list = JSON.parse(sessionStorage.getItem('" + STORAGE_KEY + "') || '[]');"
+                    + "    list.push({site: site, ready: ready, load: loadEnd});"
+                    + "    sessionStorage.setItem('" + STORAGE_KEY + "', JSON.stringify(list));"
+                    + "  } catch (e) {}"
+                    + "}"
+                    + "if (document.readyState === 'complete') { save(); }"
+                    + "else { window.addEventListener('load', function() { setTimeout(save, 0); }); }"
+                    + "return ready;";
+
+    private static final String COLLECT_SCRIPT =
+            "try {"
+                    + "  var list = sessionStorage.getItem('" + STORAGE_KEY + "');"
+                    + "  sessionStorage.removeItem('" + STORAGE_KEY + "');"
+                    + "  return list ? JSON.parse(list) : [];"
+                    + "} catch (e) { return []; }";
+
+    private static final Map<String, AtomicLong[]> savedBySite = new ConcurrentHashMap<>();
+    private static final ThreadLocal<long[]> scenarioTotals = ThreadLocal.withInitial(() -> new long[2]);
+
+    private PageLoadPolicy() {
+    }
+
+    /**
+     * Obtém a estratégia de carregamento configurada para um site.
+     * @param site O nome do site (ex: "amazon", "magalu"), ou null para a estratégia padrão.
+     * @return A estratégia do site.
+     */
+    public static PageLoadStrategy getStrategy(String site) {
+        // A visão do site prioriza {site}.pageload.strategy sobre pageload.strategy
+        return parse(Config.get().forSite(site).getString("pageload.strategy", "normal"));
+    }
+
+    /**
+     * Obtém a estratégia usada na criação das sessões: a mais permissiva entre a padrão e as dos sites.
+     * @return A estratégia da sessão.
+     */
+    public static PageLoadStrategy getSessionStrategy() {
+        PageLoadStrategy session = getStrategy(null);
+        for (String site : new String[]{"amazon", "magalu"}) {
+            PageLoadStrategy strategy = getStrategy(site);
+            if (permissiveness(strategy) > permissiveness(session)) {
+                session = strategy;
+            }
+        }
+        return session;
+    }
+
+    /**
+     * Condição de document.readyState equivalente à estratégia do site.
+     * @param readyState O valor atual de document.readyState.
+     * @param strategy A estratégia do site.
+     * @return true se o documento já atende à estratégia.
+     */
+    public static boolean isDocumentReady(String readyState, PageLoadStrategy strategy) {
+        switch (strategy) {
+            case NONE:
+                return true;
+            case EAGER:
+                return "interactive".equals(readyState) || "complete".equals(readyState);
+            case NORMAL:
+            default:
+                return "complete".equals(readyState);
+        }
+    }
+
+    /**
+     * Registra que a página atual ficou pronta. O tempo economizado é coletado depois, por {@link #collect(WebDriver)}.
+     * @param driver O WebDriver da navegação.
+     * @param site O nome do site navegado.
+     */
+    public static void markReady(WebDriver driver, String site) {
+        if (getStrategy(site) == PageLoadStrategy.NORMAL) {
+            return; // Sem ganho a medir: a navegação já esperou o "load"
+        }
+        try {
+            ((JavascriptExecutor) driver).executeScript(MARK_READY_SCRIPT, site);
+        } catch (Exception e) {
+            System.err.println("AVISO: Não foi possível registrar o tempo de carregamento da página: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Coleta as medições pendentes da aba atual e soma o tempo economizado (fim do "load" - instante de "pronto").
+     * Chamado antes de cada navegação e no fim do cenário.
+     * @param driver O WebDriver da sessão.
+     */
+    public static void collect(WebDriver driver) {
+        Object result;
+        try {
+            result = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT);
+        } catch (Exception e) {
+            return; // Ex: página about:blank ou sem acesso ao sessionStorage
+        }
+        if (!(result instanceof List)) {
+            return;
+        }
+        long[] totals = scenarioTotals.get();
+        for (Object item : (List<?>) result) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> timing = (Map<?, ?>) item;
+            double ready = toDouble(timing.get("ready"));
+            double load = toDouble(timing.get("load"));
+            long savedMs = load > ready ? Math.round(load - ready) : 0;
+            AtomicLong[] site = savedBySite.computeIfAbsent(String.valueOf(timing.get("site")),
+                    s -> new AtomicLong[]{new AtomicLong(), new AtomicLong()});
+            site[0].incrementAndGet();
+            site[1].addAndGet(savedMs);
+            totals[0]++;
+            totals[1] += savedMs;
+        }
+    }
+
+    /**
+     * Coleta as medições pendentes e retorna o resumo do cenário atual (zerando os contadores da thread).
+     * @param driver O WebDriver do cenário.
+     * @return O resumo do cenário, ou null se nenhuma navegação foi medida.
+     */
+    public static String finishScenario(WebDriver driver) {
+        collect(driver);
+        long[] totals = scenarioTotals.get();
+        scenarioTotals.remove();
+        if (totals[0] == 0) {
+            return null;
+        }
+        return "ESTRATÉGIA DE CARREGAMENTO: " + totals[0] + " navegação(ões) medida(s) | ~" + totals[1] + " ms economizados";
+    }
+
+    /**
+     * Imprime o tempo economizado por site na execução.
+     */
+    public static void printStats() {
+        if (savedBySite.isEmpty()) {
+            return;
+        }
+        System.out.println("ESTRATÉGIA DE CARREGAMENTO - MÉTRICAS (sessão: " + getSessionStrategy().toString() + "):");
+        savedBySite.forEach((site, stats) -> {
+            long navigations = stats[0].get();
+            long savedMs = stats[1].get();
+            System.out.println("  " + site + " (" + getStrategy(site).toString() + "): " + navigations + " navegações | ~" + savedMs
+                    + " ms economizados | média ~" + (navigations == 0 ? 0 : savedMs / navigations) + " ms por navegação");
+        });
+    }
+
+    private static PageLoadStrategy parse(String value) {
+        try {
+            return PageLoadStrategy.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("AVISO: Estratégia de carregamento inválida '" + value + "'. Usando 'normal'.");
+            return PageLoadStrategy.NORMAL;
+        }
+    }
+
+    private static int permissiveness(PageLoadStrategy strategy) {
+        switch (strategy) {
+            case NONE:
+                return 2;
+            case EAGER:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+}
@@ -0,0 +1,195 @@
+package driver;
+
+import utils.Config;
+import utils.LatencyRegistry;
+import utils.ProcessMetrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admissão de cenários de acordo com os recursos da máquina, para que uma execução paralela larga demais
+ * (-Dthreads) não esgote memória ou CPU e faça todos os cenários estourarem o timeout.
+ *
+ * Antes de cada cenário, a thread pede admissão: o cenário só começa se, após reservar a memória estimada de um
+ * cenário, ainda sobrar scheduler.min.free.mb de memória disponível e se o uso de CPU estiver abaixo de
+ * scheduler.max.cpu.load. Caso contrário, a thread aguarda (back-pressure) e a amostragem é repetida.
+ * A memória por cenário começa em scheduler.scenario.mb e é ajustada pelo RSS medido dos navegadores dividido
+ * pelos cenários em execução (ou pelas sessões vivas do pool, se houver mais). Um cenário é sempre admitido quando
+ * nenhum outro está em execução, para que a execução nunca pare.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - scheduler.enabled: true para ativar a admissão (padrão true; sem efeito com uma única thread).
+ * - scheduler.min.free.mb: memória disponível mínima a manter livre (padrão 1024).
+ * - scheduler.max.cpu.load: uso de CPU (0 a 1) acima do qual novos cenários aguardam (padrão 0.9).
+ * - scheduler.scenario.mb: estimativa inicial de memória por cenário (padrão 400).
+ * - scheduler.settle.ms: intervalo mínimo entre duas admissões, para que as amostras reflitam o último cenário (padrão 1000).
+ * - scheduler.sample.interval.ms: intervalo entre amostras enquanto um cenário aguarda (padrão 250).
+ * - scheduler.max.wait.seconds: espera máxima; depois dela o cenário é admitido mesmo sem folga (padrão 300).
+ *
+ * O tempo de fila de cada cenário é registrado no {@link LatencyRegistry} (categoria "scheduler") e resumido ao final.
+ */
+public final class ResourceScheduler {
+
+    public static final String CATEGORY = "scheduler";
+
+    private static final long MB = 1024 * 1024;
+
+    private static final Config config = Config.get();
+    private static final boolean enabled = config.getBoolean("scheduler.enabled", true);
+    private static final long minFreeBytes = config.getLong("scheduler.min.free.mb", 1024) * MB;
+    private static final double maxCpuLoad = parseLoad(config.getString("scheduler.max.cpu.load", "0.9"));
+    private static final long settleNanos = TimeUnit.MILLISECONDS.toNanos(config.getLong("scheduler.settle.ms", 1000));
+    private static final long sampleIntervalMs = Math.max(10, config.getLong("scheduler.sample.interval.ms", 250));
+    private static final long maxWaitSeconds = config.getLong("scheduler.max.wait.seconds", 300);
+
+    private static final Object lock = new Object();
+    private static final ThreadLocal<Boolean> admitted = new ThreadLocal<>();
+    private static int running; // Protegido por lock
+    private static long lastAdmissionNanos;
+    private static volatile long scenarioBytes = config.getLong("scheduler.scenario.mb", 400) * MB;
+
+    // Métricas
+    private static final AtomicLong admissions = new AtomicLong();
+    private static final AtomicLong delayed = new AtomicLong();
+    private static final AtomicLong forced = new AtomicLong();
+    private static final AtomicLong totalQueueNanos = new AtomicLong();
+    private static final AtomicLong maxQueueNanos = new AtomicLong();
+    private static final AtomicInteger peakRunning = new AtomicInteger();
+    private static final Map<String, AtomicLong> holdReasons = new ConcurrentHashMap<>();
+
+    static {
+        ProcessMetrics.cpuLoad(); // Primeira leitura: base para o uso de CPU da próxima amostra
+    }
+
+    private ResourceScheduler() {
+    }
+
+    /**
+     * Aguarda até que haja recursos para mais um cenário e o registra como em execução.
+     * Deve ser chamado no início do cenário, antes de emprestar o navegador.
+     * @return O tempo de fila do cenário em milissegundos (0 se foi admitido imediatamente).
+     */
+    public static long admit() {
+        if (!enabled || Boolean.TRUE.equals(admitted.get())) {
+            return 0;
+        }
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(maxWaitSeconds);
+        boolean waited = false;
+        synchronized (lock) {
+            while (true) {
+                String hold = running == 0 ? null : holdReason();
+                if (hold == null) {
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    forced.incrementAndGet();
+                    System.err.println("AVISO: Cenário admitido após " + maxWaitSeconds + "s de espera sem folga de recursos (" + hold + ").");
+                    break;
+                }
+                if (!waited) {
+                    waited = true;
+                    delayed.incrementAndGet();
+                }
+                holdReasons.computeIfAbsent(hold.substring(0, hold.indexOf(':')), r -> new AtomicLong()).incrementAndGet();
+                try {
+                    lock.wait(sampleIntervalMs); // Acordado antes se um cenário terminar
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            running++;
+            lastAdmissionNanos = System.nanoTime();
+            peakRunning.accumulateAndGet(running, Math::max);
+        }
+        admitted.set(Boolean.TRUE);
+        admissions.incrementAndGet();
+        long queued = System.nanoTime() - start;
+        totalQueueNanos.addAndGet(queued);
+        maxQueueNanos.accumulateAndGet(queued, Math::max);
+        LatencyRegistry.record(CATEGORY, "fila", queued);
+        return TimeUnit.NANOSECONDS.toMillis(queued);
+    }
+
+    /**
+     * Registra o fim do cenário da thread atual, liberando espaço para os cenários em espera.
+     * Sem efeito se a thread não tiver sido admitida.
+     */
+    public static void release() {
+        if (!Boolean.TRUE.equals(admitted.get())) {
+            return;
+        }
+        admitted.remove();
+        synchronized (lock) {
+            updateScenarioEstimate();
+            running--;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Imprime as métricas de admissão: cenários atrasados, tempo de fila e concorrência máxima alcançada.
+     */
+    public static void printStats() {
+        long total = admissions.get();
+        if (!enabled || total == 0) {
+            return;
+        }
+        System.out.println("AGENDADOR DE CENÁRIOS - MÉTRICAS:");
+        System.out.println("  Admitidos: " + total + " | Aguardaram: " + delayed.get() + " | Admitidos sem folga: " + forced.get()
+                + " | Concorrência máxima: " + peakRunning.get());
+        System.out.println("  Tempo de fila: média " + TimeUnit.NANOSECONDS.toMillis(totalQueueNanos.get() / total) + " ms | máximo "
+                + TimeUnit.NANOSECONDS.toMillis(maxQueueNanos.get()) + " ms | Memória estimada por cenário: " + scenarioBytes / MB + " MB");
+        if (!holdReasons.isEmpty()) {
+            System.out.println("  Amostras em espera por motivo: " + holdReasons);
+        }
+    }
+
+    /**
+     * Amostra os recursos e decide se mais um cenário cabe na máquina.
+     * @return null se houver recursos, ou o motivo da espera ("motivo: detalhes").
+     */
+    private static String holdReason() {
+        if (System.nanoTime() - lastAdmissionNanos < settleNanos) {
+            return "estabilização: " + running + " cenário(s) em execução";
+        }
+        long available = ProcessMetrics.availableMemoryBytes();
+        if (available >= 0 && available - scenarioBytes < minFreeBytes) {
+            return "memória: " + available / MB + " MB disponíveis, " + scenarioBytes / MB + " MB por cenário";
+        }
+        double cpu = ProcessMetrics.cpuLoad();
+        if (cpu > maxCpuLoad) {
+            return "cpu: " + String.format("%.0f%%", cpu * 100);
+        }
+        return null;
+    }
+
+    /**
+     * Ajusta a memória estimada por cenário pelo RSS dos navegadores dividido pelos cenários em execução ou pelas
+     * sessões vivas do pool (média móvel, para suavizar picos de uma única página).
+     */
+    private static void updateScenarioEstimate() {
+        int divisor = Math.max(running, DriverPool.getLiveSessionCount());
+        if (divisor <= 0) {
+            return;
+        }
+        long rss = ProcessMetrics.browserRssBytes();
+        if (rss > 0) {
+            scenarioBytes = (scenarioBytes * 3 + rss / divisor) / 4;
+        }
+    }
+
+    private static double parseLoad(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            System.err.println("AVISO: Valor inválido para scheduler.max.cpu.load: '" + value + "'. Usando 0.9.");
+            return 0.9;
+        }
+    }
+}
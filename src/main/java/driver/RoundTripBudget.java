@@ -0,0 +1,30 @@
+package driver;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Orçamento de idas e voltas ao WebDriver para um método público de Page Object.
+ * Verificado pelo {@link RoundTripBudgetListener} a cada chamada do método.
+ *
+ * Pode ser sobrescrito no config.properties: budget.{Classe}.{método}.calls e budget.{Classe}.{método}.ms
+ * (ex: budget.AmazonResultsPage.hasResults.calls=3).
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+public @interface RoundTripBudget {
+
+    /**
+     * @return Quantidade máxima de comandos enviados ao WebDriver por chamada do método (0 = sem limite).
+     */
+    int calls() default 0;
+
+    /**
+     * @return Tempo máximo, em milissegundos, gasto em comandos do WebDriver por chamada do método (0 = sem limite).
+     */
+    long millis() default 0;
+}
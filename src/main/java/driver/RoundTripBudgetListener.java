@@ -0,0 +1,292 @@
+package driver;
+
+import org.openqa.selenium.support.events.WebDriverListener;
+import utils.Config;
+
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Listener do WebDriver que conta as idas e voltas (comandos) e o tempo gasto no WebDriver por chamada de cada
+ * método público de Page Object (ex: AmazonHomePage.searchFor, MagaluResultsPage.hasResults), e compara com o
+ * orçamento declarado em {@link RoundTripBudget} ou no config.properties.
+ *
+ * Cada comando é atribuído ao método público de Page Object mais externo na pilha da thread (StackWalker).
+ * Uma chamada do método termina quando um comando é atribuído a outro método (ou ao mesmo método chamado de outra
+ * linha), ao final do step ({@link #finishStep()}, chamado pelos Hooks) ou quando quem chama os Page Objects marca o
+ * fim de uma iteração ({@link #endInvocation()}). A pilha não distingue duas chamadas seguidas do mesmo método feitas
+ * da mesma linha (ex: em um laço): sem essa marcação, os comandos das duas seriam somados em uma única chamada.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - budget.mode: off, warn (padrão) ou fail (o step que estourar o orçamento falha).
+ * - budget.{Classe}.{método}.calls / budget.{Classe}.{método}.ms: orçamento de um método (sobrescreve a anotação).
+ */
+public class RoundTripBudgetListener implements WebDriverListener {
+
+    public enum Mode {OFF, WARN, FAIL}
+
+    // Métodos que apenas retornam objetos locais (sem comando enviado ao navegador)
+    private static final Set<String> LOCAL_METHODS = new HashSet<>(Arrays.asList(
+            "manage", "switchTo", "navigate", "timeouts", "window", "logs",
+            "getWrappedDriver", "getWrappedElement", "toString", "hashCode", "equals"));
+
+    private static final class PageMethod {
+        private final String name;
+        private final boolean tracked;
+        private final int maxCalls;
+        private final long maxMillis;
+
+        private PageMethod(String name, boolean tracked, int maxCalls, long maxMillis) {
+            this.name = name;
+            this.tracked = tracked;
+            this.maxCalls = maxCalls;
+            this.maxMillis = maxMillis;
+        }
+    }
+
+    private static final class Invocation {
+        private final PageMethod method;
+        private final String callSite;
+        private final long iteration;
+        private int calls;
+        private long driverNanos;
+        private long callStart;
+
+        private Invocation(PageMethod method, String callSite, long iteration) {
+            this.method = method;
+            this.callSite = callSite;
+            this.iteration = iteration;
+        }
+    }
+
+    private static final class MethodStats {
+        private final AtomicLong invocations = new AtomicLong();
+        private final AtomicLong totalCalls = new AtomicLong();
+        private final AtomicLong maxCalls = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong violations = new AtomicLong();
+    }
+
+    private final Predicate<Class<?>> pageClassFilter;
+    private final Mode mode;
+    private final StackWalker walker = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private final Map<String, PageMethod> pageMethods = new ConcurrentHashMap<>();
+    private final Map<String, MethodStats> stats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Invocation> current = new ThreadLocal<>();
+    private final ThreadLocal<List<String>> violations = ThreadLocal.withInitial(ArrayList::new);
+    // Iteração atual da thread, avançada por endInvocation(): identifica a chamada junto com o método e a linha
+    private static final ThreadLocal<long[]> iteration = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     * Construtor do listener.
+     * @param pageClassFilter Identifica as classes de Page Object (ex: BasePage.class::isAssignableFrom).
+     */
+    public RoundTripBudgetListener(Predicate<Class<?>> pageClassFilter) {
+        this.pageClassFilter = pageClassFilter;
+        this.mode = getConfiguredMode();
+    }
+
+    /**
+     * Obtém o modo configurado (budget.mode).
+     * @return O modo de verificação dos orçamentos.
+     */
+    public static Mode getConfiguredMode() {
+        String value = Config.get().getString("budget.mode", "warn");
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("AVISO: budget.mode inválido '" + value + "'. Usando 'warn'.");
+            return Mode.WARN;
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Encerra, na thread atual, a chamada de Page Object em andamento: o próximo comando inicia uma nova chamada,
+     * mesmo que venha do mesmo método e da mesma linha. Deve ser chamado a cada iteração de laços que chamam
+     * Page Objects (ex: um termo do lote no BulkSearchRunner).
+     */
+    public static void endInvocation() {
+        iteration.get()[0]++;
+    }
+
+    @Override
+    public void beforeAnyCall(Object target, Method method, Object[] args) {
+        if (mode == Mode.OFF || LOCAL_METHODS.contains(method.getName())) {
+            return;
+        }
+        Invocation invocation = attribute();
+        if (invocation == null) {
+            return; // Comando fora de um Page Object (ex: step usando o driver diretamente)
+        }
+        invocation.calls++;
+        invocation.callStart = System.nanoTime();
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        endCall();
+    }
+
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        endCall();
+    }
+
+    private void endCall() {
+        Invocation invocation = current.get();
+        if (invocation != null && invocation.callStart != 0) {
+            invocation.driverNanos += System.nanoTime() - invocation.callStart;
+            invocation.callStart = 0;
+        }
+    }
+
+    /**
+     * Encontra o método público de Page Object mais externo na pilha e a linha de onde ele foi chamado.
+     * Encerra a chamada anterior se o comando pertencer a outra chamada.
+     */
+    private Invocation attribute() {
+        StackWalker.StackFrame[] found = walker.walk(frames -> {
+            StackWalker.StackFrame[] outermost = new StackWalker.StackFrame[2];
+            boolean previousWasPage = false;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                boolean isPage = pageClassFilter.test(frame.getDeclaringClass()) && pageMethod(frame).tracked;
+                if (isPage) {
+                    outermost[0] = frame;
+                    outermost[1] = null;
+                } else if (previousWasPage) {
+                    outermost[1] = frame; // Quem chamou o método de Page Object
+                }
+                previousWasPage = isPage;
+            }
+            return outermost;
+        });
+        if (found[0] == null) {
+            return null;
+        }
+        PageMethod method = pageMethod(found[0]);
+        String callSite = found[1] == null ? "" : found[1].getClassName() + "." + found[1].getMethodName() + "@" + found[1].getByteCodeIndex();
+        long currentIteration = iteration.get()[0];
+        Invocation invocation = current.get();
+        if (invocation == null || invocation.method != method || !invocation.callSite.equals(callSite)
+                || invocation.iteration != currentIteration) {
+            finishInvocation();
+            invocation = new Invocation(method, callSite, currentIteration);
+            current.set(invocation);
+        }
+        return invocation;
+    }
+
+    private PageMethod pageMethod(StackWalker.StackFrame frame) {
+        String key = frame.getClassName() + "." + frame.getMethodName() + frame.getDescriptor();
+        return pageMethods.computeIfAbsent(key, k -> resolve(frame));
+    }
+
+    private PageMethod resolve(StackWalker.StackFrame frame) {
+        Class<?> type = frame.getDeclaringClass();
+        String name = type.getSimpleName() + "." + frame.getMethodName();
+        MethodType methodType = frame.getMethodType();
+        Executable executable;
+        try {
+            executable = "<init>".equals(frame.getMethodName())
+                    ? type.getDeclaredConstructor(methodType.parameterArray())
+                    : type.getDeclaredMethod(frame.getMethodName(), methodType.parameterArray());
+        } catch (NoSuchMethodException e) {
+            return new PageMethod(name, false, 0, 0); // Ex: lambdas sintéticas
+        }
+        if (!Modifier.isPublic(executable.getModifiers()) || executable.isSynthetic()) {
+            return new PageMethod(name, false, 0, 0);
+        }
+        RoundTripBudget annotation = executable.getAnnotation(RoundTripBudget.class);
+        int maxCalls = (int) budgetSetting("budget." + name + ".calls", annotation == null ? 0 : annotation.calls());
+        long maxMillis = budgetSetting("budget." + name + ".ms", annotation == null ? 0 : annotation.millis());
+        return new PageMethod(name, true, maxCalls, maxMillis);
+    }
+
+    private static long budgetSetting(String key, long defaultValue) {
+        return Config.get().getLong(key, defaultValue);
+    }
+
+    private void finishInvocation() {
+        Invocation invocation = current.get();
+        current.remove();
+        if (invocation == null) {
+            return;
+        }
+        PageMethod method = invocation.method;
+        long driverMillis = TimeUnit.NANOSECONDS.toMillis(invocation.driverNanos);
+        MethodStats methodStats = stats.computeIfAbsent(method.name, n -> new MethodStats());
+        methodStats.invocations.incrementAndGet();
+        methodStats.totalCalls.addAndGet(invocation.calls);
+        methodStats.maxCalls.accumulateAndGet(invocation.calls, Math::max);
+        methodStats.maxNanos.accumulateAndGet(invocation.driverNanos, Math::max);
+
+        List<String> problems = new ArrayList<>();
+        if (method.maxCalls > 0 && invocation.calls > method.maxCalls) {
+            problems.add(invocation.calls + " comandos (orçamento: " + method.maxCalls + ")");
+        }
+        if (method.maxMillis > 0 && driverMillis > method.maxMillis) {
+            problems.add(driverMillis + " ms no WebDriver (orçamento: " + method.maxMillis + " ms)");
+        }
+        if (!problems.isEmpty()) {
+            methodStats.violations.incrementAndGet();
+            violations.get().add("ORÇAMENTO DE IDAS E VOLTAS EXCEDIDO: " + method.name + " usou " + String.join(" e ", problems));
+        }
+    }
+
+    /**
+     * Encerra a chamada em andamento da thread e retorna os orçamentos excedidos desde o último step.
+     * No modo fail, lança AssertionError para que o step falhe.
+     * @return As mensagens de orçamento excedido (lista vazia se nenhuma).
+     */
+    public List<String> finishStep() {
+        if (mode == Mode.OFF) {
+            return Collections.emptyList();
+        }
+        finishInvocation();
+        List<String> stepViolations = new ArrayList<>(violations.get());
+        violations.remove();
+        if (!stepViolations.isEmpty() && mode == Mode.FAIL) {
+            throw new AssertionError(String.join("\n", stepViolations));
+        }
+        return stepViolations;
+    }
+
+    /**
+     * Imprime, por método de Page Object, a média e o máximo de comandos e o tempo máximo no WebDriver.
+     */
+    public void printStats() {
+        if (stats.isEmpty()) {
+            return;
+        }
+        System.out.println("IDAS E VOLTAS AO WEBDRIVER POR MÉTODO DE PAGE OBJECT (modo: " + mode.name().toLowerCase(Locale.ROOT) + "):");
+        stats.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().totalCalls.get(), a.getValue().totalCalls.get()))
+                .forEach(entry -> {
+                    MethodStats s = entry.getValue();
+                    long invocations = s.invocations.get();
+                    System.out.println(String.format("  %s: %d chamada(s) | média %.1f comandos | máx %d comandos | máx %d ms%s",
+                            entry.getKey(), invocations, invocations == 0 ? 0 : (double) s.totalCalls.get() / invocations,
+                            s.maxCalls.get(), TimeUnit.NANOSECONDS.toMillis(s.maxNanos.get()),
+                            s.violations.get() > 0 ? " | ORÇAMENTO EXCEDIDO " + s.violations.get() + "x" : ""));
+                });
+    }
+}
@@ -0,0 +1,188 @@
+package driver;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.Config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Captura de screenshots de falha sem bloquear o teardown nem inflar os relatórios.
+ *
+ * No Chrome a captura usa o DevTools (Page.captureScreenshot), com formato, qualidade e recorte configuráveis;
+ * nos demais navegadores usa o PNG do WebDriver. Somente a captura é feita na thread do cenário (a página precisa
+ * estar no estado da falha); a decodificação e a gravação em disco ficam em um executor em segundo plano, e o
+ * relatório recebe apenas o link para o arquivo (text/uri-list), no lugar da imagem em base64.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - screenshot.format: jpeg (padrão), png ou webp (somente Chrome; nos demais navegadores sempre png).
+ * - screenshot.quality: qualidade de 0 a 100 para jpeg/webp (padrão 70).
+ * - screenshot.clip: viewport (padrão), full (página inteira) ou x,y,largura,altura (em pixels CSS).
+ * - screenshot.dir: diretório dos arquivos (padrão target/cucumber-reports/screenshots, ao lado do relatório HTML).
+ * - screenshot.on.step.failure: true para capturar no primeiro step que falhar, em vez de no teardown (padrão false).
+ */
+public final class ScreenshotPipeline {
+
+    /**
+     * Diretório padrão dos screenshots (screenshot.dir). Os links são relativos ao diretório pai.
+     */
+    public static final String DEFAULT_DIRECTORY = "target/cucumber-reports/screenshots";
+
+    private static final Config config = Config.get();
+    private static final String format = normalizeFormat(config.getString("screenshot.format", "jpeg"));
+    private static final int quality = Math.max(0, Math.min(100, config.getInt("screenshot.quality", 70)));
+    private static final String clip = config.getString("screenshot.clip", "viewport").trim().toLowerCase(Locale.ROOT);
+    private static final Path directory = Paths.get(config.getString("screenshot.dir", DEFAULT_DIRECTORY));
+    private static final boolean onStepFailure = config.getBoolean("screenshot.on.step.failure", false);
+
+    private static final ExecutorService writer = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    // Métricas
+    private static final AtomicLong captures = new AtomicLong();
+    private static final AtomicLong captureNanos = new AtomicLong();
+    private static final AtomicLong writtenBytes = new AtomicLong();
+    private static final AtomicLong failures = new AtomicLong();
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Verifica se a captura deve ser feita no primeiro step que falhar (screenshot.on.step.failure).
+     * @return true se habilitado.
+     */
+    public static boolean isCaptureOnStepFailure() {
+        return onStepFailure;
+    }
+
+    /**
+     * Captura a tela atual e agenda a gravação do arquivo em segundo plano.
+     * @param driver O WebDriver do cenário.
+     * @param name O nome base do arquivo (ex: nome do cenário), sem extensão.
+     * @return O caminho do arquivo relativo ao diretório do relatório HTML (para o link text/uri-list).
+     */
+    public static String capture(WebDriver driver, String name) {
+        long start = System.nanoTime();
+        String encoded;
+        String extension;
+        if (driver instanceof HasCdp) {
+            encoded = String.valueOf(((HasCdp) driver).executeCdpCommand("Page.captureScreenshot", captureParams(driver)).get("data"));
+            extension = "jpeg".equals(format) ? "jpg" : format;
+        } else {
+            encoded = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            extension = "png";
+        }
+        captures.incrementAndGet();
+        captureNanos.addAndGet(System.nanoTime() - start);
+
+        String fileName = name.replaceAll("[^a-zA-Z0-9.-]", "_") + "_" + SEQUENCE.incrementAndGet() + "." + extension;
+        Path file = directory.resolve(fileName);
+        writer.submit(() -> write(file, encoded));
+        return directory.getFileName() + "/" + fileName;
+    }
+
+    /**
+     * Aguarda a gravação dos screenshots pendentes e imprime as métricas. Deve ser chamado no @AfterAll.
+     */
+    public static void flush() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                System.err.println("AVISO: Gravação de screenshots não terminou em 30s.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (captures.get() > 0) {
+            System.out.println("SCREENSHOTS: " + captures.get() + " capturado(s) (" + format + ", clip " + clip + ") | captura média "
+                    + TimeUnit.NANOSECONDS.toMillis(captureNanos.get() / captures.get()) + " ms | "
+                    + writtenBytes.get() / 1024 + " KB gravados em " + directory + (failures.get() > 0 ? " | falhas: " + failures.get() : ""));
+        }
+    }
+
+    private static Map<String, Object> captureParams(WebDriver driver) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", format);
+        if (!"png".equals(format)) {
+            params.put("quality", quality);
+        }
+        Map<String, Object> region = null;
+        if ("full".equals(clip)) {
+            Map<String, Object> metrics = ((HasCdp) driver).executeCdpCommand("Page.getLayoutMetrics", new HashMap<>());
+            Object size = metrics.get("cssContentSize");
+            if (size instanceof Map) {
+                region = clipRegion(0, 0, ((Map<?, ?>) size).get("width"), ((Map<?, ?>) size).get("height"));
+                params.put("captureBeyondViewport", true);
+            }
+        } else if (!"viewport".equals(clip)) {
+            String[] parts = clip.split(",");
+            if (parts.length == 4) {
+                try {
+                    region = clipRegion(Double.parseDouble(parts[0].trim()), Double.parseDouble(parts[1].trim()),
+                            Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()));
+                } catch (NumberFormatException e) {
+                    region = null;
+                }
+            }
+            if (region == null) {
+                System.err.println("AVISO: screenshot.clip inválido: '" + clip + "'. Usando viewport.");
+            }
+        }
+        if (region != null) {
+            params.put("clip", region);
+        }
+        return params;
+    }
+
+    private static Map<String, Object> clipRegion(Object x, Object y, Object width, Object height) {
+        Map<String, Object> region = new HashMap<>();
+        region.put("x", x);
+        region.put("y", y);
+        region.put("width", width);
+        region.put("height", height);
+        region.put("scale", 1);
+        return region;
+    }
+
+    private static void write(Path file, String encoded) {
+        try {
+            byte[] bytes = Base64.getDecoder().decode(encoded);
+            Files.createDirectories(file.getParent());
+            Files.write(file, bytes);
+            writtenBytes.addAndGet(bytes.length);
+        } catch (IOException | IllegalArgumentException e) {
+            failures.incrementAndGet();
+            System.err.println("ERRO AO GRAVAR SCREENSHOT " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static String normalizeFormat(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if ("jpg".equals(normalized)) {
+            return "jpeg";
+        }
+        if (!"jpeg".equals(normalized) && !"png".equals(normalized) && !"webp".equals(normalized)) {
+            System.err.println("AVISO: screenshot.format inválido: '" + value + "'. Usando jpeg.");
+            return "jpeg";
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,157 @@
+package driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import utils.Config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reset de uma sessão de navegador entre cenários (session.mode=reset), no lugar de driver.quit() e de um novo navegador.
+ *
+ * O reset fecha as janelas extras, limpa localStorage/sessionStorage de cada janela, remove os cookies (no Chrome,
+ * de todos os domínios via CDP, junto com IndexedDB, Cache Storage e service workers das origens visitadas) e
+ * navega para about:blank. Em seguida verifica a saúde da sessão (uma única janela em about:blank, respondendo a
+ * scripts) e, com session.isolation.check=true, que nenhum estado restou para o próximo cenário (ex: cookies da
+ * Amazon visíveis em um cenário da Magalu). Qualquer falha faz o {@link DriverPool} reciclar a sessão.
+ */
+final class SessionReset {
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+            "var r = {origin: location.origin, remaining: 0};"
+            + "try { localStorage.clear(); sessionStorage.clear(); r.remaining = localStorage.length + sessionStorage.length; } catch (e) {}"
+            + "return r;";
+    private static final String HEALTH_SCRIPT = "return location.href;";
+    private static final String CDP_STORAGE_TYPES = "local_storage,session_storage,indexeddb,websql,cache_storage,service_workers";
+
+    private static final boolean isolationCheck = Config.get().getBoolean("session.isolation.check", true);
+    private static final AtomicLong isolationFailures = new AtomicLong();
+
+    private SessionReset() {
+    }
+
+    /**
+     * Limpa o estado da sessão e verifica a saúde e o isolamento para o próximo cenário.
+     * @param driver O WebDriver da sessão.
+     * @return null se a sessão pode ser reutilizada, ou o motivo para reciclá-la.
+     */
+    static String reset(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        boolean cdp = driver instanceof HasCdp;
+        Set<String> origins = new LinkedHashSet<>();
+        int remainingItems = 0;
+        int remainingCookies = 0;
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = handles.size() - 1; i >= 0; i--) {
+                if (handles.size() > 1) {
+                    driver.switchTo().window(handles.get(i));
+                }
+                remainingItems += clearStorage(js, origins);
+                if (!cdp) {
+                    // Sem CDP, os cookies só podem ser removidos no domínio da página atual de cada janela
+                    driver.manage().deleteAllCookies();
+                    if (isolationCheck) {
+                        remainingCookies += driver.manage().getCookies().size();
+                    }
+                }
+                if (i > 0) {
+                    driver.close();
+                }
+            }
+            if (cdp) {
+                HasCdp devTools = (HasCdp) driver;
+                devTools.executeCdpCommand("Network.clearBrowserCookies", new HashMap<>());
+                for (String origin : origins) {
+                    Map<String, Object> params = new HashMap<>();
+                    params.put("origin", origin);
+                    params.put("storageTypes", CDP_STORAGE_TYPES);
+                    devTools.executeCdpCommand("Storage.clearDataForOrigin", params);
+                }
+            }
+            driver.get("about:blank");
+        } catch (Exception e) {
+            return "reset falhou: " + e.getMessage();
+        }
+
+        String health = checkHealth(driver, js);
+        if (health != null) {
+            return health;
+        }
+        if (!isolationCheck) {
+            return null;
+        }
+        if (cdp) {
+            remainingCookies += countAllCookies((HasCdp) driver);
+        }
+        if (remainingCookies > 0 || remainingItems > 0) {
+            isolationFailures.incrementAndGet();
+            return "vazamento de estado após o reset: " + remainingCookies + " cookie(s), " + remainingItems
+                    + " item(ns) de storage (origens: " + origins + ")";
+        }
+        return null;
+    }
+
+    /**
+     * @return Quantas vezes a verificação de isolamento encontrou estado restante após o reset.
+     */
+    static long getIsolationFailures() {
+        return isolationFailures.get();
+    }
+
+    /**
+     * @return true se a verificação de isolamento estiver habilitada (session.isolation.check).
+     */
+    static boolean isIsolationCheckEnabled() {
+        return isolationCheck;
+    }
+
+    private static int clearStorage(JavascriptExecutor js, Set<String> origins) {
+        Object result = js.executeScript(CLEAR_STORAGE_SCRIPT);
+        if (!(result instanceof Map)) {
+            return 0;
+        }
+        Map<?, ?> cleared = (Map<?, ?>) result;
+        Object origin = cleared.get("origin");
+        if (origin != null && String.valueOf(origin).startsWith("http")) {
+            origins.add(String.valueOf(origin));
+        }
+        Object remaining = cleared.get("remaining");
+        return remaining instanceof Number ? ((Number) remaining).intValue() : 0;
+    }
+
+    /**
+     * Verificação de saúde: a sessão deve ter uma única janela, em about:blank, e responder a scripts.
+     * @return null se a sessão estiver saudável, ou o motivo da falha.
+     */
+    private static String checkHealth(WebDriver driver, JavascriptExecutor js) {
+        try {
+            int windows = driver.getWindowHandles().size();
+            Object href = js.executeScript(HEALTH_SCRIPT);
+            if (windows != 1 || !"about:blank".equals(href)) {
+                return "verificação de saúde falhou: " + windows + " janela(s), página " + href;
+            }
+            return null;
+        } catch (Exception e) {
+            return "verificação de saúde falhou: " + e.getMessage();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int countAllCookies(HasCdp devTools) {
+        try {
+            Object cookies = devTools.executeCdpCommand("Network.getAllCookies", new HashMap<>()).get("cookies");
+            return cookies instanceof List ? ((List<Object>) cookies).size() : 0;
+        } catch (Exception e) {
+            System.err.println("AVISO: Não foi possível listar os cookies na verificação de isolamento: " + e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,446 @@
+package driver;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+import utils.Config;
+import utils.ProcessMetrics;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Modo de execução com várias abas por navegador: cada cenário recebe uma aba (ou um contexto de navegação isolado)
+ * de um navegador compartilhado, no lugar de um processo de navegador inteiro, permitindo mais cenários simultâneos
+ * com a mesma memória.
+ *
+ * O WebDriver entregue a cada cenário é um decorador que, antes de cada comando (inclusive dos WebElements),
+ * obtém o bloqueio do navegador e troca para a aba do cenário se outra aba estiver ativa. Assim os comandos de
+ * abas diferentes nunca se intercalam no mesmo navegador.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - driver.tabs.per.browser: quantidade de cenários simultâneos por navegador (padrão 1 = desativado).
+ * - driver.tabs.isolation: tab (abas compartilham cookies e storage) ou context (contexto de navegação isolado por
+ *   cenário via DevTools, somente Chrome; volta para tab se não for suportado).
+ * - driver.pool.size: quantidade mínima de navegadores (nunca menor que -Dthreads / driver.tabs.per.browser).
+ * - driver.pool.max.uses: quantidade de abas atendidas por um navegador antes de reciclá-lo.
+ *
+ * A memória de cada aba (heap JavaScript ao final do cenário) e o RSS dos processos de navegador por aba aberta
+ * são acompanhados e resumidos ao final da execução.
+ */
+public final class TabMultiplexer {
+
+    private static final String HEAP_SCRIPT = "return (window.performance && performance.memory) ? performance.memory.usedJSHeapSize : -1;";
+
+    private static final int tabsPerBrowser = Math.max(1, Config.get().getInt("driver.tabs.per.browser", 1));
+    private static final boolean contextIsolation = "context".equalsIgnoreCase(Config.get().getString("driver.tabs.isolation", "tab"));
+    private static final int maxBrowsers = Math.max(
+            (Config.get().getThreads() + tabsPerBrowser - 1) / tabsPerBrowser,
+            Math.max(1, Config.get().getInt("driver.pool.size", 1)));
+    private static final int maxUses = Math.max(1, Config.get().getInt("driver.pool.max.uses", 20));
+
+    private static final AtomicInteger HOST_SEQUENCE = new AtomicInteger();
+    private static final List<Host> hosts = new ArrayList<>(); // Protegida por synchronized (hosts)
+    private static final Map<DriverSession, Tab> tabs = new ConcurrentHashMap<>();
+    private static int pendingLaunches;
+
+    // Métricas
+    private static final AtomicLong tabsOpened = new AtomicLong();
+    private static final AtomicLong contextsOpened = new AtomicLong();
+    private static final AtomicLong switches = new AtomicLong();
+    private static final AtomicLong lockWaitNanos = new AtomicLong();
+    private static final AtomicLong heapSamples = new AtomicLong();
+    private static final AtomicLong totalHeapBytes = new AtomicLong();
+    private static final AtomicLong maxHeapBytes = new AtomicLong();
+    private static final AtomicLong peakRssBytes = new AtomicLong();
+    private static final AtomicInteger tabsAtPeakRss = new AtomicInteger();
+    private static final AtomicInteger maxConcurrentTabs = new AtomicInteger();
+    private static final AtomicInteger openTabs = new AtomicInteger();
+
+    /**
+     * Um processo de navegador compartilhado por várias abas.
+     */
+    private static final class Host {
+        private final int id;
+        private final WebDriver driver;
+        private final String homeHandle; // Aba inicial, mantida aberta para o navegador não encerrar sem abas de cenário
+        private final ReentrantLock lock = new ReentrantLock(true); // Justo: as abas se revezam entre os comandos
+        private String currentHandle;
+        private int openTabs; // Protegido por synchronized (hosts)
+        private int served;
+        private boolean retired;
+
+        private Host(int id, WebDriver driver) {
+            this.id = id;
+            this.driver = driver;
+            this.homeHandle = driver.getWindowHandle();
+            this.currentHandle = homeHandle;
+        }
+
+        @Override
+        public String toString() {
+            return "Navegador#" + id;
+        }
+    }
+
+    /**
+     * A aba de um cenário.
+     */
+    private static final class Tab {
+        private final Host host;
+        private final String handle;
+        private final String browserContextId;
+
+        private Tab(Host host, String handle, String browserContextId) {
+            this.host = host;
+            this.handle = handle;
+            this.browserContextId = browserContextId;
+        }
+    }
+
+    /**
+     * Decorador que troca para a aba do cenário (sob o bloqueio do navegador) antes de cada comando.
+     */
+    private static final class TabDecorator extends WebDriverDecorator<WebDriver> {
+        private final Tab tab;
+
+        private TabDecorator(Tab tab) {
+            this.tab = tab;
+        }
+
+        @Override
+        public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+            if ("quit".equals(method.getName()) && target.getOriginal() instanceof WebDriver) {
+                System.err.println("AVISO: quit() ignorado na aba " + tab.handle + " (o navegador é compartilhado; a aba é fechada pelo pool).");
+                return null;
+            }
+            Host host = tab.host;
+            long start = System.nanoTime();
+            host.lock.lock();
+            try {
+                lockWaitNanos.addAndGet(System.nanoTime() - start);
+                if (!tab.handle.equals(host.currentHandle)) {
+                    host.driver.switchTo().window(tab.handle);
+                    host.currentHandle = tab.handle;
+                    switches.incrementAndGet();
+                }
+                return super.call(target, method, args);
+            } finally {
+                host.lock.unlock();
+            }
+        }
+    }
+
+    private TabMultiplexer() {
+    }
+
+    /**
+     * Verifica se o modo de várias abas por navegador está habilitado (driver.tabs.per.browser maior que 1).
+     * @return true se habilitado.
+     */
+    public static boolean isEnabled() {
+        return tabsPerBrowser > 1;
+    }
+
+    /**
+     * @return A quantidade máxima de abas abertas ao mesmo tempo (navegadores x abas por navegador).
+     */
+    static int getCapacity() {
+        return maxBrowsers * tabsPerBrowser;
+    }
+
+    /**
+     * Pré-cria os navegadores em paralelo (chamado pelo {@link DriverPool#warmUp()}).
+     * @param count A quantidade de navegadores a pré-criar.
+     */
+    static void warmUp(int count) {
+        int launches;
+        synchronized (hosts) {
+            launches = Math.max(0, Math.min(count, maxBrowsers - hosts.size() - pendingLaunches));
+            pendingLaunches += launches;
+        }
+        System.out.println("ABAS POR NAVEGADOR: " + tabsPerBrowser + " | navegadores: até " + maxBrowsers + " | pré-criando " + launches
+                + " | isolamento: " + (contextIsolation ? "contexto" : "aba"));
+        if (launches == 0) {
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(launches);
+        try {
+            List<Future<Host>> futures = new ArrayList<>();
+            for (int i = 0; i < launches; i++) {
+                futures.add(executor.submit(TabMultiplexer::launch));
+            }
+            for (Future<Host> future : futures) {
+                Host host = null;
+                try {
+                    host = future.get();
+                } catch (Exception e) {
+                    System.err.println("ERRO AO PRÉ-CRIAR NAVEGADOR: " + e.getMessage());
+                }
+                synchronized (hosts) {
+                    pendingLaunches--;
+                    if (host != null) {
+                        hosts.add(host);
+                    }
+                    hosts.notifyAll();
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Abre uma aba para o cenário da thread atual, no navegador com menos abas abertas. Cria um novo navegador se
+     * todos estiverem cheios e ainda houver capacidade, ou aguarda até que uma aba seja fechada.
+     * @param timeoutSeconds Tempo máximo de espera por uma vaga.
+     * @return A sessão do cenário, cujo WebDriver opera somente na sua aba.
+     */
+    static DriverSession open(int timeoutSeconds) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        Host host = null;
+        boolean launch = false;
+        synchronized (hosts) {
+            while (host == null && !launch) {
+                host = leastLoaded();
+                if (host != null) {
+                    host.openTabs++;
+                } else if (hosts.size() + pendingLaunches < maxBrowsers) {
+                    pendingLaunches++;
+                    launch = true;
+                } else {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        throw new IllegalStateException("Nenhuma aba ficou livre em " + timeoutSeconds + "s (" + maxBrowsers
+                                + " navegador(es) x " + tabsPerBrowser + " aba(s)).");
+                    }
+                    try {
+                        hosts.wait(Math.min(remaining, 200));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("Interrompido enquanto aguardava uma aba livre.", e);
+                    }
+                }
+            }
+        }
+        if (launch) {
+            try {
+                host = launch();
+            } finally {
+                synchronized (hosts) {
+                    pendingLaunches--;
+                    if (host != null) {
+                        hosts.add(host);
+                        host.openTabs++;
+                    }
+                    hosts.notifyAll();
+                }
+            }
+        }
+
+        Tab tab;
+        try {
+            tab = openTab(host);
+        } catch (RuntimeException e) {
+            System.err.println("ABAS: falha ao abrir aba em " + host + ": " + e.getMessage());
+            host.retired = true;
+            releaseSlot(host);
+            throw e;
+        }
+        DriverSession session = new DriverSession(new TabDecorator(tab).decorate(host.driver));
+        tabs.put(session, tab);
+        int open = openTabs.incrementAndGet();
+        maxConcurrentTabs.accumulateAndGet(open, Math::max);
+        return session;
+    }
+
+    /**
+     * Fecha a aba do cenário (descartando o contexto isolado, se houver) e registra a memória usada por ela.
+     * O navegador é reciclado quando não tiver mais abas e tiver atingido o máximo de usos ou falhado.
+     * @param session A sessão do cenário.
+     * @param failed true se o cenário falhou.
+     */
+    static void close(DriverSession session, boolean failed) {
+        Tab tab = tabs.remove(session);
+        if (tab == null) {
+            return;
+        }
+        Host host = tab.host;
+        int open = openTabs.getAndDecrement();
+        host.lock.lock();
+        try {
+            if (!tab.handle.equals(host.currentHandle)) {
+                host.driver.switchTo().window(tab.handle);
+            }
+            recordHeap(host, open);
+            host.driver.close();
+            host.driver.switchTo().window(host.homeHandle);
+            host.currentHandle = host.homeHandle;
+            if (tab.browserContextId != null) {
+                Map<String, Object> params = new HashMap<>();
+                params.put("browserContextId", tab.browserContextId);
+                ((HasCdp) host.driver).executeCdpCommand("Target.disposeBrowserContext", params);
+            }
+        } catch (Exception e) {
+            System.err.println("ABAS: falha ao fechar a aba de " + session + " em " + host + ": " + e.getMessage());
+            host.retired = true; // Navegador em estado desconhecido: não recebe novas abas
+        } finally {
+            host.lock.unlock();
+        }
+        if (failed) {
+            System.out.println("ABAS: cenário falhou, aba de " + session + " descartada (" + host + " continua em uso).");
+        }
+        releaseSlot(host);
+    }
+
+    /**
+     * Encerra todos os navegadores compartilhados (chamado pelo {@link DriverPool#shutdown()}).
+     */
+    static void shutdown() {
+        List<Host> all;
+        synchronized (hosts) {
+            all = new ArrayList<>(hosts);
+            hosts.clear();
+        }
+        for (Host host : all) {
+            quitQuietly(host);
+        }
+    }
+
+    /**
+     * Imprime as métricas do modo de abas: trocas de aba, espera pelo bloqueio e memória por aba.
+     */
+    static void printStats() {
+        long opened = tabsOpened.get();
+        long samples = heapSamples.get();
+        long avgHeapMb = samples == 0 ? 0 : totalHeapBytes.get() / samples / (1024 * 1024);
+        long avgWaitMs = opened == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(lockWaitNanos.get()) / opened;
+        System.out.println("ABAS POR NAVEGADOR - MÉTRICAS:");
+        System.out.println("  Abas abertas: " + opened + (contextsOpened.get() > 0 ? " (" + contextsOpened.get() + " em contexto isolado)" : "")
+                + " | Máx. simultâneas: " + maxConcurrentTabs.get() + " | Trocas de aba: " + switches.get()
+                + " | Espera pelo navegador: ~" + avgWaitMs + " ms por aba");
+        if (samples > 0) {
+            System.out.println("  Heap JS por aba: média " + avgHeapMb + " MB | máximo " + maxHeapBytes.get() / (1024 * 1024) + " MB");
+        }
+        if (peakRssBytes.get() > 0) {
+            int peakTabs = Math.max(1, tabsAtPeakRss.get());
+            System.out.println("  RSS dos navegadores: pico " + peakRssBytes.get() / (1024 * 1024) + " MB com " + peakTabs
+                    + " aba(s) abertas (~" + peakRssBytes.get() / peakTabs / (1024 * 1024) + " MB por aba)");
+        }
+    }
+
+    private static Host leastLoaded() {
+        Host best = null;
+        for (Host host : hosts) {
+            if (!host.retired && host.openTabs < tabsPerBrowser && (best == null || host.openTabs < best.openTabs)) {
+                best = host;
+            }
+        }
+        return best;
+    }
+
+    private static Host launch() {
+        Host host = new Host(HOST_SEQUENCE.incrementAndGet(), DriverFactory.createDriver());
+        System.out.println("ABAS: " + host + " criado para até " + tabsPerBrowser + " cenário(s) simultâneo(s).");
+        return host;
+    }
+
+    private static Tab openTab(Host host) {
+        host.lock.lock();
+        try {
+            String contextId = null;
+            String handle = null;
+            if (contextIsolation && host.driver instanceof HasCdp) {
+                HasCdp cdp = (HasCdp) host.driver;
+                contextId = String.valueOf(cdp.executeCdpCommand("Target.createBrowserContext", new HashMap<>()).get("browserContextId"));
+                Map<String, Object> params = new HashMap<>();
+                params.put("url", "about:blank");
+                params.put("browserContextId", contextId);
+                String targetId = String.valueOf(cdp.executeCdpCommand("Target.createTarget", params).get("targetId"));
+                if (host.driver.getWindowHandles().contains(targetId)) {
+                    host.driver.switchTo().window(targetId);
+                    handle = targetId;
+                    contextsOpened.incrementAndGet();
+                } else {
+                    System.err.println("AVISO: O driver não expõe abas de contextos isolados; usando aba comum (driver.tabs.isolation=tab).");
+                    Map<String, Object> dispose = new HashMap<>();
+                    dispose.put("browserContextId", contextId);
+                    cdp.executeCdpCommand("Target.disposeBrowserContext", dispose);
+                    contextId = null;
+                }
+            }
+            if (handle == null) {
+                host.driver.switchTo().newWindow(WindowType.TAB);
+                handle = host.driver.getWindowHandle();
+            }
+            host.currentHandle = handle;
+            NetworkBlocker.apply(host.driver); // O bloqueio de URLs do DevTools vale por aba
+            tabsOpened.incrementAndGet();
+            return new Tab(host, handle, contextId);
+        } finally {
+            host.lock.unlock();
+        }
+    }
+
+    private static void releaseSlot(Host host) {
+        boolean quit;
+        synchronized (hosts) {
+            host.openTabs--;
+            host.served++;
+            if (host.served >= maxUses) {
+                host.retired = true;
+            }
+            quit = host.retired && host.openTabs == 0 && hosts.remove(host);
+            hosts.notifyAll();
+        }
+        if (quit) {
+            System.out.println("ABAS: reciclando " + host + " (" + host.served + " aba(s) atendidas).");
+            quitQuietly(host);
+        }
+    }
+
+    private static void quitQuietly(Host host) {
+        try {
+            host.driver.quit();
+        } catch (Exception e) {
+            System.err.println("ERRO AO FECHAR " + host + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Registra o heap JavaScript da aba atual e o RSS dos processos de navegador (filhos desta JVM, somente Linux).
+     * Chamado com o bloqueio do navegador, na aba do cenário, antes de fechá-la.
+     */
+    private static void recordHeap(Host host, int openTabsNow) {
+        try {
+            Object heap = ((JavascriptExecutor) host.driver).executeScript(HEAP_SCRIPT);
+            if (heap instanceof Number && ((Number) heap).longValue() >= 0) {
+                long bytes = ((Number) heap).longValue();
+                heapSamples.incrementAndGet();
+                totalHeapBytes.addAndGet(bytes);
+                maxHeapBytes.accumulateAndGet(bytes, Math::max);
+            }
+        } catch (Exception e) {
+            // Métrica opcional: não deve impedir o fechamento da aba
+        }
+        long rss = ProcessMetrics.browserRssBytes();
+        if (rss > peakRssBytes.get()) {
+            peakRssBytes.set(rss);
+            tabsAtPeakRss.set(openTabsNow);
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package pages;
 
+import driver.RoundTripBudget;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import utils.ConfigReader;
+import utils.Config;
 
 /**
  * Page Object para a página inicial da Amazon.
@@ -47,15 +47,16 @@ public class AmazonHomePage extends BasePage {
      * Clica no link "Ofertas do Dia" no menu de navegação.
      */
     public void clickOnOfertasDoDia() {
-        wait.until(ExpectedConditions.elementToBeClickable(ofertasDoDiaLink));
         click(ofertasDoDiaLink);
     }
 
     /**
      * Navega para a página inicial da Amazon e aceita cookies se o botão estiver presente.
+     * A navegação retorna assim que o campo de busca estiver interagível (ver amazon.pageload.strategy).
      */
+    @RoundTripBudget(calls = 40)
     public void navigateToHomePage() {
-        driver.get(ConfigReader.getProperty("amazon.url"));
+        navigateTo(Config.get().getString("amazon.url"), "amazon", searchInput);
         acceptCookiesIfPresent();
     }
 
@@ -69,24 +70,55 @@ public class AmazonHomePage extends BasePage {
         }
     }
 
+    /**
+     * Obtém o host esperado para a Amazon, de acordo com a URL configurada (site real ou servidor local).
+     * @return O host de amazon.url (ex: "amazon.com.br").
+     */
+    public String getExpectedHost() {
+        return hostOf(Config.get().getString("amazon.url"));
+    }
+
     /**
      * Realiza uma busca por um produto.
      * @param product O termo a ser buscado.
      * @return Uma instância de AmazonResultsPage representando a página de resultados da busca.
      */
+    @RoundTripBudget(calls = 15)
     public AmazonResultsPage searchFor(String product) {
         type(searchInput, product);
         click(searchButton);
         return new AmazonResultsPage(driver);
     }
 
+    /**
+     * Realiza uma busca navegando diretamente para a URL de resultados (/s?k={termo}), sem carregar a página inicial
+     * nem digitar no campo de busca. Para cenários que validam somente os resultados; as jornadas pela página
+     * inicial continuam usando {@link #searchFor(String)}.
+     * @param product O termo a ser buscado.
+     * @return Uma instância de AmazonResultsPage representando a página de resultados da busca.
+     */
+    @RoundTripBudget(calls = 20)
+    public AmazonResultsPage searchDirect(String product) {
+        navigateTo(searchUrl(product), "amazon");
+        return new AmazonResultsPage(driver);
+    }
+
+    /**
+     * Monta a URL de resultados da busca (também usada pela camada HTTP, {@link HttpResultsPage}).
+     * @param product O termo a ser buscado.
+     * @return A URL de resultados da busca.
+     */
+    static String searchUrl(String product) {
+        return siteUrl(Config.get().getString("amazon.url"), "s?k=" + encodeSearchTerm(product));
+    }
+
     /**
      * Verifica se o elemento identificador da página "Ofertas do Dia" está visível.
      * @return true se o identificador estiver visível, false caso contrário.
      */
     public boolean isOfertasDoDiaPageVisible() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(ofertasDoDiaPageIdentifier));
+            waitEngine.until(WaitEngine.Condition.VISIBLE, ofertasDoDiaPageIdentifier);
             return true;
         } catch (Exception e) {
             System.err.println("Identificador da página de Ofertas do Dia não encontrado: " + ofertasDoDiaPageIdentifier.toString());
@@ -1,11 +1,13 @@
 package pages;
 
+import driver.RoundTripBudget;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Page Object para a página de resultados de busca da Amazon.
@@ -13,25 +15,53 @@ import java.util.List;
  */
 public class AmazonResultsPage extends BasePage {
 
+    private static final String PRODUCT_TITLES_XPATH = "//div[contains(@data-cel-widget, 'search_result_')]//h2/a/span[normalize-space(.)!='' and not(contains(@class, 'a-offscreen'))]";
+    private static final String SEARCH_TERM_ECHO_CSS = ".a-color-state.a-text-bold";
+    private static final String RESULTADOS_TITLE_XPATH = "//h2[normalize-space(.)='Resultados']";
+    private static final String NO_RESULTS_MESSAGE_XPATH = "//div[@class='s-no-outline']//span[contains(text(),'Nenhum resultado para')]";
+    private static final String NO_RESULTS_TERM_XPATH = NO_RESULTS_MESSAGE_XPATH + "/following-sibling::span[1]";
+
+    /**
+     * Localizadores usados na extração do {@link ResultsSnapshot} (os mesmos dos campos @FindBy,
+     * mais o card de cada produto e o preço dentro do card).
+     */
+    private static final Map<String, Object> SNAPSHOT_LOCATORS = new HashMap<>();
+
+    static {
+        SNAPSHOT_LOCATORS.put("titles", ResultsSnapshot.xpath(PRODUCT_TITLES_XPATH));
+        SNAPSHOT_LOCATORS.put("header", ResultsSnapshot.xpath(RESULTADOS_TITLE_XPATH));
+        SNAPSHOT_LOCATORS.put("echo", ResultsSnapshot.css(SEARCH_TERM_ECHO_CSS));
+        SNAPSHOT_LOCATORS.put("noResults", ResultsSnapshot.xpath(NO_RESULTS_MESSAGE_XPATH));
+        SNAPSHOT_LOCATORS.put("noResultsTerm", ResultsSnapshot.xpath(NO_RESULTS_TERM_XPATH));
+        SNAPSHOT_LOCATORS.put("card", "[data-cel-widget*='search_result_']");
+        SNAPSHOT_LOCATORS.put("price", ".a-price .a-offscreen");
+    }
+
+    /**
+     * Elementos que indicam que a página de resultados carregou, na ordem de preferência (ver {@link LocatorChain}).
+     */
+    private static final LocatorChain READY_CHAIN = LocatorChain.of("AmazonResultsPage.ready", "resultadosTitle", "noResultsMessage", "firstProductTitle");
+
+    private ResultsSnapshot snapshot;
+
     /**
-     * Lista de WebElements representando os títulos dos produtos nos resultados da busca.
-     * Localizador XPath: //div[contains(@data-cel-widget, 'search_result_')]//h2/a/span[normalize-space(.)!='' and not(contains(@class, 'a-offscreen'))]
+     * Primeiro título de produto (mesmo localizador da lista), usado como alternativa na espera do construtor.
      */
-    @FindBy(xpath = "//div[contains(@data-cel-widget, 'search_result_')]//h2/a/span[normalize-space(.)!='' and not(contains(@class, 'a-offscreen'))]")
-    private List<WebElement> productTitles;
+    @FindBy(xpath = PRODUCT_TITLES_XPATH)
+    private WebElement firstProductTitle;
 
     /**
      * Elemento que exibe o termo de busca que foi pesquisado (ex: "Kindle").
      * Localizador CSS: .a-color-state.a-text-bold
      */
-    @FindBy(css = ".a-color-state.a-text-bold")
+    @FindBy(css = SEARCH_TERM_ECHO_CSS)
     private WebElement searchTermEcho;
 
     /**
      * Título "Resultados", presente quando uma busca retorna produtos.
      * Localizador XPath: //h2[normalize-space(.)='Resultados']
      */
-    @FindBy(xpath = "//h2[normalize-space(.)='Resultados']")
+    @FindBy(xpath = RESULTADOS_TITLE_XPATH)
     private WebElement resultadosTitle;
 
     /**
@@ -39,14 +69,14 @@ public class AmazonResultsPage extends BasePage {
      * O contêiner geral é <div class="s-no-outline">.
      * Localizador XPath: //div[@class='s-no-outline']//span[contains(text(),'Nenhum resultado para')]
      */
-    @FindBy(xpath = "//div[@class='s-no-outline']//span[contains(text(),'Nenhum resultado para')]")
+    @FindBy(xpath = NO_RESULTS_MESSAGE_XPATH)
     private WebElement noResultsMessage;
 
     /**
      * Elemento que exibe o termo que foi buscado e não resultou em produtos.
      * Localizador XPath: //div[@class='s-no-outline']//span[contains(text(),'Nenhum resultado para')]/following-sibling::span[1]
      */
-    @FindBy(xpath = "//div[@class='s-no-outline']//span[contains(text(),'Nenhum resultado para')]/following-sibling::span[1]")
+    @FindBy(xpath = NO_RESULTS_TERM_XPATH)
     private WebElement noResultsSearchedTerm;
 
 
@@ -61,60 +91,68 @@ public class AmazonResultsPage extends BasePage {
     public AmazonResultsPage(WebDriver driver) {
         super(driver);
         try {
-            wait.until(ExpectedConditions.or(
-                    ExpectedConditions.visibilityOf(resultadosTitle),      // Para busca com resultados
-                    ExpectedConditions.visibilityOf(noResultsMessage),    // Para busca sem resultados
-                    (d -> productTitles != null && !productTitles.isEmpty() && isDisplayed(productTitles.get(0))) // Fallback se os títulos acima não forem os primeiros
-            ));
+            // Os três elementos são verificados juntos, em uma única espera, começando pelo que apareceu da última vez
+            READY_CHAIN.awaitAny(waitEngine, WaitEngine.Condition.VISIBLE, Duration.ofSeconds(defaultTimeout),
+                    resultadosTitle,     // Para busca com resultados
+                    noResultsMessage,    // Para busca sem resultados
+                    firstProductTitle);  // Fallback se os títulos acima não forem os primeiros
         } catch (org.openqa.selenium.TimeoutException e) {
-            // Log se nenhum dos elementos esperados principais for encontrado após o timeout
-            if (isDisplayed(resultadosTitle) || isDisplayed(noResultsMessage) || (productTitles != null && !productTitles.isEmpty() && isDisplayed(productTitles.get(0)))) {
-                System.out.println("Página de resultados Amazon carregada (título 'Resultados', msg 'sem resultados' ou lista de produtos visível).");
-            } else {
-                System.err.println("Página de resultados Amazon não carregou elementos esperados (títulos, msg 'sem resultados' ou termo de busca): " + e.getMessage());
-                // Considerar lançar uma exceção se o estado da página for crítico para o teste
-                // throw new IllegalStateException("Página de resultados Amazon não carregou como esperado.", e);
-            }
+            System.err.println("Página de resultados Amazon não carregou elementos esperados (títulos, msg 'sem resultados' ou termo de busca): " + e.getMessage());
+            // Considerar lançar uma exceção se o estado da página for crítico para o teste
+            // throw new IllegalStateException("Página de resultados Amazon não carregou como esperado.", e);
         } catch (Exception e) {
             System.err.println("Exceção inesperada no construtor de AmazonResultsPage: " + e.getMessage());
         }
     }
 
+    /**
+     * Obtém o retrato da página de resultados (todos os cards, título, termo ecoado e mensagem de "nenhum resultado"),
+     * extraído com uma única chamada executeScript e reaproveitado pelas verificações seguintes.
+     * @return O retrato imutável da página.
+     */
+    public ResultsSnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = captureResultsSnapshot(SNAPSHOT_LOCATORS);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Extrai novamente o retrato da página (ex: após rolar a página ou carregar mais resultados).
+     * @return O novo retrato da página.
+     */
+    public ResultsSnapshot refreshSnapshot() {
+        snapshot = null;
+        return getSnapshot();
+    }
+
     /**
      * Verifica se a busca retornou resultados.
      * Considera que há resultados se o título "Resultados" estiver visível e a lista de produtos não estiver vazia.
      * @return true se houver resultados, false caso contrário.
      */
+    @RoundTripBudget(calls = 8)
     public boolean hasResults() {
-        return isDisplayed(resultadosTitle) &&
-                productTitles != null &&
-                !productTitles.isEmpty() &&
-                isDisplayed(productTitles.get(0));
+        return getSnapshot().hasResults();
     }
 
     /**
      * Retorna a quantidade de produtos listados na página de resultados.
      * @return O número de produtos, ou 0 se não houver resultados.
      */
+    @RoundTripBudget(calls = 8)
     public int resultsCount() {
-        if (hasResults()) {
-            return productTitles.size();
-        }
-        return 0;
+        return getSnapshot().resultsCount();
     }
 
     /**
      * Obtém o título do primeiro produto listado nos resultados.
      * @return O texto do título do primeiro produto, ou uma mensagem de erro/aviso se não houver resultados.
      */
+    @RoundTripBudget(calls = 8)
     public String getFirstProductTitle() {
         if (hasResults()) {
-            try {
-                return productTitles.get(0).getText().trim();
-            } catch (Exception e) {
-                System.err.println("Erro ao obter título do primeiro produto (Amazon): " + e.getMessage());
-                return "Erro ao obter título.";
-            }
+            return getSnapshot().getFirstProductTitle();
         }
         return "Nenhum título de produto encontrado.";
     }
@@ -124,10 +162,8 @@ public class AmazonResultsPage extends BasePage {
      * @return O termo de busca ecoado (sem aspas), ou uma mensagem de erro se não encontrado.
      */
     public String getSearchTermEchoText() {
-        if (isDisplayed(searchTermEcho)) {
-            return searchTermEcho.getText().trim().replace("\"", "");
-        }
-        return "Termo de busca ecoado não encontrado.";
+        String echo = getSnapshot().getSearchTermEcho();
+        return echo.isEmpty() ? "Termo de busca ecoado não encontrado." : echo;
     }
 
     /**
@@ -135,7 +171,7 @@ public class AmazonResultsPage extends BasePage {
      * @return true se o título "Resultados" estiver visível, false caso contrário.
      */
     public boolean isResultadosTitleVisible() {
-        return isDisplayed(resultadosTitle);
+        return getSnapshot().isHeaderVisible();
     }
 
     /**
@@ -143,10 +179,8 @@ public class AmazonResultsPage extends BasePage {
      * @return O texto da mensagem, ou uma mensagem de erro se não encontrada.
      */
     public String getNoResultsMessageText() {
-        if (isDisplayed(noResultsMessage)) {
-            return noResultsMessage.getText().trim(); // Retorna "Nenhum resultado para"
-        }
-        return "Mensagem 'Nenhum resultado para' não encontrada.";
+        String message = getSnapshot().getNoResultsMessage();
+        return message.isEmpty() ? "Mensagem 'Nenhum resultado para' não encontrada." : message;
     }
 
     /**
@@ -154,9 +188,7 @@ public class AmazonResultsPage extends BasePage {
      * @return O termo buscado (ex: "produtoinexistenteklok456"), ou uma mensagem de erro se não encontrado.
      */
     public String getNoResultsSearchedTermText() {
-        if (isDisplayed(noResultsSearchedTerm)) {
-            return noResultsSearchedTerm.getText().trim();
-        }
-        return "Termo buscado na mensagem de 'Nenhum resultado' não encontrado.";
+        String term = getSnapshot().getNoResultsTerm();
+        return term.isEmpty() ? "Termo buscado na mensagem de 'Nenhum resultado' não encontrado." : term;
     }
-}
\ No newline at end of file
+}
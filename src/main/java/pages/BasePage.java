@@ -1,15 +1,22 @@
 package pages;
 
+import driver.NetworkBlocker;
+import driver.PageLoadPolicy;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
-import utils.ConfigReader;
+import utils.Config;
 
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Classe base para todas as Page Objects.
@@ -19,36 +26,53 @@ public class BasePage {
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected int defaultTimeout;
+    protected WaitEngine waitEngine;
+    private final List<ElementBinder.CachedLookup> boundElements;
 
     /**
      * Construtor da BasePage.
-     * Inicializa o WebDriver, WebDriverWait e os WebElements da página usando PageFactory.
+     * Inicializa o WebDriver, WebDriverWait e os WebElements da página (campos @FindBy) usando o {@link ElementBinder}:
+     * os localizadores são montados uma vez por classe e cada elemento é localizado no primeiro uso.
+     * As esperas por elementos usam o {@link WaitEngine} (verificação imediata e, depois, MutationObserver no navegador).
      * @param driver A instância do WebDriver a ser usada.
      */
     public BasePage(WebDriver driver) {
         this.driver = driver;
-        this.defaultTimeout = ConfigReader.getIntProperty("timeout.seconds", 10);
+        this.defaultTimeout = Config.get().getTimeoutSeconds();
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(this.defaultTimeout));
-        PageFactory.initElements(driver, this);
+        this.waitEngine = new WaitEngine(driver, Duration.ofSeconds(this.defaultTimeout));
+        this.boundElements = ElementBinder.bind(this, driver);
     }
 
     /**
-     * Clica em um WebElement após garantir que ele esteja visível e clicável.
-     * Tenta recuperar o elemento em caso de StaleElementReferenceException.
+     * Descarta os elementos em cache da página, para que sejam localizados novamente no próximo uso.
+     * Chamado após navegações (driver.get ou cliques que podem trocar de página).
+     */
+    protected void invalidateElements() {
+        for (ElementBinder.CachedLookup element : boundElements) {
+            element.invalidate();
+        }
+    }
+
+    /**
+     * Clica em um WebElement após garantir que ele esteja visível e clicável (verificados juntos, em uma única espera).
+     * Tenta recuperar o elemento em caso de StaleElementReferenceException (somente o elemento afetado é localizado novamente).
+     * Como o clique pode trocar de página, o cache de elementos da página é descartado em seguida.
      * @param element O WebElement a ser clicado.
      */
     protected void click(WebElement element) {
         try {
-            wait.until(ExpectedConditions.visibilityOf(element));
-            wait.until(ExpectedConditions.elementToBeClickable(element));
+            waitEngine.until(WaitEngine.Condition.CLICKABLE, element);
             element.click();
         } catch (StaleElementReferenceException e) {
             System.err.println("StaleElementReferenceException ao clicar. Tentando novamente: " + element.toString());
-            PageFactory.initElements(driver, this); // Re-inicializa os elementos na página atual
-            wait.until(ExpectedConditions.visibilityOf(element));
-            wait.until(ExpectedConditions.elementToBeClickable(element));
+            if (element instanceof ElementBinder.CachedLookup) {
+                ((ElementBinder.CachedLookup) element).invalidate(); // Localiza novamente apenas este elemento
+            }
+            waitEngine.until(WaitEngine.Condition.CLICKABLE, element);
             element.click();
         }
+        invalidateElements();
     }
 
     /**
@@ -58,7 +82,7 @@ public class BasePage {
      * @param text O texto a ser digitado.
      */
     protected void type(WebElement element, String text) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        waitEngine.until(WaitEngine.Condition.VISIBLE, element);
         element.clear();
         element.sendKeys(text);
     }
@@ -71,10 +95,8 @@ public class BasePage {
      */
     protected boolean isDisplayed(WebElement element) {
         try {
-            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(Math.min(3, defaultTimeout / 2)));
-            shortWait.until(ExpectedConditions.visibilityOf(element));
-            return element.isDisplayed();
-        } catch (NoSuchElementException | StaleElementReferenceException | org.openqa.selenium.TimeoutException e) {
+            return waitEngine.await(WaitEngine.Condition.VISIBLE, Duration.ofSeconds(Math.min(3, defaultTimeout / 2)), element);
+        } catch (NoSuchElementException | StaleElementReferenceException e) {
             return false;
         } catch (Exception e) {
             System.err.println("Exceção inesperada em isDisplayed para o elemento: " + element.toString() + " - " + e.getMessage());
@@ -93,15 +115,73 @@ public class BasePage {
         if (currentTimeout <= 0) currentTimeout = 1; // Garante um timeout mínimo de 1 segundo
 
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(currentTimeout));
-            customWait.until(ExpectedConditions.visibilityOf(element));
-            customWait.until(ExpectedConditions.elementToBeClickable(element));
-            return true;
+            return waitEngine.await(WaitEngine.Condition.CLICKABLE, Duration.ofSeconds(currentTimeout), element);
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Navega para uma URL e retorna assim que a página estiver utilizável, de acordo com a estratégia de
+     * carregamento do site (pageload.strategy / {site}.pageload.strategy): espera o document.readyState
+     * correspondente e, em seguida, que os elementos informados estejam visíveis e clicáveis.
+     * @param url A URL de destino.
+     * @param site O nome do site (ex: "amazon", "magalu").
+     * @param readyElements Os elementos que indicam que a página está pronta para uso.
+     */
+    protected void navigateTo(String url, String site, WebElement... readyElements) {
+        PageLoadPolicy.collect(driver); // Coleta as medições pendentes da página anterior
+        NetworkBlocker.applySite(driver, site); // Padrões de bloqueio do site de destino (block.enabled)
+        PageLoadStrategy strategy = PageLoadPolicy.getStrategy(site);
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        // Com eager/none o driver.get pode retornar ainda no documento anterior: marca-o para reconhecer o novo documento
+        boolean markPreviousDocument = PageLoadPolicy.getSessionStrategy() != PageLoadStrategy.NORMAL;
+        if (markPreviousDocument) {
+            js.executeScript("window.__previousDocument = true;");
+        }
+        driver.get(url);
+        invalidateElements();
+        // Novo documento e readyState verificados juntos, em uma chamada por tentativa
+        wait.until(d -> {
+            Object readyState = js.executeScript("return window.__previousDocument === true ? null : document.readyState;");
+            return readyState != null && PageLoadPolicy.isDocumentReady(String.valueOf(readyState), strategy);
+        });
+        waitUntilReady(readyElements);
+        PageLoadPolicy.markReady(driver, site);
+    }
+
+    /**
+     * Espera até que todos os elementos informados estejam visíveis e clicáveis ("pronto quando estes elementos
+     * forem interagíveis").
+     * @param readyElements Os elementos que indicam que a página está pronta para uso.
+     */
+    protected void waitUntilReady(WebElement... readyElements) {
+        for (WebElement element : readyElements) {
+            waitEngine.until(WaitEngine.Condition.CLICKABLE, element);
+        }
+    }
+
+    /**
+     * Extrai o retrato da página de resultados ({@link ResultsSnapshot}) com uma chamada executeScript por tentativa.
+     * Repete a extração por um timeout curto até que a página exiba resultados ou a mensagem de "nenhum resultado".
+     * @param locators Os localizadores da página de resultados.
+     * @return O último retrato extraído.
+     */
+    protected ResultsSnapshot captureResultsSnapshot(Map<String, Object> locators) {
+        ResultsSnapshot[] last = new ResultsSnapshot[1];
+        try {
+            WebDriverWait shortWait = new WebDriverWait(driver, Duration.ofSeconds(Math.min(3, defaultTimeout / 2)));
+            shortWait.until(d -> {
+                last[0] = ResultsSnapshot.capture(d, locators);
+                return last[0].isSettled();
+            });
+        } catch (org.openqa.selenium.TimeoutException e) {
+            System.out.println("Página de resultados não exibiu resultados nem 'nenhum resultado' no tempo esperado: " + last[0]);
+        }
+        return last[0] != null ? last[0] : ResultsSnapshot.capture(driver, locators);
+    }
+
     /**
      * Obtém a URL atual da página.
      * @return A URL atual.
@@ -117,4 +197,46 @@ public class BasePage {
     public String getPageTitle() {
         return driver.getTitle();
     }
+
+    /**
+     * Monta a URL de uma rota do site a partir da URL base configurada.
+     * Ex: "https://www.amazon.com.br/" e "s?k=Kindle" retornam "https://www.amazon.com.br/s?k=Kindle".
+     * @param baseUrl A URL base do site (ex: amazon.url).
+     * @param route A rota, sem a barra inicial.
+     * @return A URL completa.
+     */
+    protected static String siteUrl(String baseUrl, String route) {
+        return (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/") + route;
+    }
+
+    /**
+     * Codifica um termo de busca para a URL. Os espaços viram %20, o que vale tanto na query quanto no caminho.
+     * @param term O termo de busca.
+     * @return O termo codificado.
+     */
+    protected static String encodeSearchTerm(String term) {
+        return URLEncoder.encode(term, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * Extrai o host (e a porta, se houver) de uma URL, sem o prefixo "www.".
+     * Ex: "https://www.amazon.com.br/" retorna "amazon.com.br" e "http://127.0.0.1:8080/" retorna "127.0.0.1:8080".
+     * @param url A URL a ser analisada.
+     * @return O host da URL, ou a própria URL se não puder ser interpretada.
+     */
+    protected static String hostOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            String host = uri.getHost();
+            if (host == null) {
+                return url;
+            }
+            if (host.startsWith("www.")) {
+                host = host.substring(4);
+            }
+            return uri.getPort() > 0 ? host + ":" + uri.getPort() : host;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,95 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Substituto leve do PageFactory para os campos anotados com @FindBy/@FindBys/@FindAll das Page Objects.
+ *
+ * Os localizadores (By) de cada classe de página são montados por reflexão uma única vez e reaproveitados
+ * por todas as instâncias. Cada campo recebe um {@link LazyElement} (ou {@link LazyElementList}) que localiza
+ * o elemento no primeiro uso e o mantém em cache até {@link CachedLookup#invalidate()} (chamado pela BasePage
+ * a cada navegação).
+ */
+final class ElementBinder {
+
+    /**
+     * Elemento (ou lista) com cache de localização que pode ser descartado após uma navegação.
+     */
+    interface CachedLookup {
+        void invalidate();
+    }
+
+    private static final class Binding {
+        private final Field field;
+        private final By by;
+        private final boolean list;
+
+        private Binding(Field field, By by, boolean list) {
+            this.field = field;
+            this.by = by;
+            this.list = list;
+        }
+    }
+
+    private static final Map<Class<?>, List<Binding>> BINDINGS_BY_CLASS = new ConcurrentHashMap<>();
+
+    private ElementBinder() {
+    }
+
+    /**
+     * Preenche os campos anotados da página com elementos preguiçosos.
+     * @param page A instância da Page Object.
+     * @param context O contexto de busca (normalmente o WebDriver).
+     * @return Os elementos criados, para que a página possa invalidar o cache após uma navegação.
+     */
+    static List<CachedLookup> bind(Object page, SearchContext context) {
+        List<Binding> bindings = BINDINGS_BY_CLASS.computeIfAbsent(page.getClass(), ElementBinder::compile);
+        List<CachedLookup> lookups = new ArrayList<>(bindings.size());
+        for (Binding binding : bindings) {
+            CachedLookup lookup = binding.list
+                    ? new LazyElementList(context, binding.by)
+                    : new LazyElement(() -> context.findElement(binding.by), binding.by.toString(), null);
+            try {
+                binding.field.set(page, lookup);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Não foi possível inicializar o campo " + binding.field.getName()
+                        + " de " + page.getClass().getSimpleName(), e);
+            }
+            lookups.add(lookup);
+        }
+        return lookups;
+    }
+
+    private static List<Binding> compile(Class<?> pageClass) {
+        List<Binding> bindings = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(FindBy.class) && !field.isAnnotationPresent(FindBys.class)
+                        && !field.isAnnotationPresent(FindAll.class)) {
+                    continue;
+                }
+                boolean list = List.class.equals(field.getType());
+                if (!list && !WebElement.class.equals(field.getType())) {
+                    throw new IllegalStateException("Campo anotado com @FindBy deve ser WebElement ou List<WebElement>: "
+                            + type.getSimpleName() + "." + field.getName());
+                }
+                field.setAccessible(true);
+                bindings.add(new Binding(field, new Annotations(field).buildBy(), list));
+            }
+        }
+        return Collections.unmodifiableList(bindings);
+    }
+}
@@ -0,0 +1,188 @@
+package pages;
+
+import utils.Config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Camada HTTP da validação de resultados: baixa a página de resultados com {@link HttpClient}, sem navegador, e
+ * extrai do HTML renderizado pelo servidor somente o contrato usado pelas Page Objects de resultados
+ * ({@link AmazonResultsPage}, {@link MagaluResultsPage}): título da listagem, termo ecoado, mensagem de
+ * "nenhum resultado" e os cards de produto, no mesmo {@link ResultsSnapshot} extraído no navegador.
+ *
+ * O HTML é lido com expressões regulares equivalentes aos localizadores das Page Objects (o projeto não tem parser
+ * de HTML). Sem CSS, todo elemento presente no HTML é considerado visível. Quando a página não é conclusiva
+ * (status diferente de 200, página montada por JavaScript, verificação anti-robô ou nenhum dos marcadores
+ * encontrado), {@link #fetch(String, String)} retorna null e a validação deve ser feita no navegador.
+ */
+public final class HttpResultsPage {
+
+    // Amazon: mesmos elementos de AmazonResultsPage
+    private static final Pattern AMAZON_CARD = Pattern.compile("data-cel-widget=\"search_result_");
+    private static final Pattern AMAZON_HEADER = Pattern.compile("<h2[^>]*>\\s*(Resultados)\\s*</h2>");
+    private static final Pattern AMAZON_TITLE = Pattern.compile(
+            "<h2[^>]*>\\s*<a([^>]*)>\\s*<span(?![^>]*a-offscreen)[^>]*>([^<]*)</span>");
+    private static final Pattern AMAZON_PRICE = Pattern.compile("class=\"a-price\"[^>]*>\\s*<span class=\"a-offscreen\">([^<]*)<");
+    private static final Pattern AMAZON_ECHO = Pattern.compile("<span[^>]*class=\"a-color-state a-text-bold\"[^>]*>([^<]*)<");
+    private static final Pattern AMAZON_NO_RESULTS = Pattern.compile(
+            "<div class=\"s-no-outline\">.*?<span[^>]*>([^<]*Nenhum resultado para[^<]*)</span>\\s*(?:<span[^>]*>([^<]*)</span>)?",
+            Pattern.DOTALL);
+
+    // Magazine Luiza: mesmos elementos de MagaluResultsPage
+    private static final Pattern MAGALU_CARD = Pattern.compile("<a[^>]*data-testid=\"product-card-container\"");
+    private static final Pattern MAGALU_HEADER = Pattern.compile("<span[^>]*data-testid=\"main-title\"[^>]*title=\"Resultados para \"[^>]*>([^<]*)<");
+    private static final Pattern MAGALU_TITLE = Pattern.compile("data-testid=\"product-title\"[^>]*>([^<]*)<");
+    private static final Pattern MAGALU_PRICE = Pattern.compile("data-testid=\"price-value\"[^>]*>([^<]*)<");
+    private static final Pattern MAGALU_NO_RESULTS = Pattern.compile("<h1[^>]*data-testid=\"text-list-title\"[^>]*>([^<]*)<");
+
+    private static final Pattern HREF = Pattern.compile("href=\"([^\"]*)\"");
+
+    private static final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(Config.get().getTimeoutSeconds()))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
+
+    private HttpResultsPage() {
+    }
+
+    /**
+     * Busca um termo pela URL de resultados (a mesma de searchDirect) e extrai o retrato da página do HTML.
+     * @param site O site da busca ("amazon" ou "magalu").
+     * @param term O termo a ser buscado.
+     * @return O retrato da página, ou null se o HTML não for conclusivo (a busca deve ser feita no navegador).
+     * @throws IOException se a requisição falhar.
+     * @throws InterruptedException se a thread for interrompida durante a requisição.
+     * @throws IllegalArgumentException se o site não for suportado.
+     */
+    public static ResultsSnapshot fetch(String site, String term) throws IOException, InterruptedException {
+        String url;
+        if ("amazon".equals(site)) {
+            url = AmazonHomePage.searchUrl(term);
+        } else if ("magalu".equals(site)) {
+            url = MagaluHomePage.searchUrl(term);
+        } else {
+            throw new IllegalArgumentException("Site não suportado: '" + site + "' (use amazon ou magalu).");
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(Duration.ofSeconds(Config.get().getTimeoutSeconds()))
+                .header("Accept", "text/html")
+                .header("Accept-Language", "pt-BR,pt;q=0.9")
+                .GET()
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            return null;
+        }
+        return parse(site, response.body(), response.uri());
+    }
+
+    /**
+     * Extrai o retrato da página de resultados de um site a partir do HTML.
+     * @param site O site da página ("amazon" ou "magalu").
+     * @param html O HTML da página.
+     * @param base A URL da página, usada para resolver os links dos cards.
+     * @return O retrato da página, ou null se o HTML não tiver resultados nem a mensagem de "nenhum resultado".
+     */
+    static ResultsSnapshot parse(String site, String html, URI base) {
+        ResultsSnapshot snapshot = "amazon".equals(site) ? parseAmazon(html, base) : parseMagalu(html, base);
+        return snapshot.isSettled() ? snapshot : null;
+    }
+
+    /**
+     * Extrai o retrato de uma página de resultados da Amazon.
+     */
+    static ResultsSnapshot parseAmazon(String html, URI base) {
+        List<ProductCard> cards = new ArrayList<>();
+        for (String card : cards(html, AMAZON_CARD)) {
+            Matcher title = AMAZON_TITLE.matcher(card);
+            if (!title.find()) {
+                continue;
+            }
+            cards.add(new ProductCard(cards.size() + 1, text(title.group(2)), first(AMAZON_PRICE, card),
+                    link(title.group(1), base), true));
+        }
+        String noResults = "";
+        String noResultsTerm = "";
+        Matcher noResultsMatcher = AMAZON_NO_RESULTS.matcher(html);
+        if (noResultsMatcher.find()) {
+            noResults = text(noResultsMatcher.group(1));
+            noResultsTerm = noResultsMatcher.group(2) == null ? "" : text(noResultsMatcher.group(2));
+        }
+        String header = first(AMAZON_HEADER, html);
+        return new ResultsSnapshot(!header.isEmpty(), header, first(AMAZON_ECHO, html), noResults, noResultsTerm, cards);
+    }
+
+    /**
+     * Extrai o retrato de uma página de resultados da Magazine Luiza.
+     */
+    static ResultsSnapshot parseMagalu(String html, URI base) {
+        List<ProductCard> cards = new ArrayList<>();
+        for (String card : cards(html, MAGALU_CARD)) {
+            Matcher title = MAGALU_TITLE.matcher(card);
+            if (!title.find()) {
+                continue;
+            }
+            cards.add(new ProductCard(cards.size() + 1, text(title.group(1)), first(MAGALU_PRICE, card), link(card, base), true));
+        }
+        Matcher header = MAGALU_HEADER.matcher(html);
+        boolean headerFound = header.find();
+        return new ResultsSnapshot(headerFound, headerFound ? text(header.group(1)) : "", "", first(MAGALU_NO_RESULTS, html), "", cards);
+    }
+
+    /**
+     * Divide o HTML em trechos, um por card, cada um começando no marcador do card e terminando no próximo.
+     */
+    private static List<String> cards(String html, Pattern cardStart) {
+        List<String> cards = new ArrayList<>();
+        Matcher matcher = cardStart.matcher(html);
+        int start = -1;
+        while (matcher.find()) {
+            if (start >= 0) {
+                cards.add(html.substring(start, matcher.start()));
+            }
+            start = matcher.start();
+        }
+        if (start >= 0) {
+            cards.add(html.substring(start));
+        }
+        return cards;
+    }
+
+    private static String first(Pattern pattern, String html) {
+        Matcher matcher = pattern.matcher(html);
+        return matcher.find() ? text(matcher.group(1)) : "";
+    }
+
+    private static String link(String html, URI base) {
+        Matcher href = HREF.matcher(html);
+        if (!href.find()) {
+            return "";
+        }
+        try {
+            return base.resolve(unescape(href.group(1))).toString();
+        } catch (IllegalArgumentException e) {
+            return unescape(href.group(1));
+        }
+    }
+
+    /**
+     * Texto de um elemento como no navegador (innerText): entidades HTML decodificadas e espaços normalizados.
+     */
+    private static String text(String html) {
+        return unescape(html).replaceAll("\\s+", " ").trim();
+    }
+
+    private static String unescape(String html) {
+        return html.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&#39;", "'")
+                .replace("&#x27;", "'").replace("&nbsp;", " ").replace("&amp;", "&");
+    }
+}
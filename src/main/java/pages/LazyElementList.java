@@ -0,0 +1,72 @@
+package pages;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebElement;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lista de WebElements resolvida sob demanda (um único findElements) e mantida em cache até a próxima navegação.
+ * Listas vazias não são guardadas, para que esperas como "a lista não está vazia" continuem consultando o navegador.
+ * Cada item é um {@link LazyElement} que, se ficar obsoleto, é localizado novamente pela sua posição.
+ */
+class LazyElementList extends AbstractList<WebElement> implements ElementBinder.CachedLookup {
+
+    private final SearchContext context;
+    private final By by;
+    private volatile List<WebElement> cached;
+
+    LazyElementList(SearchContext context, By by) {
+        this.context = context;
+        this.by = by;
+    }
+
+    @Override
+    public void invalidate() {
+        cached = null;
+    }
+
+    private List<WebElement> resolve() {
+        List<WebElement> elements = cached;
+        if (elements != null) {
+            return elements;
+        }
+        List<WebElement> found = context.findElements(by);
+        elements = new ArrayList<>(found.size());
+        for (int i = 0; i < found.size(); i++) {
+            final int index = i;
+            elements.add(new LazyElement(() -> findAt(index), by + " [" + index + "]", found.get(i)));
+        }
+        if (!elements.isEmpty()) {
+            cached = elements;
+        }
+        return elements;
+    }
+
+    private WebElement findAt(int index) {
+        List<WebElement> found = context.findElements(by);
+        if (index >= found.size()) {
+            throw new NoSuchElementException("Elemento na posição " + index + " não encontrado: " + by);
+        }
+        return found.get(index);
+    }
+
+    @Override
+    public WebElement get(int index) {
+        return resolve().get(index);
+    }
+
+    @Override
+    public int size() {
+        return resolve().size();
+    }
+
+    @Override
+    public String toString() {
+        return "Lista de elementos [" + by + "]";
+    }
+}
@@ -0,0 +1,293 @@
+package pages;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cadeia de alternativas para localizar um elemento ou executar uma ação (ex: título de resultados, mensagem de
+ * "nenhum resultado" ou primeiro produto; botão de busca ou tecla ENTER), declaradas em ordem de preferência.
+ *
+ * A alternativa que funcionou por último (vencedora) é tentada primeiro, com a espera completa; as demais são
+ * tentadas depois, sem espera. A vencedora de cada cadeia e as estatísticas de acertos e falhas de cada alternativa
+ * são gravadas em disco ao final da execução e usadas nas próximas, para que uma alternativa que deixou de funcionar
+ * não custe o timeout em todas as execuções.
+ *
+ * Se a vencedora falhar, a próxima alternativa que funcionar passa a ser a vencedora (reaprendizado imediato). Se
+ * uma alternativa preferida voltar a funcionar, a cada locator.relearn.every usos a cadeia é percorrida na ordem
+ * declarada, verificando as alternativas anteriores à vencedora sem espera, e a ordem é reaprendida sem que as buscas
+ * normais paguem timeout. Essa verificação é feita na própria thread do cenário (a sessão do WebDriver não pode ser
+ * usada por outra thread ao mesmo tempo), mas custa somente uma verificação por alternativa, sem espera, a cada
+ * locator.relearn.every usos.
+ *
+ * As cadeias são separadas por alvo (target): a vencedora no servidor local não muda a ordem usada nos sites reais.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - locator.cache.enabled: lê e grava as vencedoras em disco (padrão true; com false, a ordem é aprendida somente
+ *   durante a execução, começando pela ordem declarada).
+ * - locator.cache.file: arquivo das vencedoras e estatísticas (padrão ~/.cache/desafio-klok/locator-chains.json).
+ * - locator.relearn.every: a cada quantos usos as alternativas preferidas são verificadas novamente (padrão 20; 0 desativa).
+ */
+public final class LocatorChain {
+
+    /**
+     * Uma alternativa da cadeia.
+     */
+    interface Alternative {
+        /**
+         * @param patient true para a alternativa vencedora (pode esperar o timeout completo), false para as demais
+         *                (uma única verificação, sem espera).
+         * @return true se a alternativa funcionou.
+         */
+        boolean attempt(boolean patient);
+    }
+
+    private static final Config config = Config.get();
+    private static final boolean cacheEnabled = config.getBoolean("locator.cache.enabled", true);
+    private static final Path cacheFile = Paths.get(config.getString("locator.cache.file",
+            Paths.get(System.getProperty("user.home"), ".cache", "desafio-klok", "locator-chains.json").toString()));
+    private static final int relearnEvery = Math.max(0, config.getInt("locator.relearn.every", 20));
+
+    private static final Map<String, LocatorChain> chains = new ConcurrentHashMap<>();
+    private static Map<String, Object> persisted; // Protegido pelo monitor da classe
+
+    private final String key;
+    private final List<String> alternatives;
+    private final long[] hits;
+    private final long[] misses;
+    private final long[] runHits;
+    private int winner;
+    private long uses;
+
+    private LocatorChain(String key, List<String> alternatives) {
+        this.key = key;
+        this.alternatives = alternatives;
+        this.hits = new long[alternatives.size()];
+        this.misses = new long[alternatives.size()];
+        this.runHits = new long[alternatives.size()];
+        restore();
+    }
+
+    /**
+     * Obtém a cadeia com o nome informado (uma por nome e alvo, compartilhada por todas as páginas e threads).
+     * @param name O nome da cadeia (ex: "MagaluHomePage.submit").
+     * @param alternatives Os nomes das alternativas, em ordem de preferência.
+     * @return A cadeia, com a vencedora e as estatísticas gravadas nas execuções anteriores.
+     */
+    static LocatorChain of(String name, String... alternatives) {
+        String key = name + "@" + config.getTarget();
+        return chains.computeIfAbsent(key, k -> new LocatorChain(k, Arrays.asList(alternatives)));
+    }
+
+    /**
+     * Executa as alternativas, começando pela vencedora, até que uma funcione. Exceções de uma alternativa contam
+     * como falha e a próxima é tentada.
+     * @param attempts As alternativas, na ordem declarada em {@link #of(String, String...)}.
+     * @return O índice (na ordem declarada) da alternativa que funcionou.
+     * @throws NoSuchElementException se nenhuma alternativa funcionar.
+     */
+    int execute(Alternative... attempts) {
+        int currentWinner;
+        boolean relearning;
+        synchronized (this) {
+            uses++;
+            currentWinner = winner;
+            relearning = relearnEvery > 0 && currentWinner > 0 && uses % relearnEvery == 0;
+        }
+        RuntimeException lastError = null;
+        for (int index : order(currentWinner, relearning)) {
+            try {
+                if (attempts[index].attempt(index == currentWinner)) {
+                    hit(index);
+                    return index;
+                }
+            } catch (RuntimeException e) {
+                lastError = e;
+            }
+            miss(index);
+        }
+        throw new NoSuchElementException("Nenhuma alternativa da cadeia " + key + " funcionou: " + alternatives, lastError);
+    }
+
+    /**
+     * Espera até que qualquer uma das alternativas satisfaça a condição, em uma única espera do {@link WaitEngine}
+     * (todas as alternativas são verificadas juntas), com a vencedora na frente. Registra o acerto da alternativa
+     * que satisfez a condição.
+     * @param waitEngine O motor de esperas da página.
+     * @param condition A condição esperada.
+     * @param timeout O tempo máximo de espera.
+     * @param elements Os elementos alternativos, na ordem declarada.
+     * @return O índice (na ordem declarada) do elemento que satisfez a condição.
+     * @throws TimeoutException se nenhum elemento satisfizer a condição no tempo esperado.
+     */
+    int awaitAny(WaitEngine waitEngine, WaitEngine.Condition condition, Duration timeout, WebElement... elements) {
+        int currentWinner;
+        synchronized (this) {
+            uses++;
+            currentWinner = winner;
+        }
+        int[] order = order(currentWinner, false);
+        WebElement[] ordered = new WebElement[order.length];
+        for (int i = 0; i < order.length; i++) {
+            ordered[i] = elements[order[i]];
+        }
+        int index = order[waitEngine.untilAny(condition, timeout, ordered)];
+        hit(index);
+        return index;
+    }
+
+    /**
+     * Ordem de tentativa: a vencedora e depois as demais na ordem declarada; no reaprendizado, a ordem declarada.
+     */
+    private int[] order(int currentWinner, boolean relearning) {
+        int[] order = new int[alternatives.size()];
+        int next = 0;
+        if (!relearning) {
+            order[next++] = currentWinner;
+        }
+        for (int i = 0; i < order.length; i++) {
+            if (relearning || i != currentWinner) {
+                order[next++] = i;
+            }
+        }
+        return order;
+    }
+
+    private synchronized void hit(int index) {
+        hits[index]++;
+        runHits[index]++;
+        if (index != winner) {
+            System.out.println("CADEIA DE LOCALIZADORES: " + key + " passou a começar por '" + alternatives.get(index)
+                    + "' (antes '" + alternatives.get(winner) + "').");
+            winner = index;
+        }
+    }
+
+    private synchronized void miss(int index) {
+        misses[index]++;
+    }
+
+    /**
+     * Carrega a vencedora e as estatísticas gravadas para esta cadeia (ignoradas se as alternativas mudaram de nome).
+     */
+    private void restore() {
+        Object saved = loadCache().get(key);
+        if (!(saved instanceof Map)) {
+            return;
+        }
+        Map<?, ?> chain = (Map<?, ?>) saved;
+        int savedWinner = alternatives.indexOf(String.valueOf(chain.get("winner")));
+        if (savedWinner >= 0) {
+            winner = savedWinner;
+        }
+        for (int i = 0; i < alternatives.size(); i++) {
+            hits[i] = count(chain.get("hits"), alternatives.get(i));
+            misses[i] = count(chain.get("misses"), alternatives.get(i));
+        }
+    }
+
+    private synchronized Map<String, Object> toJson() {
+        Map<String, Object> hitsByName = new LinkedHashMap<>();
+        Map<String, Object> missesByName = new LinkedHashMap<>();
+        for (int i = 0; i < alternatives.size(); i++) {
+            hitsByName.put(alternatives.get(i), hits[i]);
+            missesByName.put(alternatives.get(i), misses[i]);
+        }
+        Map<String, Object> chain = new LinkedHashMap<>();
+        chain.put("winner", alternatives.get(winner));
+        chain.put("hits", hitsByName);
+        chain.put("misses", missesByName);
+        return chain;
+    }
+
+    private static long count(Object counts, String alternative) {
+        Object value = counts instanceof Map ? ((Map<?, ?>) counts).get(alternative) : null;
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static synchronized Map<String, Object> loadCache() {
+        if (persisted == null) {
+            persisted = new HashMap<>();
+            if (cacheEnabled && Files.exists(cacheFile)) {
+                try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+                    Map<String, Object> content = new Json().toType(reader, Json.MAP_TYPE);
+                    Object saved = content.get("chains");
+                    if (saved instanceof Map) {
+                        ((Map<?, ?>) saved).forEach((key, value) -> persisted.put(String.valueOf(key), value));
+                    }
+                } catch (IOException | JsonException e) {
+                    System.err.println("AVISO: Cache de localizadores inválido (" + cacheFile + "), ignorado: " + e.getMessage());
+                }
+            }
+        }
+        return persisted;
+    }
+
+    /**
+     * Grava em disco a vencedora e as estatísticas de cada cadeia usada (as cadeias não usadas nesta execução são
+     * mantidas como estavam).
+     */
+    public static synchronized void saveCache() {
+        if (!cacheEnabled || chains.isEmpty()) {
+            return;
+        }
+        Map<String, Object> saved = new TreeMap<>(loadCache());
+        chains.forEach((key, chain) -> saved.put(key, chain.toJson()));
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("chains", saved);
+        try {
+            if (cacheFile.getParent() != null) {
+                Files.createDirectories(cacheFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8)) {
+                new Json().newOutput(writer).write(content);
+            }
+        } catch (IOException e) {
+            System.err.println("ERRO AO GRAVAR CACHE DE LOCALIZADORES: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imprime, para cada cadeia usada, a vencedora e os acertos e falhas de cada alternativa (nesta execução e no
+     * total gravado), destacando as alternativas que foram tentadas e nunca funcionaram (candidatas a remoção).
+     */
+    public static void printStats() {
+        if (chains.isEmpty()) {
+            return;
+        }
+        System.out.println("CADEIAS DE LOCALIZADORES - MÉTRICAS" + (cacheEnabled ? " (cache em " + cacheFile + ")" : "") + ":");
+        for (LocatorChain chain : new TreeMap<>(chains).values()) {
+            List<String> stats = new ArrayList<>();
+            synchronized (chain) {
+                for (int i = 0; i < chain.alternatives.size(); i++) {
+                    stats.add(chain.alternatives.get(i) + " " + chain.runHits[i] + " acerto(s) nesta execução, " + chain.hits[i]
+                            + " acerto(s)/" + chain.misses[i] + " falha(s) no total"
+                            // Só é candidata a remoção a alternativa tentada que nunca funcionou: alternativas que
+                            // nunca foram tentadas (a vencedora funcionou antes delas) não indicam nada
+                            + (chain.misses[i] > 0 && chain.hits[i] == 0 ? " [nunca funcionou]" : ""));
+                }
+                System.out.println("  " + chain.key + ": começa por '" + chain.alternatives.get(chain.winner) + "' | " + String.join(" | ", stats));
+            }
+        }
+    }
+}
@@ -1,11 +1,13 @@
 package pages;
 
+import driver.RoundTripBudget;
 import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import utils.ConfigReader;
+import utils.Config;
+
+import java.time.Duration;
 
 /**
  * Page Object para a página inicial da Magazine Luiza.
@@ -13,6 +15,12 @@ import utils.ConfigReader;
  */
 public class MagaluHomePage extends BasePage {
 
+    /**
+     * Envio da busca: botão de busca ou tecla ENTER (ver {@link LocatorChain}). Se o botão deixar de aparecer, as
+     * próximas buscas enviam direto com ENTER, sem esperar pelo botão.
+     */
+    private static final LocatorChain SUBMIT_CHAIN = LocatorChain.of("MagaluHomePage.submit", "searchButton", "enter");
+
     @FindBy(id = "input-search")
     private WebElement searchInput;
 
@@ -47,31 +55,54 @@ public class MagaluHomePage extends BasePage {
 
     /**
      * Navega para a página inicial da Magazine Luiza.
+     * A navegação retorna assim que o campo de busca estiver interagível (ver magalu.pageload.strategy).
      * Futuramente, pode incluir tratamento de pop-ups ou cookies específicos da Magalu.
      */
+    @RoundTripBudget(calls = 20)
     public void navigateToHomePage() {
-        driver.get(ConfigReader.getProperty("magalu.url"));
+        navigateTo(Config.get().getString("magalu.url"), "magalu", searchInput);
         // Exemplo de futuro tratamento: acceptMagaluPopupsIfPresent();
     }
 
+    /**
+     * Obtém o host esperado para a Magazine Luiza, de acordo com a URL configurada (site real ou servidor local).
+     * @return O host de magalu.url (ex: "magazineluiza.com.br").
+     */
+    public String getExpectedHost() {
+        return hostOf(Config.get().getString("magalu.url"));
+    }
+
     /**
      * Realiza uma busca por um produto.
-     * Tenta clicar no botão de busca; se não for possível, envia a busca com a tecla ENTER.
+     * A busca é enviada pela cadeia {@link #SUBMIT_CHAIN}: clicar no botão de busca ou, se não for possível, enviar
+     * com a tecla ENTER, começando pela alternativa que funcionou da última vez.
      * @param product O termo a ser buscado.
      * @return Uma instância de MagaluResultsPage representando a página de resultados da busca.
      */
+    @RoundTripBudget(calls = 20)
     public MagaluResultsPage searchFor(String product) {
-        wait.until(ExpectedConditions.elementToBeClickable(searchInput));
+        waitEngine.until(WaitEngine.Condition.CLICKABLE, searchInput);
         type(searchInput, product);
 
         try {
-            // Tenta clicar no botão primeiro, com uma espera curta
-            if (isElementReady(searchButton, 5)) {
-                click(searchButton);
-            } else {
-                System.out.println("Botão de busca da Magalu não encontrado/clicável, tentando enviar com ENTER.");
-                searchInput.sendKeys(Keys.ENTER);
-            }
+            SUBMIT_CHAIN.execute(
+                    // Botão de busca: espera curta quando é a alternativa vencedora, uma única verificação caso contrário
+                    patient -> {
+                        if (patient ? isElementReady(searchButton, 5)
+                                : waitEngine.await(WaitEngine.Condition.CLICKABLE, Duration.ZERO, searchButton)) {
+                            click(searchButton);
+                            return true;
+                        }
+                        if (patient) {
+                            System.out.println("Botão de busca da Magalu não encontrado/clicável, tentando enviar com ENTER.");
+                        }
+                        return false;
+                    },
+                    // Tecla ENTER no campo de busca
+                    patient -> {
+                        searchInput.sendKeys(Keys.ENTER);
+                        return true;
+                    });
         } catch (Exception e) {
             System.err.println("Exceção ao tentar clicar no botão de busca ou enviar ENTER na Magalu: " + e.getMessage());
             System.out.println("Tentando enviar com ENTER como fallback.");
@@ -80,11 +111,32 @@ public class MagaluHomePage extends BasePage {
         return new MagaluResultsPage(driver);
     }
 
+    /**
+     * Realiza uma busca navegando diretamente para a URL de resultados (/busca/{termo}/), sem carregar a página
+     * inicial, digitar no campo de busca nem esperar pelo botão de busca. Para cenários que validam somente os
+     * resultados; as jornadas pela página inicial continuam usando {@link #searchFor(String)}.
+     * @param product O termo a ser buscado.
+     * @return Uma instância de MagaluResultsPage representando a página de resultados da busca.
+     */
+    @RoundTripBudget(calls = 20)
+    public MagaluResultsPage searchDirect(String product) {
+        navigateTo(searchUrl(product), "magalu");
+        return new MagaluResultsPage(driver);
+    }
+
+    /**
+     * Monta a URL de resultados da busca (também usada pela camada HTTP, {@link HttpResultsPage}).
+     * @param product O termo a ser buscado.
+     * @return A URL de resultados da busca.
+     */
+    static String searchUrl(String product) {
+        return siteUrl(Config.get().getString("magalu.url"), "busca/" + encodeSearchTerm(product) + "/");
+    }
+
     /**
      * Clica no link "Ofertas do Dia" no menu de navegação.
      */
     public void clickOnOfertasDoDia() {
-        wait.until(ExpectedConditions.elementToBeClickable(ofertasDoDiaLink));
         click(ofertasDoDiaLink);
     }
 
@@ -94,7 +146,7 @@ public class MagaluHomePage extends BasePage {
      */
     public boolean isOfertasDoDiaPageVisible() {
         try {
-            wait.until(ExpectedConditions.visibilityOf(ofertasDoDiaPageIdentifier));
+            waitEngine.until(WaitEngine.Condition.VISIBLE, ofertasDoDiaPageIdentifier);
             return true;
         } catch (Exception e) {
             System.err.println("Identificador da página de Ofertas do Dia da Magalu não encontrado: " + ofertasDoDiaPageIdentifier.toString());
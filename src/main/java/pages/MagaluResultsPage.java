@@ -1,11 +1,13 @@
 package pages;
 
+import driver.RoundTripBudget;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Page Object para a página de resultados de busca da Magazine Luiza.
@@ -13,25 +15,49 @@ import java.util.List;
  */
 public class MagaluResultsPage extends BasePage {
 
+    private static final String PRODUCT_TITLES_CSS = "[data-testid='product-card-content'] [data-testid='product-title']";
+    private static final String EMPTY_RESULTS_MESSAGE_CSS = "h1[data-testid='text-list-title']";
+    private static final String SEARCH_RESULTS_TITLE_CSS = "span[data-testid='main-title'][title='Resultados para ']";
+
+    /**
+     * Localizadores usados na extração do {@link ResultsSnapshot} (os mesmos dos campos @FindBy,
+     * mais o card de cada produto e o preço dentro do card).
+     */
+    private static final Map<String, Object> SNAPSHOT_LOCATORS = new HashMap<>();
+
+    static {
+        SNAPSHOT_LOCATORS.put("titles", ResultsSnapshot.css(PRODUCT_TITLES_CSS));
+        SNAPSHOT_LOCATORS.put("header", ResultsSnapshot.css(SEARCH_RESULTS_TITLE_CSS));
+        SNAPSHOT_LOCATORS.put("noResults", ResultsSnapshot.css(EMPTY_RESULTS_MESSAGE_CSS));
+        SNAPSHOT_LOCATORS.put("card", "[data-testid='product-card-container']");
+        SNAPSHOT_LOCATORS.put("price", "[data-testid='price-value']");
+    }
+
     /**
-     * Lista de WebElements representando os títulos dos produtos nos resultados da busca.
-     * Localizador CSS: [data-testid='product-card-content'] [data-testid='product-title']
+     * Elementos que indicam que a página de resultados carregou, na ordem de preferência (ver {@link LocatorChain}).
      */
-    @FindBy(css = "[data-testid='product-card-content'] [data-testid='product-title']")
-    private List<WebElement> productTitles;
+    private static final LocatorChain READY_CHAIN = LocatorChain.of("MagaluResultsPage.ready", "searchResultsTitle", "emptyResultsMessage", "firstProductTitle");
+
+    private ResultsSnapshot snapshot;
+
+    /**
+     * Primeiro título de produto (mesmo localizador da lista), usado como alternativa na espera do construtor.
+     */
+    @FindBy(css = PRODUCT_TITLES_CSS)
+    private WebElement firstProductTitle;
 
     /**
      * Mensagem exibida quando a busca não retorna nenhum resultado (ex: "Sua busca por "..." não encontrou resultado algum :(").
      * Localizador CSS: h1[data-testid='text-list-title']
      */
-    @FindBy(css = "h1[data-testid='text-list-title']")
+    @FindBy(css = EMPTY_RESULTS_MESSAGE_CSS)
     private WebElement emptyResultsMessage;
 
     /**
      * Título "Resultados para ", presente quando uma busca retorna produtos.
      * Localizador CSS: span[data-testid='main-title'][title='Resultados para ']
      */
-    @FindBy(css = "span[data-testid='main-title'][title='Resultados para ']")
+    @FindBy(css = SEARCH_RESULTS_TITLE_CSS)
     private WebElement searchResultsTitle;
 
 
@@ -46,45 +72,58 @@ public class MagaluResultsPage extends BasePage {
     public MagaluResultsPage(WebDriver driver) {
         super(driver);
         try {
-            wait.until(ExpectedConditions.or(
-                    ExpectedConditions.visibilityOf(searchResultsTitle), // Para busca com resultados
-                    ExpectedConditions.visibilityOf(emptyResultsMessage),  // Para busca sem resultados
-                    (d -> productTitles != null && !productTitles.isEmpty() && isDisplayed(productTitles.get(0))) // Fallback
-            ));
+            // Os três elementos são verificados juntos, em uma única espera, começando pelo que apareceu da última vez
+            READY_CHAIN.awaitAny(waitEngine, WaitEngine.Condition.VISIBLE, Duration.ofSeconds(defaultTimeout),
+                    searchResultsTitle,   // Para busca com resultados
+                    emptyResultsMessage,  // Para busca sem resultados
+                    firstProductTitle);   // Fallback
         } catch (org.openqa.selenium.TimeoutException e) {
-            if (isDisplayed(searchResultsTitle) || isDisplayed(emptyResultsMessage) || (productTitles != null && !productTitles.isEmpty() && isDisplayed(productTitles.get(0)))) {
-                System.out.println("Página de resultados Magalu carregada.");
-            } else {
-                System.err.println("Página de resultados Magalu não carregou elementos esperados (título 'Resultados para', msg 'sem resultados' ou lista de produtos): " + e.getMessage());
-                // Considerar lançar uma exceção se o estado da página for crítico para o teste
-                // throw new IllegalStateException("Página de resultados Magalu não carregou como esperado.", e);
-            }
+            System.err.println("Página de resultados Magalu não carregou elementos esperados (título 'Resultados para', msg 'sem resultados' ou lista de produtos): " + e.getMessage());
+            // Considerar lançar uma exceção se o estado da página for crítico para o teste
+            // throw new IllegalStateException("Página de resultados Magalu não carregou como esperado.", e);
         } catch (Exception e) {
             System.err.println("Exceção inesperada no construtor de MagaluResultsPage: " + e.getMessage());
         }
     }
 
+    /**
+     * Obtém o retrato da página de resultados (todos os cards, título e mensagem de "nenhum resultado"),
+     * extraído com uma única chamada executeScript e reaproveitado pelas verificações seguintes.
+     * @return O retrato imutável da página.
+     */
+    public ResultsSnapshot getSnapshot() {
+        if (snapshot == null) {
+            snapshot = captureResultsSnapshot(SNAPSHOT_LOCATORS);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Extrai novamente o retrato da página (ex: após rolar a página ou carregar mais resultados).
+     * @return O novo retrato da página.
+     */
+    public ResultsSnapshot refreshSnapshot() {
+        snapshot = null;
+        return getSnapshot();
+    }
+
     /**
      * Verifica se a busca retornou resultados.
      * Considera que há resultados se o título "Resultados para " estiver visível e a lista de produtos não estiver vazia.
      * @return true se houver resultados, false caso contrário.
      */
+    @RoundTripBudget(calls = 8)
     public boolean hasResults() {
-        return isDisplayed(searchResultsTitle) &&
-                productTitles != null &&
-                !productTitles.isEmpty() &&
-                isDisplayed(productTitles.get(0));
+        return getSnapshot().hasResults();
     }
 
     /**
      * Retorna a quantidade de produtos listados na página de resultados.
      * @return O número de produtos, ou 0 se não houver resultados.
      */
+    @RoundTripBudget(calls = 8)
     public int resultsCount() {
-        if (hasResults()) {
-            return productTitles.size();
-        }
-        return 0;
+        return getSnapshot().resultsCount();
     }
 
     /**
@@ -93,10 +132,8 @@ public class MagaluResultsPage extends BasePage {
      *         ou uma mensagem de erro se não encontrada.
      */
     public String getNoResultsMessageText() {
-        if (isDisplayed(emptyResultsMessage)) {
-            return emptyResultsMessage.getText().trim();
-        }
-        return "Mensagem de 'Nenhum resultado encontrado' não achada.";
+        String message = getSnapshot().getNoResultsMessage();
+        return message.isEmpty() ? "Mensagem de 'Nenhum resultado encontrado' não achada." : message;
     }
 
     /**
@@ -104,10 +141,8 @@ public class MagaluResultsPage extends BasePage {
      * @return O texto do título, ou uma mensagem de erro se não encontrado.
      */
     public String getSearchResultsTitleText() {
-        if (isDisplayed(searchResultsTitle)) {
-            return searchResultsTitle.getText().trim(); // Retorna "Resultados para "
-        }
-        return "Título 'Resultados para' não encontrado.";
+        String title = getSnapshot().getHeaderText(); // "Resultados para "
+        return title.isEmpty() ? "Título 'Resultados para' não encontrado." : title;
     }
 
     /**
@@ -115,22 +150,18 @@ public class MagaluResultsPage extends BasePage {
      * @return true se o título estiver visível, false caso contrário.
      */
     public boolean isSearchResultsTitleVisible(){
-        return isDisplayed(searchResultsTitle);
+        return getSnapshot().isHeaderVisible();
     }
 
     /**
      * Obtém o título do primeiro produto listado nos resultados.
      * @return O texto do título do primeiro produto, ou uma mensagem de erro/aviso se não houver resultados.
      */
+    @RoundTripBudget(calls = 8)
     public String getFirstProductTitle() {
         if (hasResults()) {
-            try {
-                return productTitles.get(0).getText().trim();
-            } catch (Exception e) {
-                System.err.println("Erro ao obter título do primeiro produto (Magalu): " + e.getMessage());
-                return "Erro ao obter título.";
-            }
+            return getSnapshot().getFirstProductTitle();
         }
         return "Nenhum título de produto encontrado.";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package pages;
+
+/**
+ * Card de produto extraído de uma página de resultados (imutável).
+ * Faz parte de um {@link ResultsSnapshot}.
+ */
+public final class ProductCard {
+
+    private final int position;
+    private final String title;
+    private final String price;
+    private final String link;
+    private final boolean visible;
+
+    /**
+     * Construtor do ProductCard.
+     * @param position Posição do card na listagem (começando em 1).
+     * @param title Título do produto.
+     * @param price Preço exibido (ex: "R$ 99,90"), ou vazio se não houver.
+     * @param link URL do produto, ou vazio se não houver.
+     * @param visible true se o título do produto estiver visível na página.
+     */
+    public ProductCard(int position, String title, String price, String link, boolean visible) {
+        this.position = position;
+        this.title = title;
+        this.price = price;
+        this.link = link;
+        this.visible = visible;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getPrice() {
+        return price;
+    }
+
+    public String getLink() {
+        return link;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + position + " " + title + (price.isEmpty() ? "" : " (" + price + ")") + (visible ? "" : " [oculto]");
+    }
+}
@@ -0,0 +1,202 @@
+package pages;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retrato imutável de uma página de resultados de busca, extraído com uma única chamada executeScript:
+ * título da listagem, termo ecoado, mensagem de "nenhum resultado" e todos os cards de produto
+ * (título, preço, link, visibilidade e posição).
+ *
+ * Substitui as várias consultas isDisplayed/getText/findElements (uma ida e volta ao driver cada)
+ * por uma única ida e volta, independentemente da quantidade de cards na página.
+ * O mesmo retrato também pode ser montado a partir do HTML da página, sem navegador ({@link HttpResultsPage}).
+ */
+public final class ResultsSnapshot {
+
+    /**
+     * Script de extração. Recebe em arguments[0] um mapa de localizadores ({xpath: ...} ou {css: ...}):
+     * header, echo, noResults, noResultsTerm e titles (obrigatório), além dos seletores CSS card e price.
+     * O card de cada título é o ancestral mais próximo (closest) que atende ao seletor card; o link é o
+     * âncora mais próxima do título ou, na falta dela, a primeira âncora do card.
+     */
+    private static final String EXTRACT_SCRIPT =
+            "var loc = arguments[0];"
+                    + "function all(l) {"
+                    + "  if (!l) { return []; }"
+                    + "  if (l.xpath) {"
+                    + "    var r = document.evaluate(l.xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), out = [];"
+                    + "    for (var i = 0; i < r.snapshotLength; i++) { out.push(r.snapshotItem(i)); }"
+                    + "    return out;"
+                    + "  }"
+                    + "  return Array.prototype.slice.call(document.querySelectorAll(l.css));"
+                    + "}"
+                    + "function visible(el) {"
+                    + "  if (!el || !el.isConnected) { return false; }"
+                    + "  var s = window.getComputedStyle(el);"
+                    + "  if (s.display === 'none' || s.visibility === 'hidden' || parseFloat(s.opacity) === 0) { return false; }"
+                    + "  var r = el.getBoundingClientRect();"
+                    + "  return r.width > 0 && r.height > 0;"
+                    + "}"
+                    + "function text(el) { return el ? (el.innerText || el.textContent || '').trim() : ''; }"
+                    + "function visibleText(l) { var el = all(l)[0]; return visible(el) ? text(el) : ''; }"
+                    + "var cards = all(loc.titles).map(function(title, i) {"
+                    + "  var card = loc.card ? title.closest(loc.card) : null;"
+                    + "  var price = card && loc.price ? card.querySelector(loc.price) : null;"
+                    + "  var link = title.closest('a') || (card ? card.querySelector('a[href]') : null);"
+                    + "  return {position: i + 1, title: text(title), price: price ? (price.textContent || '').trim() : '',"
+                    + "          link: link ? link.href : '', visible: visible(title)};"
+                    + "});"
+                    + "return {headerText: visibleText(loc.header), header: visible(all(loc.header)[0]), echo: visibleText(loc.echo),"
+                    + "        noResults: visibleText(loc.noResults), noResultsTerm: visibleText(loc.noResultsTerm), cards: cards};";
+
+    private final boolean headerVisible;
+    private final String headerText;
+    private final String searchTermEcho;
+    private final String noResultsMessage;
+    private final String noResultsTerm;
+    private final List<ProductCard> cards;
+
+    ResultsSnapshot(boolean headerVisible, String headerText, String searchTermEcho, String noResultsMessage, String noResultsTerm,
+                    List<ProductCard> cards) {
+        this.headerVisible = headerVisible;
+        this.headerText = headerText;
+        this.searchTermEcho = searchTermEcho;
+        this.noResultsMessage = noResultsMessage;
+        this.noResultsTerm = noResultsTerm;
+        this.cards = Collections.unmodifiableList(cards);
+    }
+
+    /**
+     * Localizador XPath para o mapa de localizadores do script de extração.
+     */
+    static Map<String, String> xpath(String expression) {
+        return Collections.singletonMap("xpath", expression);
+    }
+
+    /**
+     * Localizador CSS para o mapa de localizadores do script de extração.
+     */
+    static Map<String, String> css(String selector) {
+        return Collections.singletonMap("css", selector);
+    }
+
+    /**
+     * Extrai o retrato da página atual com uma única chamada executeScript.
+     * @param driver O WebDriver da página.
+     * @param locators Os localizadores da página (ver {@link #EXTRACT_SCRIPT}).
+     * @return O retrato da página.
+     */
+    static ResultsSnapshot capture(WebDriver driver, Map<String, Object> locators) {
+        Object result = ((JavascriptExecutor) driver).executeScript(EXTRACT_SCRIPT, locators);
+        Map<?, ?> page = result instanceof Map ? (Map<?, ?>) result : Collections.emptyMap();
+        List<ProductCard> cards = new ArrayList<>();
+        Object rawCards = page.get("cards");
+        if (rawCards instanceof List) {
+            for (Object rawCard : (List<?>) rawCards) {
+                Map<?, ?> card = (Map<?, ?>) rawCard;
+                cards.add(new ProductCard(
+                        ((Number) card.get("position")).intValue(),
+                        asString(card.get("title")),
+                        asString(card.get("price")),
+                        asString(card.get("link")),
+                        Boolean.TRUE.equals(card.get("visible"))));
+            }
+        }
+        return new ResultsSnapshot(Boolean.TRUE.equals(page.get("header")), asString(page.get("headerText")), asString(page.get("echo")),
+                asString(page.get("noResults")), asString(page.get("noResultsTerm")), cards);
+    }
+
+    /**
+     * @return true se o título da listagem ("Resultados" / "Resultados para ") estiver visível.
+     */
+    public boolean isHeaderVisible() {
+        return headerVisible;
+    }
+
+    /**
+     * @return O texto do título da listagem (ex: "Resultados para"), ou vazio se ele não estiver visível.
+     */
+    public String getHeaderText() {
+        return headerText;
+    }
+
+    /**
+     * @return O termo de busca ecoado pela página (sem aspas), ou vazio se não houver.
+     */
+    public String getSearchTermEcho() {
+        return searchTermEcho.replace("\"", "");
+    }
+
+    /**
+     * @return A mensagem de "nenhum resultado" visível, ou vazio se não houver.
+     */
+    public String getNoResultsMessage() {
+        return noResultsMessage;
+    }
+
+    /**
+     * @return O termo exibido junto à mensagem de "nenhum resultado" (quando a página o separa), ou vazio.
+     */
+    public String getNoResultsTerm() {
+        return noResultsTerm;
+    }
+
+    /**
+     * @return true se a mensagem de "nenhum resultado" estiver visível.
+     */
+    public boolean isNoResults() {
+        return !noResultsMessage.isEmpty();
+    }
+
+    /**
+     * @return Os cards de produto na ordem da página (lista imutável).
+     */
+    public List<ProductCard> getCards() {
+        return cards;
+    }
+
+    /**
+     * Considera que há resultados se o título da listagem estiver visível e o primeiro card estiver visível.
+     * @return true se houver resultados.
+     */
+    public boolean hasResults() {
+        return headerVisible && !cards.isEmpty() && cards.get(0).isVisible();
+    }
+
+    /**
+     * @return A quantidade de produtos listados, ou 0 se não houver resultados.
+     */
+    public int resultsCount() {
+        return hasResults() ? cards.size() : 0;
+    }
+
+    /**
+     * @return O título do primeiro produto, ou vazio se não houver resultados.
+     */
+    public String getFirstProductTitle() {
+        return hasResults() ? cards.get(0).getTitle() : "";
+    }
+
+    /**
+     * @return true se a página já exibe resultados ou a mensagem de "nenhum resultado" (página estável).
+     */
+    boolean isSettled() {
+        return hasResults() || isNoResults();
+    }
+
+    private static String asString(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultsSnapshot{resultados=" + cards.size() + ", titulo=" + headerVisible
+                + (isNoResults() ? ", nenhumResultado='" + noResultsMessage + "'" : "") + "}";
+    }
+}
@@ -0,0 +1,339 @@
+package pages;
+
+import driver.TabMultiplexer;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import utils.Config;
+import utils.LatencyRegistry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de esperas das Page Objects, no lugar das esperas com WebDriverWait (que sondam o navegador a cada 500 ms e
+ * enviam um comando por condição).
+ *
+ * Cada espera:
+ * 1. Verifica a condição imediatamente (fast path), com uma única chamada executeScript que avalia todas as
+ *    condições do elemento (ex: visível e habilitado) e todos os elementos alternativos de uma vez.
+ * 2. Se a condição ainda não for verdadeira, aguarda dentro do navegador (executeAsyncScript) até que um
+ *    MutationObserver perceba a mudança no DOM que a satisfaz, sem novas idas e voltas.
+ *    Um intervalo curto no próprio navegador cobre mudanças sem mutação (ex: transições CSS).
+ * 3. Elementos ainda não encontrados (ou removidos do DOM) são localizados novamente após mudanças no DOM.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - wait.mode: observer (padrão) ou polling (repete a verificação combinada a cada wait.poll.interval.ms).
+ * - wait.poll.interval.ms: intervalo de sondagem do modo polling e do intervalo de segurança no navegador (padrão 100).
+ * - wait.observe.slice.ms: duração máxima de cada espera no navegador (padrão 10000; 250 com várias abas por navegador,
+ *   para que as abas do mesmo navegador se revezem entre as esperas).
+ *
+ * O tempo gasto em esperas é registrado no {@link LatencyRegistry} (categoria "waits") e resumido por cenário.
+ */
+public final class WaitEngine {
+
+    public static final String CATEGORY = "waits";
+
+    /**
+     * Condição esperada de um elemento.
+     */
+    public enum Condition {
+        /** Elemento no DOM, com tamanho, sem display:none, visibility:hidden ou opacidade zero. */
+        VISIBLE,
+        /** Elemento visível e habilitado (equivalente a ExpectedConditions.elementToBeClickable). */
+        CLICKABLE
+    }
+
+    private enum Outcome {FAST_PATH, OBSERVER, POLLING, TIMEOUT}
+
+    // Tempo máximo de cada executeAsyncScript, abaixo do script timeout padrão do WebDriver (30 s)
+    private static final long MAX_SLICE_MS = 10_000;
+    // Com várias abas por navegador, cada espera no navegador bloqueia as demais abas: fatias curtas
+    private static final long TABS_SLICE_MS = 250;
+
+    private static final String CHECK_FUNCTIONS =
+            "function __visible(e) {"
+            + "  if (!e.isConnected) return false;"
+            + "  var r = e.getBoundingClientRect();"
+            + "  if (r.width <= 0 || r.height <= 0) return false;"
+            + "  var s = getComputedStyle(e);"
+            + "  if (s.visibility === 'hidden' || s.visibility === 'collapse') return false;"
+            + "  for (var n = e; n && n.nodeType === 1; n = n.parentElement) {"
+            + "    var ns = n === e ? s : getComputedStyle(n);"
+            + "    if (ns.display === 'none' || ns.opacity === '0') return false;"
+            + "  }"
+            + "  return true;"
+            + "}"
+            + "function __ready(e, clickable) {"
+            + "  return __visible(e) && (!clickable || (e.disabled !== true && !(e.closest && e.closest('fieldset[disabled]'))));"
+            + "}"
+            // Índice do primeiro elemento pronto, ou a lista dos índices a localizar novamente (ausentes ou removidos do DOM)
+            + "function __first(els, clickable) {"
+            + "  var relocate = [];"
+            + "  for (var i = 0; i < els.length; i++) {"
+            + "    if (!els[i] || !els[i].isConnected) { relocate.push(i); continue; }"
+            + "    if (__ready(els[i], clickable)) return i;"
+            + "  }"
+            + "  return relocate;"
+            + "}";
+
+    private static final String CHECK_SCRIPT = CHECK_FUNCTIONS
+            + "var found = __first(arguments[1], arguments[0] === 'CLICKABLE');"
+            + "return typeof found === 'number' ? found : -1;";
+
+    private static final String OBSERVE_SCRIPT = CHECK_FUNCTIONS
+            + "var clickable = arguments[0] === 'CLICKABLE', els = arguments[1], sliceMs = arguments[2], intervalMs = arguments[3];"
+            + "var done = arguments[arguments.length - 1];"
+            + "var finished = false, observer, timer, interval, relocateTimer;"
+            + "function finish(value) {"
+            + "  if (finished) return;"
+            + "  finished = true;"
+            + "  if (observer) observer.disconnect();"
+            + "  clearTimeout(timer); clearTimeout(relocateTimer); clearInterval(interval);"
+            + "  done(value);"
+            + "}"
+            + "function check() {"
+            + "  var found = __first(els, clickable);"
+            + "  if (typeof found === 'number') { finish(found); return; }"
+            // Elementos ausentes ou removidos: devolve ao Java para localizá-los novamente, agrupando rajadas de mutações
+            + "  if (found.length > 0 && !relocateTimer) { relocateTimer = setTimeout(function() { finish(found); }, intervalMs); }"
+            + "}"
+            + "observer = new MutationObserver(check);"
+            + "observer.observe(document.documentElement, {attributes: true, childList: true, subtree: true});"
+            + "interval = setInterval(check, intervalMs);"
+            + "timer = setTimeout(function() { finish(-1); }, sliceMs);"
+            + "check();";
+
+    private static final AtomicLong totalWaits = new AtomicLong();
+    private static final AtomicLong totalNanos = new AtomicLong();
+    private static final AtomicLong totalRoundTrips = new AtomicLong();
+    private static final AtomicLong[] outcomes = {new AtomicLong(), new AtomicLong(), new AtomicLong(), new AtomicLong()};
+    // Por cenário: {esperas, nanos, idas e voltas, resolvidas no fast path}
+    private static final ThreadLocal<long[]> scenarioTotals = ThreadLocal.withInitial(() -> new long[4]);
+
+    private final WebDriver driver;
+    private final Duration defaultTimeout;
+    private final long pollIntervalMs;
+    private final long sliceMs;
+    private boolean observer;
+
+    /**
+     * Construtor do WaitEngine.
+     * @param driver A instância do WebDriver a ser usada.
+     * @param defaultTimeout O timeout das esperas sem timeout explícito.
+     */
+    WaitEngine(WebDriver driver, Duration defaultTimeout) {
+        this.driver = driver;
+        this.defaultTimeout = defaultTimeout;
+        Config config = Config.get();
+        this.pollIntervalMs = Math.max(10, config.getInt("wait.poll.interval.ms", 100));
+        this.sliceMs = Math.max(pollIntervalMs, Math.min(MAX_SLICE_MS,
+                config.getLong("wait.observe.slice.ms", TabMultiplexer.isEnabled() ? TABS_SLICE_MS : MAX_SLICE_MS)));
+        this.observer = !"polling".equalsIgnoreCase(config.getString("wait.mode", "observer"))
+                && driver instanceof JavascriptExecutor;
+    }
+
+    /**
+     * Espera até que o elemento satisfaça a condição, com o timeout padrão.
+     * @param condition A condição esperada.
+     * @param element O elemento.
+     * @throws TimeoutException se a condição não for satisfeita no tempo esperado.
+     */
+    public void until(Condition condition, WebElement element) {
+        until(condition, defaultTimeout, element);
+    }
+
+    /**
+     * Espera até que o elemento satisfaça a condição.
+     * @param condition A condição esperada.
+     * @param timeout O tempo máximo de espera.
+     * @param element O elemento.
+     * @throws TimeoutException se a condição não for satisfeita no tempo esperado.
+     */
+    public void until(Condition condition, Duration timeout, WebElement element) {
+        untilAny(condition, timeout, element);
+    }
+
+    /**
+     * Espera até que qualquer um dos elementos satisfaça a condição (ex: título de resultados ou mensagem de
+     * "nenhum resultado"), verificando todos na mesma chamada ao navegador.
+     * @param condition A condição esperada.
+     * @param timeout O tempo máximo de espera.
+     * @param elements Os elementos alternativos.
+     * @return O índice do primeiro elemento que satisfez a condição.
+     * @throws TimeoutException se nenhum elemento satisfizer a condição no tempo esperado.
+     */
+    public int untilAny(Condition condition, Duration timeout, WebElement... elements) {
+        int index = awaitAny(condition, timeout, elements);
+        if (index < 0) {
+            throw new TimeoutException("Tempo esgotado (" + timeout.toMillis() + " ms) esperando elemento "
+                    + condition.name().toLowerCase(Locale.ROOT) + ": " + Arrays.toString(elements));
+        }
+        return index;
+    }
+
+    /**
+     * Verifica se o elemento satisfaz a condição dentro do timeout, sem lançar exceção.
+     * @param condition A condição esperada.
+     * @param timeout O tempo máximo de espera.
+     * @param element O elemento.
+     * @return true se a condição foi satisfeita, false caso contrário.
+     */
+    public boolean await(Condition condition, Duration timeout, WebElement element) {
+        return awaitAny(condition, timeout, element) >= 0;
+    }
+
+    /**
+     * Espera até que qualquer um dos elementos satisfaça a condição, sem lançar exceção.
+     * @param condition A condição esperada.
+     * @param timeout O tempo máximo de espera.
+     * @param elements Os elementos alternativos.
+     * @return O índice do primeiro elemento que satisfez a condição, ou -1 se o tempo esgotou.
+     */
+    public int awaitAny(Condition condition, Duration timeout, WebElement... elements) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        Outcome outcome = Outcome.TIMEOUT;
+        int roundTrips = 0;
+        try {
+            boolean fastPath = true;
+            while (true) {
+                List<WebElement> resolved = resolve(elements);
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                boolean observing = observer && !fastPath && remainingMs > 0;
+                Object result = null;
+                try {
+                    roundTrips++;
+                    result = observing
+                            ? js.executeAsyncScript(OBSERVE_SCRIPT, condition.name(), resolved, Math.min(remainingMs, sliceMs), pollIntervalMs)
+                            : js.executeScript(CHECK_SCRIPT, condition.name(), resolved);
+                } catch (StaleElementReferenceException e) {
+                    invalidate(elements, null); // Elemento removido do DOM entre a localização e o script
+                } catch (ScriptTimeoutException e) {
+                    // Fim da fatia de espera no navegador: verifica o prazo e continua
+                } catch (JavascriptException | UnsupportedCommandException e) {
+                    if (!observing) {
+                        throw e;
+                    }
+                    System.err.println("AVISO: Espera por MutationObserver indisponível (" + e.getMessage().split("\n")[0]
+                            + "). Usando sondagem a cada " + pollIntervalMs + " ms.");
+                    observer = false;
+                }
+                if (result instanceof Number && ((Number) result).intValue() >= 0) {
+                    outcome = fastPath ? Outcome.FAST_PATH : (observing ? Outcome.OBSERVER : Outcome.POLLING);
+                    return ((Number) result).intValue();
+                }
+                if (result instanceof List) {
+                    invalidate(elements, (List<?>) result);
+                }
+                if (System.nanoTime() >= deadline) {
+                    return -1;
+                }
+                if (!observer) {
+                    sleep(Math.min(pollIntervalMs, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+                }
+                fastPath = false;
+            }
+        } finally {
+            record(condition, outcome, System.nanoTime() - start, roundTrips);
+        }
+    }
+
+    /**
+     * Obtém os elementos a enviar ao navegador: elementos ainda não encontrados vão como null
+     * (o script os ignora e pede uma nova localização após mudanças no DOM).
+     */
+    private static List<WebElement> resolve(WebElement[] elements) {
+        List<WebElement> resolved = new ArrayList<>(elements.length);
+        for (WebElement element : elements) {
+            try {
+                resolved.add(element instanceof WrapsElement ? ((WrapsElement) element).getWrappedElement() : element);
+            } catch (NoSuchElementException | StaleElementReferenceException | IndexOutOfBoundsException e) {
+                resolved.add(null);
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Descarta o cache dos elementos indicados pelo script (ou de todos, se indexes for null).
+     */
+    private static void invalidate(WebElement[] elements, List<?> indexes) {
+        for (int i = 0; i < elements.length; i++) {
+            if (elements[i] instanceof ElementBinder.CachedLookup && (indexes == null || indexes.contains((long) i))) {
+                ((ElementBinder.CachedLookup) elements[i]).invalidate();
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Espera interrompida.", e);
+        }
+    }
+
+    private static void record(Condition condition, Outcome outcome, long nanos, int roundTrips) {
+        totalWaits.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        totalRoundTrips.addAndGet(roundTrips);
+        outcomes[outcome.ordinal()].incrementAndGet();
+        long[] totals = scenarioTotals.get();
+        totals[0]++;
+        totals[1] += nanos;
+        totals[2] += roundTrips;
+        if (outcome == Outcome.FAST_PATH) {
+            totals[3]++;
+        }
+        LatencyRegistry.record(CATEGORY, condition.name().toLowerCase(Locale.ROOT), nanos);
+    }
+
+    /**
+     * Encerra a contagem do cenário da thread atual.
+     * @return O resumo das esperas do cenário, ou null se nenhuma espera foi feita.
+     */
+    public static String finishScenario() {
+        long[] totals = scenarioTotals.get();
+        scenarioTotals.remove();
+        if (totals[0] == 0) {
+            return null;
+        }
+        return "ESPERAS: " + totals[0] + " espera(s) | " + TimeUnit.NANOSECONDS.toMillis(totals[1]) + " ms esperando | "
+                + totals[2] + " chamada(s) ao navegador | " + totals[3] + " resolvida(s) na primeira verificação";
+    }
+
+    /**
+     * Imprime o total de esperas da execução, o tempo gasto e como foram resolvidas.
+     */
+    public static void printStats() {
+        long waits = totalWaits.get();
+        if (waits == 0) {
+            return;
+        }
+        System.out.println("ESPERAS - MÉTRICAS: " + waits + " esperas | " + TimeUnit.NANOSECONDS.toMillis(totalNanos.get())
+                + " ms esperando | média " + String.format(Locale.ROOT, "%.1f", (double) totalRoundTrips.get() / waits)
+                + " chamadas ao navegador por espera");
+        System.out.println("  primeira verificação: " + outcomes[Outcome.FAST_PATH.ordinal()].get()
+                + " | MutationObserver: " + outcomes[Outcome.OBSERVER.ordinal()].get()
+                + " | sondagem: " + outcomes[Outcome.POLLING.ordinal()].get()
+                + " | tempo esgotado: " + outcomes[Outcome.TIMEOUT.ordinal()].get());
+    }
+}
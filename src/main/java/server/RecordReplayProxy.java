@@ -0,0 +1,461 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Proxy local de gravação e reprodução (record/replay) das respostas da Amazon e da Magazine Luiza.
+ * Cada site recebe uma porta local própria que encaminha para a origem real; amazon.url e magalu.url
+ * são apontadas para essas portas, de modo que os navegadores do pool passam a navegar através do proxy.
+ *
+ * - record: encaminha cada requisição para o site real e grava a resposta no arquivo {@link ResponseArchive}.
+ * - replay: responde somente a partir do arquivo mapeado em memória (requisição não gravada = 404).
+ *
+ * O proxy não é um proxy HTTP do navegador: somente as requisições às duas origens (amazon.url e magalu.url) passam
+ * por ele. URLs absolutas dessas origens nos corpos de texto (HTML, CSS, JavaScript, JSON) e nos redirecionamentos
+ * são reescritas para as portas locais ao servir cada resposta, para que links e recursos do próprio site também
+ * passem pelo proxy. Requisições a outros hosts (ex: imagens, scripts e CSS em CDNs como m.media-amazon.com) não são
+ * gravadas nem reproduzidas: vão direto para a rede, também no replay. O replay só é offline e determinístico para os
+ * documentos e recursos servidos pelas duas origens.
+ *
+ * As chaves das requisições ignoram parâmetros voláteis (ex: ref_=, qid=, crid=) e segmentos de caminho "ref=..." da Amazon,
+ * para que a mesma navegação encontre a resposta gravada mesmo com parâmetros de rastreamento diferentes.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - proxy.mode: off (padrão), record ou replay.
+ * - proxy.archive: caminho do arquivo de gravação (padrão recordings/storefront.rra).
+ * - proxy.ignore.params: parâmetros de query ignorados na chave (lista separada por vírgula; "prefixo*" é aceito).
+ */
+public class RecordReplayProxy {
+
+    public enum Mode { OFF, RECORD, REPLAY }
+
+    private static final Set<String> REQUEST_HEADERS_TO_DROP = new HashSet<>(Arrays.asList(
+            "host", "connection", "content-length", "date", "expect", "from", "upgrade", "via", "warning", "keep-alive",
+            "proxy-connection", "te", "trailer", "transfer-encoding", "accept-encoding", "referer", "origin"));
+    private static final Set<String> RESPONSE_HEADERS_TO_DROP = new HashSet<>(Arrays.asList(
+            "connection", "content-length", "transfer-encoding", "keep-alive", "strict-transport-security",
+            "content-security-policy", "content-security-policy-report-only", "alt-svc"));
+
+    private static RecordReplayProxy shared;
+
+    private final Mode mode;
+    private final Path archiveFile;
+    private final Set<String> ignoredParams;
+    private final List<String> ignoredPrefixes;
+    private final Map<String, HttpServer> servers = new LinkedHashMap<>();
+    private final Map<String, URI> origins = new LinkedHashMap<>();
+    private final List<String[]> urlRewrites = new ArrayList<>(); // URL da origem -> URL local
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Map<String, ResponseArchive.Entry> replayIndex;
+    private final ResponseArchive.Writer recorder;
+    private final Set<String> recordedKeys = ConcurrentHashMap.newKeySet();
+
+    // Métricas
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong recorded = new AtomicLong();
+
+    /**
+     * Construtor do RecordReplayProxy. O proxy só atende requisições após {@link #start()}.
+     * @param mode O modo de operação (RECORD ou REPLAY).
+     * @param archiveFile O arquivo de gravação.
+     * @param siteOrigins Mapa nome do site -> URL de origem (ex: "amazon" -> "https://www.amazon.com.br/").
+     * @param ignoredParams Parâmetros de query ignorados na chave (aceita "prefixo*").
+     * @throws IOException se não for possível abrir o arquivo ou as portas.
+     */
+    public RecordReplayProxy(Mode mode, Path archiveFile, Map<String, String> siteOrigins, List<String> ignoredParams) throws IOException {
+        if (mode == Mode.OFF) {
+            throw new IllegalArgumentException("O proxy não pode ser criado no modo OFF.");
+        }
+        this.mode = mode;
+        this.archiveFile = archiveFile;
+        this.ignoredParams = ignoredParams.stream().filter(p -> !p.endsWith("*")).collect(Collectors.toSet());
+        this.ignoredPrefixes = ignoredParams.stream().filter(p -> p.endsWith("*"))
+                .map(p -> p.substring(0, p.length() - 1)).collect(Collectors.toList());
+        this.executor = Executors.newFixedThreadPool(Math.max(8, Runtime.getRuntime().availableProcessors() * 2));
+
+        if (mode == Mode.REPLAY) {
+            if (!Files.exists(archiveFile)) {
+                throw new IOException("Arquivo de gravação não encontrado para replay: " + archiveFile.toAbsolutePath()
+                        + ". Execute antes com -Dproxy.mode=record.");
+            }
+            this.replayIndex = ResponseArchive.load(archiveFile);
+            this.recorder = null;
+            this.client = null;
+        } else {
+            this.replayIndex = Collections.emptyMap();
+            this.recorder = new ResponseArchive.Writer(archiveFile);
+            this.client = HttpClient.newBuilder()
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(Duration.ofSeconds(15))
+                    .executor(executor)
+                    .build();
+        }
+
+        for (Map.Entry<String, String> site : siteOrigins.entrySet()) {
+            String name = site.getKey();
+            HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 256);
+            server.createContext("/", exchange -> handle(name, exchange));
+            server.setExecutor(executor);
+            servers.put(name, server);
+            origins.put(name, URI.create(site.getValue()));
+        }
+        for (Map.Entry<String, URI> origin : origins.entrySet()) {
+            String host = origin.getValue().getRawAuthority();
+            String local = "127.0.0.1:" + servers.get(origin.getKey()).getAddress().getPort();
+            urlRewrites.add(new String[]{"https://" + host, "http://" + local});
+            urlRewrites.add(new String[]{"http://" + host, "http://" + local});
+            urlRewrites.add(new String[]{"https:\\/\\/" + host, "http:\\/\\/" + local}); // URLs escapadas em JSON
+            urlRewrites.add(new String[]{"http:\\/\\/" + host, "http:\\/\\/" + local});
+            urlRewrites.add(new String[]{"//" + host, "//" + local}); // URLs relativas ao protocolo
+        }
+    }
+
+    /**
+     * Obtém o modo configurado do proxy (-Dproxy.mode ou config.properties).
+     * @return O modo configurado.
+     */
+    public static Mode getConfiguredMode() {
+        String value = Config.get().getString("proxy.mode", "off");
+        try {
+            return Mode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("ERRO: proxy.mode inválido ('" + value + "'). Usando 'off'.");
+            return Mode.OFF;
+        }
+    }
+
+    /**
+     * Inicia o proxy compartilhado (se proxy.mode for record ou replay) e aponta amazon.url e magalu.url para ele.
+     */
+    public static synchronized void startSharedIfEnabled() {
+        Mode mode = getConfiguredMode();
+        if (mode == Mode.OFF || shared != null) {
+            return;
+        }
+        Map<String, String> siteOrigins = new LinkedHashMap<>();
+        Config config = Config.get();
+        siteOrigins.put("amazon", config.getString("amazon.url"));
+        siteOrigins.put("magalu", config.getString("magalu.url"));
+        Path archive = Paths.get(config.getString("proxy.archive", "recordings/storefront.rra"));
+        List<String> ignored = Arrays.stream(config.getString("proxy.ignore.params", "ref_,ref,qid").split(","))
+                .map(String::trim).filter(p -> !p.isEmpty()).collect(Collectors.toList());
+        try {
+            shared = new RecordReplayProxy(mode, archive, siteOrigins, ignored);
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o proxy de gravação/replay: " + e.getMessage(), e);
+        }
+        shared.start();
+        Config.setOverride("amazon.url", shared.getLocalUrl("amazon"));
+        Config.setOverride("magalu.url", shared.getLocalUrl("magalu"));
+        System.out.println("PROXY " + mode + " INICIADO (" + archive + "): Amazon em " + shared.getLocalUrl("amazon")
+                + " | Magalu em " + shared.getLocalUrl("magalu")
+                + (mode == Mode.REPLAY ? " | " + shared.replayIndex.size() + " respostas gravadas" : ""));
+    }
+
+    /**
+     * Encerra o proxy compartilhado (se iniciado), imprime as métricas e remove as URLs sobrescritas.
+     */
+    public static synchronized void stopShared() {
+        if (shared == null) {
+            return;
+        }
+        shared.printStats();
+        shared.stop();
+        shared = null;
+        Config.clearOverride("amazon.url");
+        Config.clearOverride("magalu.url");
+    }
+
+    /**
+     * Inicia os servidores locais de todos os sites.
+     */
+    public void start() {
+        servers.values().forEach(HttpServer::start);
+    }
+
+    /**
+     * Encerra os servidores locais e fecha o arquivo de gravação.
+     */
+    public void stop() {
+        servers.values().forEach(server -> server.stop(0));
+        executor.shutdownNow();
+        if (recorder != null) {
+            try {
+                recorder.close();
+            } catch (IOException e) {
+                System.err.println("ERRO AO FECHAR ARQUIVO DE GRAVAÇÃO: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param site O nome do site (ex: "amazon").
+     * @return A URL local do proxy para o site (ex: http://127.0.0.1:54321/).
+     */
+    public String getLocalUrl(String site) {
+        return "http://127.0.0.1:" + servers.get(site).getAddress().getPort() + "/";
+    }
+
+    /**
+     * Imprime as métricas do proxy: taxa de acerto do cache e bytes servidos.
+     */
+    public void printStats() {
+        long total = hits.get() + misses.get();
+        double hitRatio = total == 0 ? 0 : (hits.get() * 100.0) / total;
+        System.out.println("PROXY " + mode + " - MÉTRICAS (" + archiveFile + "):");
+        System.out.println("  Requisições: " + total + " | Acertos: " + hits.get() + " | Falhas: " + misses.get()
+                + String.format(" | Taxa de acerto: %.1f%%", hitRatio));
+        System.out.println("  Bytes servidos: " + bytesServed.get() + (mode == Mode.RECORD ? " | Respostas gravadas: " + recorded.get() : ""));
+    }
+
+    /**
+     * Monta a chave normalizada de uma requisição, ignorando parâmetros voláteis.
+     * Ex: GET /dp/B0XYZ/ref=sr_1_1?k=kindle&qid=123&ref_=nav -> "amazon GET /dp/B0XYZ?k=kindle"
+     * @param site O nome do site.
+     * @param method O método HTTP.
+     * @param uri A URI da requisição (caminho e query).
+     * @return A chave normalizada.
+     */
+    public String requestKey(String site, String method, URI uri) {
+        StringBuilder key = new StringBuilder(site).append(' ').append(method).append(' ');
+        String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+        String normalizedPath = Arrays.stream(path.split("/", -1))
+                .filter(segment -> !segment.startsWith("ref="))
+                .collect(Collectors.joining("/"));
+        key.append(normalizedPath.isEmpty() ? "/" : normalizedPath);
+
+        String query = uri.getRawQuery();
+        if (query != null && !query.isEmpty()) {
+            String normalizedQuery = Arrays.stream(query.split("&"))
+                    .filter(pair -> !pair.isEmpty() && !isIgnoredParam(pair.split("=", 2)[0]))
+                    .sorted()
+                    .collect(Collectors.joining("&"));
+            if (!normalizedQuery.isEmpty()) {
+                key.append('?').append(normalizedQuery);
+            }
+        }
+        return key.toString();
+    }
+
+    private boolean isIgnoredParam(String name) {
+        if (ignoredParams.contains(name)) {
+            return true;
+        }
+        for (String prefix : ignoredPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void handle(String site, HttpExchange exchange) throws IOException {
+        try {
+            String key = requestKey(site, exchange.getRequestMethod(), exchange.getRequestURI());
+            if (mode == Mode.REPLAY) {
+                replay(key, exchange);
+            } else {
+                record(site, key, exchange);
+            }
+        } catch (Exception e) {
+            System.err.println("PROXY: erro ao atender " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendBytes(exchange, 502, Collections.emptyList(), ByteBuffer.wrap(new byte[0]));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void replay(String key, HttpExchange exchange) throws IOException {
+        ResponseArchive.Entry entry = replayIndex.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            System.err.println("PROXY REPLAY: requisição não gravada: " + key);
+            byte[] body = ("Resposta não gravada: " + key).getBytes(StandardCharsets.UTF_8);
+            sendBytes(exchange, 404, Collections.singletonList(new String[]{"Content-Type", "text/plain; charset=utf-8"}), ByteBuffer.wrap(body));
+            return;
+        }
+        hits.incrementAndGet();
+        serve(exchange, entry.getStatus(), entry.getHeaders(), entry.getBody(), entry.isGzipped());
+    }
+
+    private void record(String site, String key, HttpExchange exchange) throws IOException, InterruptedException {
+        misses.incrementAndGet(); // No modo record toda requisição vai até a origem
+        URI origin = origins.get(site);
+        URI target = origin.resolve(exchange.getRequestURI().getRawPath()
+                + (exchange.getRequestURI().getRawQuery() != null ? "?" + exchange.getRequestURI().getRawQuery() : ""));
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(target).timeout(Duration.ofSeconds(60));
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!REQUEST_HEADERS_TO_DROP.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                for (String value : header.getValue()) {
+                    request.header(header.getKey(), value);
+                }
+            }
+        }
+        request.header("Accept-Encoding", "gzip");
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        request.method(exchange.getRequestMethod(), requestBody.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        List<String[]> headers = new ArrayList<>();
+        String contentEncoding = null;
+        boolean textual = false;
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (RESPONSE_HEADERS_TO_DROP.contains(name) || name.startsWith(":")) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                if ("set-cookie".equals(name)) {
+                    // Remove Domain/Secure para que o cookie seja aceito em http://127.0.0.1
+                    value = value.replaceAll("(?i);\\s*domain=[^;]*", "").replaceAll("(?i);\\s*secure", "");
+                } else if ("content-encoding".equals(name)) {
+                    contentEncoding = value.trim().toLowerCase(Locale.ROOT);
+                } else if ("content-type".equals(name)) {
+                    textual = isTextual(value);
+                }
+                headers.add(new String[]{header.getKey(), value});
+            }
+        }
+
+        byte[] body = response.body();
+        if (textual && "gzip".equals(contentEncoding)) {
+            // Corpos de texto são gravados descompactados (o arquivo os compacta), para que as URLs sejam reescritas
+            body = gunzip(body);
+            headers.removeIf(header -> "content-encoding".equalsIgnoreCase(header[0]));
+            contentEncoding = null;
+        }
+        // As URLs da origem são gravadas como recebidas: as portas locais mudam a cada execução
+        if (recordedKeys.add(key)) {
+            recorder.append(key, response.statusCode(), headers, body, textual && contentEncoding == null);
+            recorded.incrementAndGet();
+        }
+        serve(exchange, response.statusCode(), headers, ByteBuffer.wrap(body), false);
+    }
+
+    /**
+     * Envia uma resposta gravada (ou recebida da origem), reescrevendo para as portas locais as URLs absolutas das
+     * origens nos redirecionamentos e nos corpos de texto não compactados pela origem.
+     * @param gzipped true se o corpo foi compactado pelo arquivo de gravação.
+     */
+    private void serve(HttpExchange exchange, int status, List<String[]> headers, ByteBuffer body, boolean gzipped) throws IOException {
+        List<String[]> localized = new ArrayList<>();
+        boolean encodedByOrigin = false;
+        boolean textual = false;
+        for (String[] header : headers) {
+            String name = header[0].toLowerCase(Locale.ROOT);
+            if ("location".equals(name)) {
+                localized.add(new String[]{header[0], localizeUrls(header[1])});
+                continue;
+            }
+            if ("content-encoding".equals(name)) {
+                encodedByOrigin = true;
+            } else if ("content-type".equals(name)) {
+                textual = isTextual(header[1]);
+            }
+            localized.add(header);
+        }
+        if (!textual || encodedByOrigin) {
+            if (gzipped) {
+                localized.add(new String[]{"Content-Encoding", "gzip"});
+            }
+            sendBytes(exchange, status, localized, body);
+            return;
+        }
+        byte[] bytes = new byte[body.remaining()];
+        body.get(bytes);
+        if (gzipped) {
+            bytes = gunzip(bytes);
+        }
+        // ISO-8859-1 preserva os bytes de qualquer codificação; os hosts substituídos são ASCII
+        String text = localizeUrls(new String(bytes, StandardCharsets.ISO_8859_1));
+        sendBytes(exchange, status, localized, ByteBuffer.wrap(text.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+    /**
+     * Substitui as URLs absolutas das origens (https://, http://, escapadas em JSON e relativas ao protocolo)
+     * pelas URLs locais do proxy.
+     * @param text O texto (corpo ou valor de header).
+     * @return O texto com as URLs das origens apontando para o proxy.
+     */
+    private String localizeUrls(String text) {
+        String localized = text;
+        for (String[] rewrite : urlRewrites) {
+            localized = localized.replace(rewrite[0], rewrite[1]);
+        }
+        return localized;
+    }
+
+    private static boolean isTextual(String contentType) {
+        return contentType.startsWith("text/") || contentType.contains("json") || contentType.contains("javascript") || contentType.contains("xml");
+    }
+
+    private static byte[] gunzip(byte[] body) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void sendBytes(HttpExchange exchange, int status, List<String[]> headers, ByteBuffer body) throws IOException {
+        for (String[] header : headers) {
+            exchange.getResponseHeaders().add(header[0], header[1]);
+        }
+        int length = body.remaining();
+        boolean noBody = "HEAD".equalsIgnoreCase(exchange.getRequestMethod()) || status == 204 || status == 304 || length == 0;
+        exchange.sendResponseHeaders(status, noBody ? -1 : length);
+        if (noBody) {
+            return;
+        }
+        try (OutputStream out = exchange.getResponseBody()) {
+            byte[] chunk = new byte[Math.min(length, 64 * 1024)];
+            while (body.hasRemaining()) {
+                int size = Math.min(chunk.length, body.remaining());
+                body.get(chunk, 0, size);
+                out.write(chunk, 0, size);
+            }
+        }
+        bytesServed.addAndGet(length);
+    }
+}
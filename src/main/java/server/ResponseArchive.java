@@ -0,0 +1,211 @@
+package server;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Arquivo compacto de respostas HTTP gravadas pelo {@link RecordReplayProxy}.
+ *
+ * Formato (append-only, big-endian):
+ * cabeçalho "RRA1", seguido de registros [int tamChave][chave UTF-8][int status][int tamHeaders][headers UTF-8]
+ * [byte flags][int tamCorpo][corpo]. Os headers são gravados como linhas "nome: valor".
+ * Corpos de texto são gravados em gzip (flag GZIP), com as URLs da origem como recebidas; os demais corpos são
+ * servidos já compactados ao navegador, e os de texto são descompactados para reescrever as URLs para o proxy.
+ *
+ * No modo replay o arquivo inteiro é mapeado em memória (memory-mapped) e apenas um índice chave -> posição
+ * é mantido no heap; os corpos são lidos diretamente do mapeamento.
+ */
+public class ResponseArchive {
+
+    static final byte FLAG_GZIP = 1;
+    private static final byte[] MAGIC = "RRA1".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Uma resposta gravada. O corpo é uma fatia somente-leitura do arquivo mapeado.
+     */
+    public static class Entry {
+        private final int status;
+        private final List<String[]> headers;
+        private final boolean gzipped;
+        private final ByteBuffer body;
+
+        Entry(int status, List<String[]> headers, boolean gzipped, ByteBuffer body) {
+            this.status = status;
+            this.headers = headers;
+            this.gzipped = gzipped;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public List<String[]> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * @return true se o corpo foi compactado pelo arquivo (e deve ser servido com Content-Encoding: gzip).
+         */
+        public boolean isGzipped() {
+            return gzipped;
+        }
+
+        /**
+         * @return Uma cópia independente (posição/limite) da fatia do corpo no arquivo mapeado.
+         */
+        public ByteBuffer getBody() {
+            return body.duplicate();
+        }
+    }
+
+    private ResponseArchive() {
+    }
+
+    // ---------------------------------------------------------------- Gravação
+
+    /**
+     * Gravador append-only do arquivo. Seguro para uso por várias threads.
+     */
+    public static class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+
+        /**
+         * Abre (ou cria) o arquivo para gravação, adicionando ao final se já existir.
+         * @param file O caminho do arquivo.
+         * @throws IOException se não for possível abrir o arquivo.
+         */
+        public Writer(Path file) throws IOException {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            boolean isNew = !Files.exists(file) || Files.size(file) == 0;
+            this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true), 64 * 1024));
+            if (isNew) {
+                out.write(MAGIC);
+                out.flush();
+            }
+        }
+
+        /**
+         * Grava uma resposta no arquivo.
+         * @param key A chave normalizada da requisição.
+         * @param status O status HTTP.
+         * @param headers Os headers da resposta (nome, valor).
+         * @param body O corpo da resposta, exatamente como recebido da origem.
+         * @param compress true para compactar o corpo com gzip (somente se a origem não o compactou).
+         */
+        public synchronized void append(String key, int status, List<String[]> headers, byte[] body, boolean compress) throws IOException {
+            byte flags = 0;
+            byte[] storedBody = body;
+            if (compress && body.length > 512) {
+                storedBody = gzip(body);
+                flags = FLAG_GZIP;
+            }
+            StringBuilder headerText = new StringBuilder();
+            for (String[] header : headers) {
+                headerText.append(header[0]).append(": ").append(header[1]).append('\n');
+            }
+            writeBytes(key.getBytes(StandardCharsets.UTF_8));
+            out.writeInt(status);
+            writeBytes(headerText.toString().getBytes(StandardCharsets.UTF_8));
+            out.writeByte(flags);
+            writeBytes(storedBody);
+            out.flush();
+        }
+
+        private void writeBytes(byte[] bytes) throws IOException {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    // ---------------------------------------------------------------- Leitura (replay)
+
+    /**
+     * Mapeia o arquivo em memória e monta o índice chave -> resposta.
+     * Se a mesma chave foi gravada mais de uma vez, prevalece a gravação mais recente.
+     * @param file O caminho do arquivo.
+     * @return O índice das respostas gravadas.
+     * @throws IOException se o arquivo não existir ou estiver corrompido.
+     */
+    public static Map<String, Entry> load(Path file) throws IOException {
+        Map<String, Entry> index = new HashMap<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo de gravação maior que 2 GB não é suportado: " + file);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            byte[] magic = new byte[MAGIC.length];
+            mapped.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException("Arquivo de gravação inválido (cabeçalho desconhecido): " + file);
+            }
+            while (mapped.remaining() > 0) {
+                try {
+                    String key = new String(readBytes(mapped), StandardCharsets.UTF_8);
+                    int status = mapped.getInt();
+                    String headerText = new String(readBytes(mapped), StandardCharsets.UTF_8);
+                    boolean gzipped = (mapped.get() & FLAG_GZIP) != 0;
+                    int bodyLength = mapped.getInt();
+                    ByteBuffer body = mapped.slice();
+                    body.limit(bodyLength);
+                    mapped.position(mapped.position() + bodyLength);
+                    index.put(key, new Entry(status, parseHeaders(headerText), gzipped, body.asReadOnlyBuffer()));
+                } catch (BufferUnderflowException | IllegalArgumentException e) {
+                    // Último registro incompleto (ex: gravação interrompida): mantém os registros válidos anteriores
+                    System.err.println("AVISO: Registro incompleto no final de " + file + ". Ignorando o restante do arquivo.");
+                    break;
+                }
+            }
+        }
+        return index;
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    private static List<String[]> parseHeaders(String headerText) {
+        List<String[]> headers = new ArrayList<>();
+        for (String line : headerText.split("\n")) {
+            int colon = line.indexOf(": ");
+            if (colon > 0) {
+                headers.add(new String[]{line.substring(0, colon), line.substring(colon + 2)});
+            }
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,176 @@
+package server;
+
+/**
+ * Gera o HTML das páginas do servidor local (stand-in) da Amazon e da Magazine Luiza.
+ * Cada página reproduz apenas o contrato de DOM usado pelas Page Objects
+ * (ids, data-testid, classes e estrutura dos XPaths), sem imagens, scripts de terceiros ou CSS pesado.
+ */
+public class StorefrontPages {
+
+    private StorefrontPages() {
+    }
+
+    // ---------------------------------------------------------------- Amazon
+
+    /**
+     * Home da Amazon: campo de busca, botão de busca, banner de cookies e link "Ofertas do Dia".
+     */
+    public static String amazonHome() {
+        return page("Amazon.com.br (local)",
+                "<div id=\"sp-cc\"><span>Aceitar cookies?</span>"
+                        + "<button id=\"sp-cc-accept\" onclick=\"document.getElementById('sp-cc').style.display='none'\">Aceitar</button></div>"
+                        + "<form action=\"/s\" method=\"get\">"
+                        + "<input id=\"twotabsearchtextbox\" name=\"k\" type=\"text\" autocomplete=\"off\">"
+                        + "<input id=\"nav-search-submit-button\" type=\"submit\" value=\"Ir\">"
+                        + "</form>"
+                        + "<div id=\"nav-xshop\"><a href=\"/deals?ref_=nav_cs_gb\">Ofertas do Dia</a></div>");
+    }
+
+    /**
+     * Página de resultados da Amazon com a quantidade de cards informada.
+     * @param term O termo buscado.
+     * @param size A quantidade de cards a gerar.
+     */
+    public static String amazonResults(String term, int size) {
+        String safeTerm = escape(term);
+        StringBuilder body = new StringBuilder(256 + size * 320);
+        body.append("<div class=\"s-breadcrumb\"><span>1-").append(size).append(" resultados para </span>")
+                .append("<span class=\"a-color-state a-text-bold\">\"").append(safeTerm).append("\"</span></div>")
+                .append("<h2>Resultados</h2>")
+                .append("<div class=\"s-main-slot\">");
+        for (int i = 1; i <= size; i++) {
+            body.append("<div data-cel-widget=\"search_result_").append(i).append("\" data-component-type=\"s-search-result\">")
+                    .append("<h2><a href=\"/dp/LOCAL").append(i).append("?ref_=sr_1_").append(i).append("\">")
+                    .append("<span>").append(safeTerm).append(" - Produto de teste ").append(i).append("</span></a></h2>")
+                    .append("<span class=\"a-price\"><span class=\"a-offscreen\">").append(price(i)).append("</span>")
+                    .append("<span aria-hidden=\"true\">").append(price(i)).append("</span></span>")
+                    .append("</div>");
+        }
+        body.append("</div>");
+        return page(safeTerm + " | Amazon.com.br (local)", body.toString());
+    }
+
+    /**
+     * Página de "nenhum resultado" da Amazon.
+     * @param term O termo buscado.
+     */
+    public static String amazonNoResults(String term) {
+        return page("Amazon.com.br (local)",
+                "<div class=\"s-no-outline\"><span>Nenhum resultado para </span><span>" + escape(term) + "</span></div>");
+    }
+
+    /**
+     * Página "Ofertas do Dia" da Amazon, respeitando a estrutura do XPath
+     * //*[@id="DealsGridScrollAnchor"]/div[3]/div/div/div[2]/div[1]/div/div usado nos steps.
+     * @param size A quantidade de ofertas a gerar.
+     */
+    public static String amazonDeals(int size) {
+        StringBuilder deals = new StringBuilder();
+        for (int i = 1; i <= size; i++) {
+            deals.append("<div><div class=\"deal\">Oferta ").append(i).append(" - ").append(price(i)).append("</div></div>");
+        }
+        return page("Ofertas do Dia | Amazon.com.br (local)",
+                "<h1>Ofertas e Promoções</h1>"
+                        + "<div id=\"DealsGridScrollAnchor\">"
+                        + "<div></div><div></div>"
+                        + "<div><div><div><div></div><div><div>" + deals + "</div></div></div></div></div>"
+                        + "</div>");
+    }
+
+    // ---------------------------------------------------------------- Magazine Luiza
+
+    /**
+     * Home da Magazine Luiza: campo de busca, botão de busca e link "Ofertas do Dia".
+     * A busca redireciona para /busca/{termo}/, como no site real.
+     */
+    public static String magaluHome() {
+        return page("Magazine Luiza (local)",
+                "<form id=\"search-form\" onsubmit=\"location.href='/busca/'+encodeURIComponent(document.getElementById('input-search').value)+'/';return false;\">"
+                        + "<input id=\"input-search\" type=\"search\" autocomplete=\"off\">"
+                        + "<button data-testid=\"search-submit\" type=\"submit\">Buscar</button>"
+                        + "</form>"
+                        + "<nav><a data-testid=\"link\" href=\"/selecao/ofertasdodia/\">Ofertas do Dia</a></nav>");
+    }
+
+    /**
+     * Página de resultados da Magazine Luiza com a quantidade de cards informada.
+     * @param term O termo buscado.
+     * @param size A quantidade de cards a gerar.
+     */
+    public static String magaluResults(String term, int size) {
+        String safeTerm = escape(term);
+        return page(safeTerm + " | Magazine Luiza (local)",
+                "<span data-testid=\"main-title\" title=\"Resultados para \">Resultados para </span>"
+                        + "<span data-testid=\"search-term\">" + safeTerm + "</span>"
+                        + magaluCards(safeTerm, size));
+    }
+
+    /**
+     * Página de "nenhum resultado" da Magazine Luiza.
+     * @param term O termo buscado.
+     */
+    public static String magaluNoResults(String term) {
+        return page("Magazine Luiza (local)",
+                "<h1 data-testid=\"text-list-title\">Sua busca por \"" + escape(term) + "\" não encontrou resultado algum :(</h1>");
+    }
+
+    /**
+     * Página "Ofertas do Dia" da Magazine Luiza (título "Aproveite!" e lista de produtos).
+     * @param size A quantidade de ofertas a gerar.
+     */
+    public static String magaluDeals(int size) {
+        return page("Ofertas do Dia | Magazine Luiza (local)",
+                "<h1 data-testid=\"main-title\" title=\"Aproveite!\">Aproveite!</h1>"
+                        + "<span data-testid=\"main-title\" title=\"Resultados para \">Resultados para </span>"
+                        + magaluCards("Oferta do dia", size));
+    }
+
+    private static String magaluCards(String safeTitle, int size) {
+        StringBuilder cards = new StringBuilder(64 + size * 300);
+        cards.append("<ul data-testid=\"product-list\">");
+        for (int i = 1; i <= size; i++) {
+            cards.append("<li><a data-testid=\"product-card-container\" href=\"/produto-de-teste-").append(i).append("/p/LOCAL").append(i).append("/\">")
+                    .append("<div data-testid=\"product-card-content\">")
+                    .append("<h2 data-testid=\"product-title\">").append(safeTitle).append(" - Produto de teste ").append(i).append("</h2>")
+                    .append("<p data-testid=\"price-value\">").append(price(i)).append("</p>")
+                    .append("</div></a></li>");
+        }
+        cards.append("</ul>");
+        return cards.toString();
+    }
+
+    // ---------------------------------------------------------------- Utilitários
+
+    /**
+     * Página genérica para status de erro (ex: 404).
+     */
+    public static String notFound(String path) {
+        return page("Página não encontrada", "<h1>404</h1><p>" + escape(path) + "</p>");
+    }
+
+    private static String page(String title, String body) {
+        return "<!DOCTYPE html><html lang=\"pt-BR\"><head><meta charset=\"utf-8\"><title>" + title + "</title></head><body>"
+                + body + "</body></html>";
+    }
+
+    private static String price(int i) {
+        int cents = 9990 + (i * 1337) % 500000;
+        return String.format("R$ %d,%02d", cents / 100, cents % 100);
+    }
+
+    private static String escape(String text) {
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<': out.append("&lt;"); break;
+                case '>': out.append("&gt;"); break;
+                case '&': out.append("&amp;"); break;
+                case '"': out.append("&quot;"); break;
+                case '\'': out.append("&#39;"); break;
+                default: out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,229 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Servidor HTTP local que substitui a Amazon e a Magazine Luiza durante os testes (-Dtarget=local).
+ * Cada site roda em sua própria porta para que os links absolutos das páginas (ex: /deals, /selecao/ofertasdodia/)
+ * funcionem exatamente como no site real.
+ *
+ * Rotas Amazon: /, /s?k={termo}[&n={qtd}], /deals
+ * Rotas Magalu: /, /busca/{termo}/[?n={qtd}], /selecao/ofertasdodia/
+ *
+ * Propriedades (sistema ou config.properties):
+ * - target: "live" (padrão) ou "local".
+ * - local.results.size: quantidade de cards por página de resultados (10 a 10.000, padrão 60).
+ * - local.noresults.pattern: regex dos termos que retornam "nenhum resultado" (padrão (?i).*inexistente.*).
+ * - local.amazon.port / local.magalu.port: portas fixas (padrão 0 = porta livre qualquer).
+ */
+public class StorefrontServer {
+
+    public static final int MIN_RESULTS = 10;
+    public static final int MAX_RESULTS = 10_000;
+
+    private static StorefrontServer shared;
+
+    private final HttpServer amazonServer;
+    private final HttpServer magaluServer;
+    private final ExecutorService executor;
+    private final int resultsSize;
+    private final Pattern noResultsPattern;
+    private final AtomicLong requests = new AtomicLong();
+
+    /**
+     * Construtor do StorefrontServer. O servidor só atende requisições após {@link #start()}.
+     * @param amazonPort Porta da Amazon local (0 para escolher uma porta livre).
+     * @param magaluPort Porta da Magalu local (0 para escolher uma porta livre).
+     * @param resultsSize Quantidade padrão de cards por página de resultados.
+     * @param noResultsRegex Regex dos termos que retornam "nenhum resultado".
+     * @throws IOException se não for possível abrir as portas.
+     */
+    public StorefrontServer(int amazonPort, int magaluPort, int resultsSize, String noResultsRegex) throws IOException {
+        this.resultsSize = clampResults(resultsSize);
+        this.noResultsPattern = Pattern.compile(noResultsRegex);
+        this.executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.amazonServer = HttpServer.create(new InetSocketAddress("127.0.0.1", amazonPort), 128);
+        this.magaluServer = HttpServer.create(new InetSocketAddress("127.0.0.1", magaluPort), 128);
+        amazonServer.createContext("/", this::handleAmazon);
+        magaluServer.createContext("/", this::handleMagalu);
+        amazonServer.setExecutor(executor);
+        magaluServer.setExecutor(executor);
+    }
+
+    /**
+     * Verifica se a execução deve usar o servidor local (-Dtarget=local).
+     * @return true se o alvo configurado for "local".
+     */
+    public static boolean isLocalTarget() {
+        return "local".equals(Config.get().getTarget());
+    }
+
+    /**
+     * Inicia o servidor compartilhado da execução e aponta amazon.url e magalu.url para ele.
+     * @return O servidor iniciado.
+     */
+    public static synchronized StorefrontServer startShared() {
+        if (shared != null) {
+            return shared;
+        }
+        try {
+            Config config = Config.get();
+            shared = new StorefrontServer(
+                    config.getInt("local.amazon.port", 0),
+                    config.getInt("local.magalu.port", 0),
+                    config.getInt("local.results.size", 60),
+                    config.getString("local.noresults.pattern", "(?i).*inexistente.*"));
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível iniciar o servidor local de lojas: " + e.getMessage(), e);
+        }
+        shared.start();
+        Config.setOverride("amazon.url", shared.getAmazonUrl());
+        Config.setOverride("magalu.url", shared.getMagaluUrl());
+        System.out.println("SERVIDOR LOCAL INICIADO: Amazon em " + shared.getAmazonUrl() + " | Magalu em " + shared.getMagaluUrl()
+                + " | " + shared.resultsSize + " resultados por busca");
+        return shared;
+    }
+
+    /**
+     * Encerra o servidor compartilhado (se iniciado) e remove as URLs sobrescritas.
+     */
+    public static synchronized void stopShared() {
+        if (shared == null) {
+            return;
+        }
+        System.out.println("SERVIDOR LOCAL ENCERRADO. Requisições atendidas: " + shared.requests.get());
+        shared.stop();
+        shared = null;
+        Config.clearOverride("amazon.url");
+        Config.clearOverride("magalu.url");
+    }
+
+    /**
+     * Inicia os servidores da Amazon e da Magalu.
+     */
+    public void start() {
+        amazonServer.start();
+        magaluServer.start();
+    }
+
+    /**
+     * Encerra os servidores e libera as portas.
+     */
+    public void stop() {
+        amazonServer.stop(0);
+        magaluServer.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return A URL base da Amazon local (ex: http://127.0.0.1:54321/).
+     */
+    public String getAmazonUrl() {
+        return "http://127.0.0.1:" + amazonServer.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @return A URL base da Magalu local (ex: http://127.0.0.1:54322/).
+     */
+    public String getMagaluUrl() {
+        return "http://127.0.0.1:" + magaluServer.getAddress().getPort() + "/";
+    }
+
+    private void handleAmazon(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        if ("/".equals(path)) {
+            respond(exchange, 200, StorefrontPages.amazonHome());
+        } else if ("/s".equals(path)) {
+            String term = queryParam(query, "k");
+            respond(exchange, 200, isNoResults(term)
+                    ? StorefrontPages.amazonNoResults(term)
+                    : StorefrontPages.amazonResults(term, sizeFrom(query)));
+        } else if ("/deals".equals(path)) {
+            respond(exchange, 200, StorefrontPages.amazonDeals(sizeFrom(query)));
+        } else {
+            respond(exchange, 404, StorefrontPages.notFound(path));
+        }
+    }
+
+    private void handleMagalu(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        if ("/".equals(path)) {
+            respond(exchange, 200, StorefrontPages.magaluHome());
+        } else if (path.startsWith("/busca/")) {
+            String term = path.substring("/busca/".length());
+            if (term.endsWith("/")) {
+                term = term.substring(0, term.length() - 1);
+            }
+            respond(exchange, 200, isNoResults(term)
+                    ? StorefrontPages.magaluNoResults(term)
+                    : StorefrontPages.magaluResults(term, sizeFrom(query)));
+        } else if ("/selecao/ofertasdodia/".equals(path)) {
+            respond(exchange, 200, StorefrontPages.magaluDeals(sizeFrom(query)));
+        } else {
+            respond(exchange, 404, StorefrontPages.notFound(path));
+        }
+    }
+
+    private boolean isNoResults(String term) {
+        return term.trim().isEmpty() || noResultsPattern.matcher(term).matches();
+    }
+
+    private int sizeFrom(String query) {
+        String size = queryParam(query, "n");
+        if (size.isEmpty()) {
+            return resultsSize;
+        }
+        try {
+            return clampResults(Integer.parseInt(size));
+        } catch (NumberFormatException e) {
+            return resultsSize;
+        }
+    }
+
+    private static int clampResults(int size) {
+        return Math.max(MIN_RESULTS, Math.min(MAX_RESULTS, size));
+    }
+
+    private static String queryParam(String rawQuery, String name) {
+        if (rawQuery == null) {
+            return "";
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq >= 0 ? pair.substring(0, eq) : pair;
+            if (key.equals(name)) {
+                try {
+                    return eq >= 0 ? URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8) : "";
+                } catch (IllegalArgumentException e) {
+                    return pair.substring(eq + 1);
+                }
+            }
+        }
+        return "";
+    }
+
+    private void respond(HttpExchange exchange, int status, String html) throws IOException {
+        requests.incrementAndGet();
+        byte[] body = html.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,465 @@
+package utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Retrato imutável e tipado da configuração dos testes, resolvido e validado uma única vez na inicialização e
+ * compartilhado entre as threads sem sincronização.
+ *
+ * Precedência (da maior para a menor):
+ * 1. Sobrescritas em tempo de execução ({@link #setOverride(String, String)}, ex: URLs do servidor local) e
+ *    sobrescritas da thread ({@link #setThreadOverrides(Map)}).
+ * 2. Propriedades de sistema (-Dchave=valor). Valores vazios são ignorados.
+ * 3. Variáveis de ambiente, para as chaves declaradas nos arquivos (ex: TIMEOUT_SECONDS para timeout.seconds).
+ * 4. Arquivos de perfil config-{perfil}.properties, na ordem de config.profile (ex: -Dconfig.profile=ci,load).
+ * 5. config.properties.
+ *
+ * Os valores de browser (chrome, firefox) e target (live, local) são validados: um valor fora da lista interrompe a
+ * inicialização com {@link IllegalArgumentException}, em vez de cair no navegador ou alvo padrão.
+ *
+ * Comentários no fim da linha (ex: "timeout.seconds=15 # Timeout padrão") são removidos dos valores.
+ * Chaves por site são consultadas com {@link #forSite(String)}: amazon.timeout.seconds tem prioridade sobre timeout.seconds.
+ */
+public final class Config {
+
+    private static final String CONFIG_FILE_NAME = "config.properties";
+    private static final Pattern INLINE_COMMENT = Pattern.compile("\\s+#.*$");
+    private static final Object INVALID = new Object();
+    private static final List<String> BROWSERS = Arrays.asList("chrome", "firefox");
+    private static final List<String> TARGETS = Arrays.asList("live", "local");
+
+    private static volatile Config loaded = load(); // Retrato das fontes, sem sobrescritas
+    private static volatile Map<String, String> globalOverrides = Collections.emptyMap();
+    private static volatile Config current = loaded;
+    private static final ThreadLocal<Map<String, String>> threadOverrides = new ThreadLocal<>();
+    private static final ThreadLocal<Config> threadView = new ThreadLocal<>();
+
+    private final Map<String, String> values;
+    private final Map<String, String> sources;
+    private final List<String> profiles;
+    private final Set<String> declaredKeys; // Chaves declaradas em config.properties e nos perfis
+    private final Config origin; // Retrato do qual este foi derivado (visões de thread)
+    private final Config root;   // Retrato sem site (visões de site)
+    private final String site;
+    // Valores convertidos por tipo, reaproveitados nas próximas leituras
+    private final Map<String, Object> parsedInts = new ConcurrentHashMap<>();
+    private final Map<String, Object> parsedLongs = new ConcurrentHashMap<>();
+    private final Map<String, Object> parsedBooleans = new ConcurrentHashMap<>();
+    private final Map<String, Config> siteViews = new ConcurrentHashMap<>();
+
+    // Configurações centrais, validadas na criação do retrato
+    private final String browser;
+    private final boolean headless;
+    private final int timeoutSeconds;
+    private final String target;
+    private final int threads;
+
+    private Config(Map<String, String> values, Map<String, String> sources, List<String> profiles, Set<String> declaredKeys,
+                   Config origin, Config root, String site) {
+        this.values = values;
+        this.sources = sources;
+        this.profiles = profiles;
+        this.declaredKeys = declaredKeys;
+        this.origin = origin;
+        this.root = root == null ? this : root;
+        this.site = site;
+        this.browser = choice("browser", "chrome", BROWSERS, "");
+        this.headless = getBoolean("headless", false);
+        this.timeoutSeconds = Math.max(1, getInt("timeout.seconds", 10));
+        this.target = choice("target", "live", TARGETS, " (para reproduzir respostas gravadas, use -Dproxy.mode=replay com target=live)");
+        this.threads = Math.max(1, getInt("threads", 1));
+    }
+
+    /**
+     * Lê uma propriedade que só aceita os valores da lista (em minúsculas, sem espaços nas pontas).
+     * @throws IllegalArgumentException se o valor não estiver na lista.
+     */
+    private String choice(String key, String defaultValue, List<String> allowed, String hint) {
+        String value = getString(key, defaultValue).trim().toLowerCase(Locale.ROOT);
+        if (!allowed.contains(value)) {
+            throw new IllegalArgumentException("Valor inválido para a propriedade '" + key + "': '" + getString(key) + "' ("
+                    + sources.get(key) + "). Valores aceitos: " + String.join(", ", allowed) + hint + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Obtém a configuração vista pela thread atual: o retrato global, acrescido das sobrescritas da thread (se houver).
+     * @return O retrato da configuração.
+     */
+    public static Config get() {
+        Config snapshot = current;
+        Map<String, String> local = threadOverrides.get();
+        if (local == null) {
+            return snapshot;
+        }
+        Config view = threadView.get();
+        if (view == null || view.origin != snapshot) {
+            view = snapshot.derive(local, "thread");
+            threadView.set(view);
+        }
+        return view;
+    }
+
+    /**
+     * Sobrescreve uma propriedade para todas as threads (tem prioridade sobre as demais fontes).
+     * Gera um novo retrato; os retratos já obtidos não mudam.
+     * @param key A chave da propriedade.
+     * @param value O novo valor.
+     */
+    public static synchronized void setOverride(String key, String value) {
+        Map<String, String> overrides = new HashMap<>(globalOverrides);
+        overrides.put(key, value);
+        applyOverrides(overrides);
+    }
+
+    /**
+     * Remove a sobrescrita de uma propriedade, voltando ao valor das demais fontes.
+     * @param key A chave da propriedade.
+     */
+    public static synchronized void clearOverride(String key) {
+        if (globalOverrides.containsKey(key)) {
+            Map<String, String> overrides = new HashMap<>(globalOverrides);
+            overrides.remove(key);
+            applyOverrides(overrides);
+        }
+    }
+
+    private static void applyOverrides(Map<String, String> overrides) {
+        globalOverrides = Collections.unmodifiableMap(overrides);
+        current = overrides.isEmpty() ? loaded : loaded.derive(overrides, "sobrescrita");
+    }
+
+    /**
+     * Define sobrescritas válidas somente para a thread atual (ex: um cenário que precisa de outro timeout).
+     * @param overrides As propriedades sobrescritas.
+     */
+    public static void setThreadOverrides(Map<String, String> overrides) {
+        threadOverrides.set(Collections.unmodifiableMap(new HashMap<>(overrides)));
+        threadView.remove();
+    }
+
+    /**
+     * Remove as sobrescritas da thread atual.
+     */
+    public static void clearThreadOverrides() {
+        threadOverrides.remove();
+        threadView.remove();
+    }
+
+    /**
+     * Resolve novamente a configuração a partir das fontes (ex: após alterar propriedades de sistema em benchmarks).
+     */
+    public static synchronized void reload() {
+        loaded = load();
+        applyOverrides(globalOverrides);
+    }
+
+    /**
+     * Obtém a visão da configuração de um site: site.chave tem prioridade sobre chave.
+     * @param site O nome do site (ex: "amazon", "magalu").
+     * @return A visão do site.
+     */
+    public Config forSite(String site) {
+        if (site == null) {
+            return root;
+        }
+        return root.siteViews.computeIfAbsent(site, s -> new Config(values, sources, profiles, declaredKeys, origin, root, s));
+    }
+
+    /**
+     * Obtém o valor de uma propriedade.
+     * @param key A chave da propriedade.
+     * @return O valor, ou null se a chave não for encontrada.
+     */
+    public String getString(String key) {
+        if (site != null) {
+            String siteValue = values.get(site + "." + key);
+            if (siteValue != null) {
+                return siteValue;
+            }
+        }
+        return values.get(key);
+    }
+
+    /**
+     * Obtém o valor de uma propriedade, com um valor padrão.
+     * @param key A chave da propriedade.
+     * @param defaultValue O valor padrão, se a chave não for encontrada.
+     * @return O valor da propriedade, ou o valor padrão.
+     */
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Obtém o valor de uma propriedade como int. Valores inválidos são reportados uma única vez por retrato.
+     * @param key A chave da propriedade.
+     * @param defaultValue O valor padrão, se a chave não for encontrada ou não for um inteiro.
+     * @return O valor da propriedade, ou o valor padrão.
+     */
+    public int getInt(String key, int defaultValue) {
+        Object value = parse(key, parsedInts, "inteiro", Integer::valueOf);
+        return value instanceof Integer ? (Integer) value : defaultValue;
+    }
+
+    /**
+     * Obtém o valor de uma propriedade como long. Valores inválidos são reportados uma única vez por retrato.
+     * @param key A chave da propriedade.
+     * @param defaultValue O valor padrão, se a chave não for encontrada ou não for um número.
+     * @return O valor da propriedade, ou o valor padrão.
+     */
+    public long getLong(String key, long defaultValue) {
+        Object value = parse(key, parsedLongs, "número", Long::valueOf);
+        return value instanceof Long ? (Long) value : defaultValue;
+    }
+
+    /**
+     * Obtém o valor de uma propriedade como boolean ("true" ou "false"). Valores inválidos são reportados uma única vez.
+     * @param key A chave da propriedade.
+     * @param defaultValue O valor padrão, se a chave não for encontrada ou não for "true"/"false".
+     * @return O valor da propriedade, ou o valor padrão.
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Object value = parse(key, parsedBooleans, "booleano", raw -> {
+            if ("true".equalsIgnoreCase(raw) || "false".equalsIgnoreCase(raw)) {
+                return Boolean.valueOf(raw);
+            }
+            throw new IllegalArgumentException(raw);
+        });
+        return value instanceof Boolean ? (Boolean) value : defaultValue;
+    }
+
+    private interface Parser {
+        Object parse(String raw);
+    }
+
+    private Object parse(String key, Map<String, Object> parsed, String typeName, Parser parser) {
+        Object value = parsed.get(key);
+        if (value == null) {
+            String raw = getString(key);
+            if (raw == null) {
+                return null;
+            }
+            try {
+                value = parser.parse(raw);
+            } catch (IllegalArgumentException e) {
+                System.err.println("ERRO: Valor da propriedade '" + key + "' ('" + raw + "', " + sources.get(key)
+                        + ") não é um " + typeName + " válido. Usando o valor padrão.");
+                value = INVALID;
+            }
+            parsed.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return O navegador configurado (browser): chrome ou firefox.
+     */
+    public String getBrowser() {
+        return browser;
+    }
+
+    /**
+     * @return true se o navegador deve ser iniciado em modo headless.
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * @return O timeout padrão das esperas explícitas, em segundos (timeout.seconds).
+     */
+    public int getTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+
+    /**
+     * @return O alvo dos testes (target): live ou local.
+     */
+    public String getTarget() {
+        return target;
+    }
+
+    /**
+     * @return A quantidade de cenários executados em paralelo (threads).
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * @return Os perfis carregados (config.profile), na ordem de aplicação.
+     */
+    public List<String> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * Informa de onde veio o valor de uma propriedade (ex: "sistema", "ambiente", "perfil ci", "config.properties").
+     * @param key A chave da propriedade.
+     * @return A origem do valor, ou null se a chave não for encontrada.
+     */
+    public String getSource(String key) {
+        return sources.get(key);
+    }
+
+    /**
+     * Obtém os valores efetivos das chaves declaradas nos arquivos de configuração (config.properties e perfis), com a
+     * precedência de ambiente e sistema aplicada, mas sem as sobrescritas em tempo de execução (ex: URLs do servidor
+     * local, que mudam a cada execução). As propriedades de sistema que não são configuração (java.*, user.*) ficam de fora.
+     * @return Os valores, ordenados pela chave.
+     */
+    public static SortedMap<String, String> getDeclaredValues() {
+        Config snapshot = loaded;
+        SortedMap<String, String> declared = new TreeMap<>();
+        for (String key : snapshot.declaredKeys) {
+            declared.put(key, snapshot.values.get(key));
+        }
+        return declared;
+    }
+
+    private Config derive(Map<String, String> overrides, String source) {
+        Map<String, String> derivedValues = new HashMap<>(values);
+        Map<String, String> derivedSources = new HashMap<>(sources);
+        overrides.forEach((key, value) -> {
+            if (value == null) {
+                return;
+            }
+            derivedValues.put(key, value.trim());
+            derivedSources.put(key, source);
+        });
+        return new Config(Collections.unmodifiableMap(derivedValues), Collections.unmodifiableMap(derivedSources), profiles,
+                declaredKeys, this, null, null);
+    }
+
+    /**
+     * Resolve todas as fontes em uma única passagem.
+     */
+    private static Config load() {
+        Map<String, String> values = new HashMap<>();
+        Map<String, String> sources = new HashMap<>();
+
+        Properties file = readFile(CONFIG_FILE_NAME, true);
+        put(values, sources, file, CONFIG_FILE_NAME);
+
+        String profileSetting = firstNonBlank(System.getProperty("config.profile"), System.getenv("CONFIG_PROFILE"),
+                values.get("config.profile"));
+        List<String> profiles = new ArrayList<>();
+        if (profileSetting != null) {
+            for (String profile : profileSetting.split(",")) {
+                profile = profile.trim().toLowerCase(Locale.ROOT);
+                if (profile.isEmpty()) {
+                    continue;
+                }
+                Properties profileFile = readFile("config-" + profile + ".properties", false);
+                if (profileFile == null) {
+                    System.err.println("AVISO: Perfil de configuração '" + profile + "' não encontrado (config-" + profile + ".properties).");
+                    continue;
+                }
+                put(values, sources, profileFile, "perfil " + profile);
+                profiles.add(profile);
+            }
+        }
+
+        Set<String> declaredKeys = Collections.unmodifiableSet(new HashSet<>(values.keySet()));
+
+        // Variáveis de ambiente: somente para as chaves conhecidas (ex: TIMEOUT_SECONDS -> timeout.seconds)
+        for (String key : new ArrayList<>(values.keySet())) {
+            String envValue = System.getenv(key.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+            if (envValue != null && !envValue.trim().isEmpty()) {
+                values.put(key, stripComment(envValue));
+                sources.put(key, "ambiente");
+            }
+        }
+
+        Properties system = System.getProperties();
+        for (String key : system.stringPropertyNames()) {
+            String value = system.getProperty(key);
+            if (value != null && !value.trim().isEmpty()) {
+                values.put(key, value.trim());
+                sources.put(key, "sistema");
+            }
+        }
+        return new Config(Collections.unmodifiableMap(values), Collections.unmodifiableMap(sources),
+                Collections.unmodifiableList(profiles), declaredKeys, null, null, null);
+    }
+
+    private static void put(Map<String, String> values, Map<String, String> sources, Properties properties, String source) {
+        if (properties == null) {
+            return;
+        }
+        for (String key : properties.stringPropertyNames()) {
+            values.put(key, stripComment(properties.getProperty(key)));
+            sources.put(key, source);
+        }
+    }
+
+    private static String stripComment(String value) {
+        return INLINE_COMMENT.matcher(value).replaceFirst("").trim();
+    }
+
+    private static String firstNonBlank(String... candidates) {
+        return Arrays.stream(candidates).filter(c -> c != null && !c.trim().isEmpty()).findFirst().orElse(null);
+    }
+
+    /**
+     * Lê um arquivo de propriedades do classpath e, como fallback, de src/test/resources.
+     * @param required Se true, a ausência do arquivo é uma falha crítica.
+     */
+    private static Properties readFile(String name, boolean required) {
+        Properties properties = new Properties();
+        try (InputStream input = Config.class.getClassLoader().getResourceAsStream(name)) {
+            if (input != null) {
+                properties.load(input);
+                System.out.println("'" + name + "' carregado com sucesso do Classpath.");
+                return properties;
+            }
+        } catch (IOException ex) {
+            System.err.println("ERRO ao carregar '" + name + "' do Classpath: " + ex.getMessage());
+        }
+        try (InputStream fileInput = new FileInputStream("src/test/resources/" + name)) {
+            properties.load(fileInput);
+            System.out.println("'" + name + "' carregado com sucesso do FileSystem.");
+            return properties;
+        } catch (IOException ex) {
+            if (required) {
+                throw new RuntimeException("FALHA CRÍTICA: Não foi possível carregar o arquivo de configuração '" + name + "' de nenhuma fonte.", ex);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return Resumo das configurações centrais e dos perfis carregados.
+     */
+    @Override
+    public String toString() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("perfis", profiles);
+        summary.put("browser", browser);
+        summary.put("headless", headless);
+        summary.put("timeout.seconds", timeoutSeconds);
+        summary.put("target", target);
+        summary.put("threads", threads);
+        return "CONFIGURAÇÃO: " + summary;
+    }
+}
@@ -0,0 +1,103 @@
+package utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma de latências com memória fixa (buckets log-lineares em microssegundos), seguro para várias threads.
+ *
+ * Cada potência de 2 é dividida em 8 sub-buckets, o que limita o erro dos percentis a ~12,5%
+ * com 488 contadores por métrica, independentemente da quantidade de amostras.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (63 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    /**
+     * Registra uma amostra.
+     * @param nanos A duração em nanossegundos.
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1_000);
+        buckets.incrementAndGet(indexOf(micros));
+        count.incrementAndGet();
+        totalMicros.addAndGet(micros);
+        maxMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    /**
+     * @return A quantidade de amostras registradas.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Calcula um percentil aproximado (limite superior do bucket, nunca acima do máximo registrado).
+     * @param percentile O percentil desejado, entre 0 e 100 (ex: 99).
+     * @return O valor do percentil em microssegundos, ou 0 se não houver amostras.
+     */
+    public long percentileMicros(double percentile) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperBoundOf(i), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+
+    /**
+     * Resumo do histograma em milissegundos: count, meanMs, p50Ms, p90Ms, p99Ms, maxMs e totalMs.
+     * @return Um mapa ordenado, pronto para ser serializado em JSON.
+     */
+    public Map<String, Object> summary() {
+        long total = count.get();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", total);
+        summary.put("meanMs", total == 0 ? 0 : toMillis(totalMicros.get() / total));
+        summary.put("p50Ms", toMillis(percentileMicros(50)));
+        summary.put("p90Ms", toMillis(percentileMicros(90)));
+        summary.put("p99Ms", toMillis(percentileMicros(99)));
+        summary.put("maxMs", toMillis(maxMicros.get()));
+        summary.put("totalMs", toMillis(totalMicros.get()));
+        return summary;
+    }
+
+    private static double toMillis(long micros) {
+        return Math.round(micros / 10.0) / 100.0; // Duas casas decimais
+    }
+
+    static int indexOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) ((micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1));
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
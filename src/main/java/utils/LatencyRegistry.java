@@ -0,0 +1,41 @@
+package utils;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registro global de histogramas de latência, agrupados por categoria (ex: "commands" para comandos do WebDriver,
+ * "steps" para step definitions do Cucumber). Cada métrica ocupa memória fixa ({@link LatencyHistogram}).
+ */
+public class LatencyRegistry {
+
+    private static final Map<String, Map<String, LatencyHistogram>> categories = new ConcurrentHashMap<>();
+
+    private LatencyRegistry() {
+    }
+
+    /**
+     * Registra uma amostra de latência.
+     * @param category A categoria da métrica (ex: "commands").
+     * @param name O nome da métrica (ex: "WebDriver.get").
+     * @param nanos A duração em nanossegundos.
+     */
+    public static void record(String category, String name, long nanos) {
+        categories.computeIfAbsent(category, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name, n -> new LatencyHistogram())
+                .record(nanos);
+    }
+
+    /**
+     * Obtém o resumo de todas as métricas de uma categoria, ordenadas pelo nome.
+     * @param category A categoria das métricas.
+     * @return Um mapa nome -> resumo (ver {@link LatencyHistogram#summary()}).
+     */
+    public static Map<String, Map<String, Object>> summary(String category) {
+        Map<String, Map<String, Object>> summary = new TreeMap<>();
+        categories.getOrDefault(category, new ConcurrentHashMap<>())
+                .forEach((name, histogram) -> summary.put(name, histogram.summary()));
+        return summary;
+    }
+}
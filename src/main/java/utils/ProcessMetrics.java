@@ -0,0 +1,92 @@
+package utils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Leituras de memória e CPU da máquina e dos processos de navegador (filhos desta JVM).
+ * Usa o /proc do Linux; em outros sistemas as leituras indisponíveis retornam -1 (ou 0 para o RSS).
+ */
+public class ProcessMetrics {
+
+    private static final Path MEMINFO = Paths.get("/proc/meminfo");
+    private static final Path STAT = Paths.get("/proc/stat");
+
+    // Última leitura de /proc/stat, para calcular o uso de CPU entre duas amostras
+    private static long lastBusyTicks = -1;
+    private static long lastTotalTicks = -1;
+
+    private ProcessMetrics() {
+    }
+
+    /**
+     * Obtém a memória disponível para novos processos (MemAvailable do /proc/meminfo).
+     * @return A memória disponível em bytes, ou -1 se não for possível ler.
+     */
+    public static long availableMemoryBytes() {
+        try {
+            for (String line : Files.readAllLines(MEMINFO)) {
+                if (line.startsWith("MemAvailable:")) {
+                    return Long.parseLong(line.replaceAll("\\D+", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sistema sem /proc
+        }
+        return -1;
+    }
+
+    /**
+     * Obtém a soma da memória residente (VmRSS) dos processos filhos desta JVM (drivers e navegadores).
+     * @return O RSS total em bytes, ou 0 se não houver processos ou não for possível ler.
+     */
+    public static long browserRssBytes() {
+        long total = 0;
+        for (ProcessHandle process : (Iterable<ProcessHandle>) ProcessHandle.current().descendants()::iterator) {
+            Path status = Paths.get("/proc", String.valueOf(process.pid()), "status");
+            try {
+                for (String line : Files.readAllLines(status)) {
+                    if (line.startsWith("VmRSS:")) {
+                        total += Long.parseLong(line.replaceAll("\\D+", "")) * 1024;
+                        break;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                // Processo encerrado ou sistema sem /proc
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Obtém a fração de uso de CPU da máquina (0 a 1) desde a leitura anterior, a partir do /proc/stat.
+     * Sem /proc, usa a carga média do sistema dividida pela quantidade de processadores.
+     * @return A fração de uso de CPU, ou -1 se não for possível medir (ex: primeira leitura).
+     */
+    public static synchronized double cpuLoad() {
+        try {
+            List<String> lines = Files.readAllLines(STAT);
+            String[] fields = lines.get(0).trim().split("\\s+"); // cpu user nice system idle iowait irq softirq steal ...
+            long total = 0;
+            for (int i = 1; i < Math.min(fields.length, 9); i++) {
+                total += Long.parseLong(fields[i]);
+            }
+            long idle = Long.parseLong(fields[4]) + Long.parseLong(fields[5]);
+            long busy = total - idle;
+            double load = -1;
+            if (lastTotalTicks >= 0 && total > lastTotalTicks) {
+                load = (double) (busy - lastBusyTicks) / (total - lastTotalTicks);
+            }
+            lastBusyTicks = busy;
+            lastTotalTicks = total;
+            return load;
+        } catch (IOException | RuntimeException e) {
+            double average = ManagementFactory.getOperatingSystemMXBean().getSystemLoadAverage();
+            return average < 0 ? -1 : average / Runtime.getRuntime().availableProcessors();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package bulk;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Testes da divisão de linhas CSV do arquivo de termos ({@link SearchTermReader#parseCsvLine(String)}).
+ */
+public class SearchTermReaderTest {
+
+    @Test
+    public void plainFields() {
+        Assert.assertEquals(SearchTermReader.parseCsvLine("amazon,notebook,results,Notebook"),
+                Arrays.asList("amazon", "notebook", "results", "Notebook"));
+    }
+
+    @Test
+    public void quotedFieldWithEmbeddedCommas() {
+        Assert.assertEquals(SearchTermReader.parseCsvLine("magalu,\"geladeira, frost free, 2 portas\",results"),
+                Arrays.asList("magalu", "geladeira, frost free, 2 portas", "results"));
+    }
+
+    @Test
+    public void doubledQuotesInsideQuotedField() {
+        Assert.assertEquals(SearchTermReader.parseCsvLine("amazon,\"monitor 27\"\" 4K\",results"),
+                Arrays.asList("amazon", "monitor 27\" 4K", "results"));
+        Assert.assertEquals(SearchTermReader.parseCsvLine("\"\"\"aspas\"\"\""),
+                Collections.singletonList("\"aspas\""));
+    }
+
+    @Test
+    public void emptyFields() {
+        Assert.assertEquals(SearchTermReader.parseCsvLine("amazon,notebook,results,"),
+                Arrays.asList("amazon", "notebook", "results", ""));
+        Assert.assertEquals(SearchTermReader.parseCsvLine("amazon,\"\",results"),
+                Arrays.asList("amazon", "", "results"));
+        Assert.assertEquals(SearchTermReader.parseCsvLine(""), Collections.singletonList(""));
+    }
+
+    @Test
+    public void spacesAreKept() {
+        // O trim é feito na leitura das colunas, não na divisão da linha
+        Assert.assertEquals(SearchTermReader.parseCsvLine(" amazon , \"note, book\" "),
+                Arrays.asList(" amazon ", " note, book "));
+    }
+}
@@ -0,0 +1,100 @@
+package pages;
+
+import java.net.URI;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import server.StorefrontPages;
+
+/**
+ * Testes da leitura por HTTP das páginas de resultados, usando o HTML do servidor local ({@link StorefrontPages}),
+ * que reproduz o contrato de DOM das Page Objects.
+ */
+public class HttpResultsPageTest {
+
+    private static final URI BASE = URI.create("http://127.0.0.1:8080/s?k=notebook");
+
+    @Test
+    public void amazonResults() {
+        ResultsSnapshot snapshot = HttpResultsPage.parse("amazon", StorefrontPages.amazonResults("notebook", 3), BASE);
+
+        Assert.assertNotNull(snapshot, "Página de resultados da Amazon não foi considerada conclusiva.");
+        Assert.assertTrue(snapshot.isHeaderVisible());
+        Assert.assertEquals(snapshot.getHeaderText(), "Resultados");
+        Assert.assertEquals(snapshot.getSearchTermEcho(), "notebook");
+        Assert.assertTrue(snapshot.hasResults());
+        Assert.assertFalse(snapshot.isNoResults());
+        Assert.assertEquals(snapshot.resultsCount(), 3);
+        Assert.assertEquals(snapshot.getFirstProductTitle(), "notebook - Produto de teste 1");
+
+        ProductCard first = snapshot.getCards().get(0);
+        Assert.assertEquals(first.getPosition(), 1);
+        Assert.assertEquals(first.getPrice(), "R$ 113,27");
+        Assert.assertEquals(first.getLink(), "http://127.0.0.1:8080/dp/LOCAL1?ref_=sr_1_1");
+        Assert.assertEquals(snapshot.getCards().get(2).getTitle(), "notebook - Produto de teste 3");
+    }
+
+    @Test
+    public void amazonNoResults() {
+        ResultsSnapshot snapshot = HttpResultsPage.parse("amazon", StorefrontPages.amazonNoResults("xyzabc123"), BASE);
+
+        Assert.assertNotNull(snapshot, "Página de \"nenhum resultado\" da Amazon não foi considerada conclusiva.");
+        Assert.assertTrue(snapshot.isNoResults());
+        Assert.assertEquals(snapshot.getNoResultsMessage(), "Nenhum resultado para");
+        Assert.assertEquals(snapshot.getNoResultsTerm(), "xyzabc123");
+        Assert.assertFalse(snapshot.hasResults());
+        Assert.assertEquals(snapshot.resultsCount(), 0);
+    }
+
+    @Test
+    public void magaluResults() {
+        ResultsSnapshot snapshot = HttpResultsPage.parse("magalu", StorefrontPages.magaluResults("geladeira", 2), BASE);
+
+        Assert.assertNotNull(snapshot, "Página de resultados da Magazine Luiza não foi considerada conclusiva.");
+        Assert.assertTrue(snapshot.isHeaderVisible());
+        Assert.assertEquals(snapshot.getHeaderText(), "Resultados para");
+        Assert.assertTrue(snapshot.hasResults());
+        Assert.assertFalse(snapshot.isNoResults());
+        Assert.assertEquals(snapshot.resultsCount(), 2);
+        Assert.assertEquals(snapshot.getFirstProductTitle(), "geladeira - Produto de teste 1");
+
+        ProductCard first = snapshot.getCards().get(0);
+        Assert.assertEquals(first.getPrice(), "R$ 113,27");
+        Assert.assertEquals(first.getLink(), "http://127.0.0.1:8080/produto-de-teste-1/p/LOCAL1/");
+    }
+
+    @Test
+    public void magaluNoResults() {
+        ResultsSnapshot snapshot = HttpResultsPage.parse("magalu", StorefrontPages.magaluNoResults("xyzabc123"), BASE);
+
+        Assert.assertNotNull(snapshot, "Página de \"nenhum resultado\" da Magazine Luiza não foi considerada conclusiva.");
+        Assert.assertTrue(snapshot.isNoResults());
+        Assert.assertEquals(snapshot.getNoResultsMessage(), "Sua busca por \"xyzabc123\" não encontrou resultado algum :(");
+        Assert.assertFalse(snapshot.hasResults());
+        Assert.assertFalse(snapshot.isHeaderVisible());
+    }
+
+    @Test
+    public void escapedTermIsReadAsText() {
+        String term = "cadeira \"gamer\" & mesa";
+
+        ResultsSnapshot amazon = HttpResultsPage.parse("amazon", StorefrontPages.amazonResults(term, 1), BASE);
+        ResultsSnapshot magalu = HttpResultsPage.parse("magalu", StorefrontPages.magaluResults(term, 1), BASE);
+
+        Assert.assertEquals(amazon.getFirstProductTitle(), term + " - Produto de teste 1");
+        Assert.assertEquals(magalu.getFirstProductTitle(), term + " - Produto de teste 1");
+    }
+
+    @Test
+    public void unsettledPageReturnsNull() {
+        // Sem resultados nem mensagem de "nenhum resultado": a validação deve ser feita no navegador
+        Assert.assertNull(HttpResultsPage.parse("amazon", StorefrontPages.amazonHome(), BASE));
+        Assert.assertNull(HttpResultsPage.parse("magalu", StorefrontPages.magaluHome(), BASE));
+        Assert.assertNull(HttpResultsPage.parse("amazon", StorefrontPages.notFound("/s"), BASE));
+        Assert.assertNull(HttpResultsPage.parse("magalu", StorefrontPages.notFound("/busca/x/"), BASE));
+        // Título da listagem sem nenhum card (ex: cards montados por JavaScript)
+        Assert.assertNull(HttpResultsPage.parse("amazon", StorefrontPages.amazonResults("notebook", 0), BASE));
+        Assert.assertNull(HttpResultsPage.parse("magalu", StorefrontPages.magaluResults("geladeira", 0), BASE));
+    }
+}
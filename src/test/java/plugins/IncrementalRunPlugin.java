@@ -0,0 +1,279 @@
+package plugins;
+
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.Status;
+import io.cucumber.plugin.event.TestCase;
+import io.cucumber.plugin.event.TestCaseFinished;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStep;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import server.StorefrontServer;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução incremental: pula os cenários cujas entradas não mudaram desde a última vez em que passaram no
+ * servidor local (-Dtarget=local). Opcional, habilitado com -Dincremental.enabled=true.
+ *
+ * A impressão digital de um cenário ({@link ScenarioFingerprint}) é formada pelo texto da feature, pelo conteúdo dos
+ * arquivos de dados citados nos steps (ex: o arquivo de termos do cenário @bulk), pelo bytecode das classes do
+ * projeto que ele usa (steps, hooks e, transitivamente, Page Objects, drivers e utilitários) e pela configuração
+ * declarada. Ao final de cada cenário aprovado, a impressão digital é gravada no cache; na próxima
+ * execução, o {@link runners.TestRunner} remove do data provider os cenários com a mesma impressão digital
+ * ({@link #select(Object[][])}) e imprime a lista dos pulados e o motivo dos reexecutados.
+ *
+ * Contra os sites reais o modo incremental não se aplica (o resultado depende do site, não só do código).
+ *
+ * Propriedades (sistema ou config.properties):
+ * - incremental.enabled: habilita o modo incremental (padrão false).
+ * - incremental.ttl.minutes: validade de uma aprovação (padrão 1440); depois disso o cenário é executado de novo.
+ * - incremental.max.skips: execuções seguidas em que um cenário pode ser pulado (padrão 5).
+ * - incremental.cache.file: arquivo do cache (padrão target/incremental/scenario-cache.json).
+ *
+ * Uso: "plugins.IncrementalRunPlugin"
+ */
+public class IncrementalRunPlugin implements ConcurrentEventListener {
+
+    private static final Config config = Config.get();
+    // Na verificação dos steps (dry-run) nenhum cenário executa de fato: nada é pulado nem gravado
+    private static final boolean enabled = config.getBoolean("incremental.enabled", false)
+            && !config.getBoolean("cucumber.execution.dry-run", false);
+    private static final long ttlMillis = TimeUnit.MINUTES.toMillis(Math.max(0, config.getLong("incremental.ttl.minutes", 1440)));
+    private static final int maxSkips = Math.max(0, config.getInt("incremental.max.skips", 5));
+    private static final Path cacheFile = Paths.get(config.getString("incremental.cache.file", "target/incremental/scenario-cache.json"));
+
+    private static Map<String, Map<String, Object>> cache; // Protegido pelo monitor da classe
+    private static final Set<String> failedThisRun = new HashSet<>();
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        if (!isActive()) {
+            return;
+        }
+        publisher.registerHandlerFor(TestCaseFinished.class, this::onTestCaseFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeCache());
+    }
+
+    /**
+     * Remove dos cenários do data provider os que passaram recentemente com as mesmas entradas.
+     * Sem o modo incremental (ou fora do servidor local), devolve os cenários sem alteração.
+     * @param scenarios Os cenários ({@link PickleWrapper}, FeatureWrapper), como no data provider do TestNG.
+     * @return Os cenários a executar.
+     */
+    public static synchronized Object[][] select(Object[][] scenarios) {
+        if (!enabled) {
+            return scenarios;
+        }
+        if (!StorefrontServer.isLocalTarget()) {
+            System.out.println("AVISO: incremental.enabled só se aplica com -Dtarget=local. Executando todos os cenários.");
+            return scenarios;
+        }
+        Map<String, Map<String, Object>> entries = cache();
+        long now = System.currentTimeMillis();
+        List<Object[]> selected = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        List<String> executed = new ArrayList<>();
+        int withoutApproval = 0;
+        for (Object[] scenario : scenarios) {
+            Pickle pickle = ((PickleWrapper) scenario[0]).getPickle();
+            String key = key(pickle.getUri(), pickle.getLine());
+            String label = "'" + pickle.getName() + "' (" + fileName(pickle.getUri()) + ":" + pickle.getLine() + ")";
+            Map<String, Object> entry = entries.get(key);
+            if (entry == null) {
+                withoutApproval++;
+                selected.add(scenario);
+                continue;
+            }
+            String reason = staleReason(entry, pickle.getUri(), now);
+            if (reason != null) {
+                executed.add("  EXECUTADO " + label + ": " + reason);
+                selected.add(scenario);
+                continue;
+            }
+            long skips = number(entry.get("skips")) + 1;
+            entry.put("skips", skips);
+            skipped.add("  PULADO " + label + ": aprovado há " + age(now - number(entry.get("passedAt"))) + ", feature, configuração, "
+                    + hashes(entry, "data").size() + " arquivo(s) de dados e " + hashes(entry, "classes").size() + " classe(s) inalterados (pulado " + skips + " de " + maxSkips + " vez(es))");
+        }
+        System.out.println("EXECUÇÃO INCREMENTAL: " + skipped.size() + " de " + scenarios.length + " cenário(s) pulado(s) | "
+                + executed.size() + " reexecutado(s) por mudança ou validade | " + withoutApproval + " sem aprovação anterior | cache em " + cacheFile);
+        skipped.forEach(System.out::println);
+        executed.forEach(System.out::println);
+        return selected.toArray(new Object[0][]);
+    }
+
+    private void onTestCaseFinished(TestCaseFinished event) {
+        TestCase testCase = event.getTestCase();
+        String key = key(testCase.getUri(), testCase.getLocation().getLine());
+        if (event.getResult().getStatus() != Status.PASSED) {
+            synchronized (IncrementalRunPlugin.class) {
+                failedThisRun.add(key); // Um cenário que falhou e passou na reexecução (flaky) não é pulado depois
+                cache().remove(key);
+            }
+            return;
+        }
+        Set<String> roots = new HashSet<>();
+        List<String> stepTexts = new ArrayList<>();
+        for (TestStep step : testCase.getTestSteps()) {
+            String className = ScenarioFingerprint.classOf(step.getCodeLocation());
+            if (className != null) {
+                roots.add(className);
+            }
+            if (step instanceof PickleStepTestStep) {
+                stepTexts.add(((PickleStepTestStep) step).getStep().getText());
+            }
+        }
+        Map<String, Object> data = new TreeMap<>();
+        for (String file : ScenarioFingerprint.dataFiles(stepTexts)) {
+            data.put(file, ScenarioFingerprint.hashFile(file));
+        }
+        Map<String, Object> classes = new TreeMap<>();
+        for (String className : ScenarioFingerprint.projectClosure(roots)) {
+            classes.put(className, ScenarioFingerprint.hashClass(className));
+        }
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("name", testCase.getName());
+        entry.put("passedAt", System.currentTimeMillis());
+        entry.put("skips", 0);
+        entry.put("feature", ScenarioFingerprint.hashFeature(testCase.getUri()));
+        entry.put("config", ScenarioFingerprint.hashConfig());
+        entry.put("data", data);
+        entry.put("classes", classes);
+        synchronized (IncrementalRunPlugin.class) {
+            if (!failedThisRun.contains(key)) {
+                cache().put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * @return O motivo para executar novamente um cenário aprovado anteriormente, ou null se ele pode ser pulado.
+     */
+    private static String staleReason(Map<String, Object> entry, URI uri, long now) {
+        long age = now - number(entry.get("passedAt"));
+        if (age > ttlMillis) {
+            return "aprovação expirada (há " + age(age) + ", incremental.ttl.minutes=" + TimeUnit.MILLISECONDS.toMinutes(ttlMillis) + ")";
+        }
+        if (number(entry.get("skips")) >= maxSkips) {
+            return "pulado nas últimas " + maxSkips + " execuções (incremental.max.skips)";
+        }
+        if (!String.valueOf(entry.get("feature")).equals(ScenarioFingerprint.hashFeature(uri))) {
+            return "feature alterada";
+        }
+        if (!String.valueOf(entry.get("config")).equals(ScenarioFingerprint.hashConfig())) {
+            return "configuração alterada";
+        }
+        List<String> changedData = new ArrayList<>();
+        for (Map.Entry<String, Object> recorded : hashes(entry, "data").entrySet()) {
+            if (!String.valueOf(recorded.getValue()).equals(ScenarioFingerprint.hashFile(recorded.getKey()))) {
+                changedData.add(recorded.getKey());
+            }
+        }
+        if (!changedData.isEmpty()) {
+            return "arquivo(s) de dados alterado(s): " + String.join(", ", changedData);
+        }
+        List<String> changed = new ArrayList<>();
+        for (Map.Entry<String, Object> recorded : hashes(entry, "classes").entrySet()) {
+            if (!String.valueOf(recorded.getValue()).equals(ScenarioFingerprint.hashClass(recorded.getKey()))) {
+                changed.add(recorded.getKey());
+            }
+        }
+        if (!changed.isEmpty()) {
+            return "classe(s) alterada(s): " + String.join(", ", changed);
+        }
+        return null;
+    }
+
+    private static boolean isActive() {
+        return enabled && StorefrontServer.isLocalTarget();
+    }
+
+    /**
+     * Carrega o cache na primeira vez (vazio se o arquivo não existir ou estiver inválido).
+     */
+    @SuppressWarnings("unchecked")
+    private static synchronized Map<String, Map<String, Object>> cache() {
+        if (cache == null) {
+            cache = new TreeMap<>();
+            if (Files.exists(cacheFile)) {
+                try (Reader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+                    Map<String, Object> content = new Json().toType(reader, Json.MAP_TYPE);
+                    Object scenarios = content.get("scenarios");
+                    if (scenarios instanceof Map) {
+                        ((Map<String, Object>) scenarios).forEach((key, value) -> {
+                            if (value instanceof Map) {
+                                cache.put(key, new LinkedHashMap<>((Map<String, Object>) value));
+                            }
+                        });
+                    }
+                } catch (IOException | JsonException e) {
+                    System.err.println("AVISO: Cache de execução incremental inválido (" + cacheFile + "), ignorado: " + e.getMessage());
+                }
+            }
+        }
+        return cache;
+    }
+
+    private static synchronized void writeCache() {
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("scenarios", cache());
+        try {
+            if (cacheFile.getParent() != null) {
+                Files.createDirectories(cacheFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(cacheFile, StandardCharsets.UTF_8)) {
+                new Json().newOutput(writer).write(content);
+            }
+        } catch (IOException e) {
+            System.err.println("ERRO AO GRAVAR CACHE DE EXECUÇÃO INCREMENTAL: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Os hashes gravados na entrada sob a chave informada ("classes" ou "data"), por nome.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> hashes(Map<String, Object> entry, String kind) {
+        Object hashes = entry.get(kind);
+        return hashes instanceof Map ? (Map<String, Object>) hashes : new TreeMap<>();
+    }
+
+    private static String key(URI uri, int line) {
+        return uri + ":" + line;
+    }
+
+    private static String fileName(URI uri) {
+        String path = uri.toString();
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static long number(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private static String age(long millis) {
+        long minutes = TimeUnit.MILLISECONDS.toMinutes(millis);
+        return minutes < 60 ? minutes + " min" : (minutes / 60) + " h " + (minutes % 60) + " min";
+    }
+}
@@ -0,0 +1,89 @@
+package plugins;
+
+import bulk.BulkSearchRunner;
+import driver.CommandTimingListener;
+import driver.ResourceScheduler;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventPublisher;
+import io.cucumber.plugin.event.HookTestStep;
+import io.cucumber.plugin.event.PickleStepTestStep;
+import io.cucumber.plugin.event.TestRunFinished;
+import io.cucumber.plugin.event.TestStepFinished;
+import org.openqa.selenium.json.Json;
+import pages.WaitEngine;
+import utils.LatencyRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Plugin do Cucumber que registra histogramas de latência (p50/p90/p99/max, memória fixa por métrica)
+ * de cada step definition e hook, e grava ao final um resumo JSON junto com os histogramas dos comandos do
+ * WebDriver medidos pelo {@link CommandTimingListener} e das esperas por elementos do {@link WaitEngine}.
+ *
+ * Os steps são agrupados pelo método da step definition (ex: steps.AmazonSteps.euBuscoPorNaAmazon(java.lang.String)),
+ * o que permite comparar o tempo de navigateToHomePage, searchFor e das verificações entre execuções.
+ *
+ * Uso: "plugins.LatencyHistogramPlugin:target/cucumber-reports/latency-histograms.json"
+ */
+public class LatencyHistogramPlugin implements ConcurrentEventListener {
+
+    private static final String STEPS = "steps";
+    private static final String HOOKS = "hooks";
+
+    private final Path outputFile;
+
+    /**
+     * Construtor do plugin.
+     * @param outputFile Arquivo JSON onde o resumo será gravado.
+     */
+    public LatencyHistogramPlugin(File outputFile) {
+        this.outputFile = outputFile.toPath();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(TestStepFinished.class, this::onTestStepFinished);
+        publisher.registerHandlerFor(TestRunFinished.class, event -> writeSummary());
+    }
+
+    private void onTestStepFinished(TestStepFinished event) {
+        long nanos = event.getResult().getDuration().toNanos();
+        if (event.getTestStep() instanceof PickleStepTestStep) {
+            LatencyRegistry.record(STEPS, event.getTestStep().getCodeLocation(), nanos);
+        } else if (event.getTestStep() instanceof HookTestStep) {
+            HookTestStep hook = (HookTestStep) event.getTestStep();
+            LatencyRegistry.record(HOOKS, hook.getHookType() + " " + hook.getCodeLocation(), nanos);
+        }
+    }
+
+    private void writeSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("generatedAt", Instant.now().toString());
+        summary.put("unit", "ms");
+        summary.put(STEPS, LatencyRegistry.summary(STEPS));
+        summary.put(HOOKS, LatencyRegistry.summary(HOOKS));
+        summary.put(CommandTimingListener.CATEGORY, LatencyRegistry.summary(CommandTimingListener.CATEGORY));
+        summary.put(WaitEngine.CATEGORY, LatencyRegistry.summary(WaitEngine.CATEGORY));
+        summary.put(ResourceScheduler.CATEGORY, LatencyRegistry.summary(ResourceScheduler.CATEGORY));
+        summary.put(BulkSearchRunner.CATEGORY, LatencyRegistry.summary(BulkSearchRunner.CATEGORY));
+        try {
+            if (outputFile.getParent() != null) {
+                Files.createDirectories(outputFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(outputFile, StandardCharsets.UTF_8)) {
+                new Json().newOutput(writer).write(summary);
+            }
+            System.out.println("Histogramas de latência gravados em: " + outputFile);
+        } catch (IOException e) {
+            System.err.println("ERRO AO GRAVAR HISTOGRAMAS DE LATÊNCIA: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package plugins;
+
+import io.cucumber.core.plugin.MessageFormatter;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.plugin.ConcurrentEventListener;
+import io.cucumber.plugin.event.EventHandler;
+import io.cucumber.plugin.event.EventPublisher;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Plugin do Cucumber que grava as mensagens da execução (Cucumber Messages, NDJSON) em um arquivo por thread,
+ * no lugar do relatório JSON (que monta a árvore inteira da execução em memória antes de gravar).
+ *
+ * Cada mensagem é gravada assim que é publicada, pela própria thread que a publicou, então a memória usada não cresce
+ * com o tamanho da suíte e não há disputa entre cenários paralelos. Os arquivos são nomeados com o PID da JVM
+ * (messages-{pid}-{thread}.ndjson), para que execuções em JVMs separadas (forks) possam gravar no mesmo diretório.
+ * Ao final da execução, o {@link ReportMerger} mescla os arquivos desta JVM em messages.ndjson e gera o relatório
+ * HTML do Cucumber e um resumo HTML, ambos de forma incremental.
+ *
+ * Uso: "plugins.MessageShardPlugin:target/cucumber-reports/messages"
+ */
+public class MessageShardPlugin implements ConcurrentEventListener {
+
+    private final Path outputDir;
+    private final String pid = String.valueOf(ProcessHandle.current().pid());
+    private final List<OutputStream> streams = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<EventHandler<Envelope>> threadShard = new ThreadLocal<>();
+
+    /**
+     * Construtor do plugin.
+     * @param outputDir Diretório onde os arquivos por thread serão gravados.
+     */
+    public MessageShardPlugin(File outputDir) {
+        this.outputDir = outputDir.toPath();
+    }
+
+    @Override
+    public void setEventPublisher(EventPublisher publisher) {
+        publisher.registerHandlerFor(Envelope.class, this::write);
+    }
+
+    private void write(Envelope envelope) {
+        try {
+            shardForCurrentThread().receive(envelope);
+        } catch (IOException e) {
+            System.err.println("ERRO AO GRAVAR MENSAGENS DO CUCUMBER: " + e.getMessage());
+            return;
+        }
+        if (envelope.getTestRunFinished().isPresent()) {
+            closeAndMerge();
+        }
+    }
+
+    /**
+     * Obtém o arquivo da thread atual. A serialização de cada mensagem é a do próprio formatador de mensagens do
+     * Cucumber ("message:"), uma instância por arquivo.
+     */
+    private EventHandler<Envelope> shardForCurrentThread() throws IOException {
+        EventHandler<Envelope> shard = threadShard.get();
+        if (shard == null) {
+            Files.createDirectories(outputDir);
+            String safeName = Thread.currentThread().getName().replaceAll("[^a-zA-Z0-9.-]", "_");
+            Path file = outputDir.resolve(ReportMerger.SHARD_PREFIX + pid + "-" + safeName + "-" + Thread.currentThread().getId() + ".ndjson");
+            OutputStream stream = new BufferedOutputStream(Files.newOutputStream(file));
+            streams.add(stream);
+            shard = formatterHandler(new MessageFormatter(stream));
+            threadShard.set(shard);
+        }
+        return shard;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventHandler<Envelope> formatterHandler(MessageFormatter formatter) {
+        EventHandler<?>[] handler = new EventHandler<?>[1];
+        formatter.setEventPublisher(new EventPublisher() {
+            @Override
+            public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> eventHandler) {
+                handler[0] = eventHandler;
+            }
+
+            @Override
+            public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> eventHandler) {
+                handler[0] = null;
+            }
+        });
+        return (EventHandler<Envelope>) handler[0];
+    }
+
+    /**
+     * Fecha os arquivos de cada thread e mescla os arquivos desta JVM.
+     */
+    private void closeAndMerge() {
+        for (OutputStream stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                System.err.println("ERRO AO FECHAR MENSAGENS DO CUCUMBER: " + e.getMessage());
+            }
+        }
+        try {
+            ReportMerger.merge(outputDir, pid);
+        } catch (IOException e) {
+            System.err.println("ERRO AO MESCLAR MENSAGENS DO CUCUMBER: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package plugins;
+
+import driver.ScreenshotPipeline;
+import io.cucumber.htmlformatter.MessagesToHtmlWriter;
+import io.cucumber.messages.types.Envelope;
+import io.cucumber.messages.types.TestRunStarted;
+import io.cucumber.messages.types.Timestamp;
+import org.openqa.selenium.json.Json;
+import utils.Config;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Mescla os arquivos de mensagens do Cucumber gravados pelo {@link MessageShardPlugin} (um por thread e por JVM)
+ * em um único messages.ndjson e gera, no mesmo percurso, o relatório HTML do Cucumber (cucumber-messages.html)
+ * e um resumo HTML por cenário (summary.html).
+ *
+ * Os arquivos são lidos linha a linha, em três passagens (definições, casos de teste e execuções), sem carregar
+ * a execução inteira em memória. A memória usada não depende do tamanho das mensagens (steps, anexos, logs), mas
+ * cresce com a quantidade de cenários: para o resumo são mantidos, por pickle, o nome e a primeira e a última
+ * tentativa (poucas dezenas de bytes), e, por caso de teste, o seu pickle até o fim da sua execução. As mensagens de
+ * início e fim da execução de cada JVM são combinadas em uma só.
+ *
+ * Os links dos screenshots (anexos text/uri-list) são gravados relativos ao diretório do relatório HTML do Cucumber
+ * (o pai de screenshot.dir, ex: target/cucumber-reports); como o HTML mesclado fica no diretório das mensagens, os
+ * links relativos são reescritos a partir dele (ex: screenshots/x.jpg -> ../screenshots/x.jpg).
+ *
+ * Para mesclar as execuções de várias JVMs (forks) que gravaram no mesmo diretório:
+ * java -cp target/test-classes:... plugins.ReportMerger target/cucumber-reports/messages
+ */
+public class ReportMerger {
+
+    static final String SHARD_PREFIX = "messages-";
+
+    private static final String MERGED_FILE = "messages.ndjson";
+    private static final String HTML_FILE = "cucumber-messages.html";
+    private static final String SUMMARY_FILE = "summary.html";
+
+    // Mensagens de definição, gravadas antes da execução (na ordem do Cucumber)
+    private static final List<String> DEFINITIONS = Arrays.asList(
+            "source", "gherkinDocument", "pickle", "stepDefinition", "hook", "parameterType", "undefinedParameterType");
+    // Ordem de gravidade dos status dos steps, do menos para o mais grave
+    private static final List<String> SEVERITY = Arrays.asList(
+            "UNKNOWN", "PASSED", "SKIPPED", "PENDING", "UNDEFINED", "AMBIGUOUS", "FAILED");
+    // O HTML do Cucumber recebe cada linha já serializada; a mensagem passada ao escritor é apenas um marcador
+    private static final Pattern URI_SCHEME = Pattern.compile("[a-zA-Z][a-zA-Z0-9+.-]*:");
+    private static final Envelope RAW_LINE = Envelope.of(new TestRunStarted(new Timestamp(0L, 0L), null));
+
+    private final Json json = new Json();
+    private final Path outputDir;
+    private final Path linkBase;
+    private final BufferedWriter merged;
+    private final MessagesToHtmlWriter html;
+    private final Writer summary;
+    private String currentLine;
+
+    // Somente o necessário para o resumo: nome de cada pickle e o pickle de cada caso de teste (removido quando o
+    // caso de teste termina; os pickles são mantidos até o fim, pois uma reexecução pode estar em outro arquivo)
+    private final Map<String, String> pickleNames = new HashMap<>();
+    private final Map<String, String> testCasePickles = new HashMap<>();
+    // Cenários em andamento no arquivo atual (um por vez, já que cada arquivo é de uma única thread)
+    private final Map<String, Object[]> openScenarios = new HashMap<>();
+    private final Map<String, Integer> totals = new LinkedHashMap<>();
+    // Tentativas de cada pickle (reexecuções na mesma JVM geram novos casos de teste para o mesmo pickle):
+    // {início da primeira, status da primeira, início da última, status da última, quantidade}
+    private final Map<String, Object[]> pickleAttempts = new HashMap<>();
+    private int rows;
+
+    private ReportMerger(Path dir) throws IOException {
+        this.outputDir = dir.toAbsolutePath().normalize();
+        Path screenshots = Paths.get(Config.get().getString("screenshot.dir", ScreenshotPipeline.DEFAULT_DIRECTORY));
+        Path base = screenshots.toAbsolutePath().normalize().getParent();
+        this.linkBase = base != null ? base : outputDir;
+        this.merged = Files.newBufferedWriter(dir.resolve(MERGED_FILE), StandardCharsets.UTF_8);
+        OutputStream htmlStream = Files.newOutputStream(dir.resolve(HTML_FILE));
+        this.html = new MessagesToHtmlWriter(htmlStream, (writer, envelope) -> writer.write(currentLine));
+        this.summary = Files.newBufferedWriter(dir.resolve(SUMMARY_FILE), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Ponto de entrada para mesclar as execuções de todas as JVMs gravadas em um diretório.
+     * @param args O diretório dos arquivos de mensagens (padrão target/cucumber-reports/messages).
+     */
+    public static void main(String[] args) throws IOException {
+        merge(Paths.get(args.length > 0 ? args[0] : "target/cucumber-reports/messages"), null);
+    }
+
+    /**
+     * Mescla os arquivos de mensagens de um diretório.
+     * @param dir O diretório dos arquivos.
+     * @param pid O PID da JVM cujos arquivos serão mesclados, ou null para todos.
+     */
+    static void merge(Path dir, String pid) throws IOException {
+        List<Path> shards = listShards(dir, pid);
+        if (shards.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        ReportMerger merger = new ReportMerger(dir);
+        try {
+            merger.run(shards);
+        } finally {
+            merger.close();
+        }
+        System.out.println("Mensagens do Cucumber mescladas em: " + dir.resolve(MERGED_FILE) + " (" + shards.size() + " arquivo(s), "
+                + merger.rows + " cenário(s), " + (System.nanoTime() - start) / 1_000_000 + " ms). Resumo: " + dir.resolve(SUMMARY_FILE));
+    }
+
+    private static List<Path> listShards(Path dir, String pid) throws IOException {
+        List<Path> shards = new ArrayList<>();
+        if (!Files.isDirectory(dir)) {
+            return shards;
+        }
+        String prefix = SHARD_PREFIX + (pid != null ? pid + "-" : "");
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, prefix + "*.ndjson")) {
+            for (Path shard : stream) {
+                shards.add(shard);
+            }
+        }
+        shards.sort(null);
+        return shards;
+    }
+
+    private void run(List<Path> shards) throws IOException {
+        // A mensagem "meta" abre o arquivo da thread principal de cada JVM e deve ser a primeira da saída
+        boolean metaWritten = false;
+        for (Path shard : shards) {
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                String first = reader.readLine();
+                if (first != null && "meta".equals(typeOf(first))) {
+                    emit(first);
+                    metaWritten = true;
+                    break;
+                }
+            }
+        }
+
+        // Passagem 1: definições (features, pickles, steps e hooks); início e fim de cada JVM são combinados
+        Map<String, Object> runStarted = null;
+        Map<String, Object> runFinished = null;
+        for (Path shard : shards) {
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    String type = typeOf(line);
+                    if ("meta".equals(type)) {
+                        if (!metaWritten) {
+                            emit(line);
+                            metaWritten = true;
+                        }
+                    } else if ("testRunStarted".equals(type)) {
+                        Map<String, Object> started = message(line, type);
+                        if (runStarted == null || seconds(started) < seconds(runStarted)) {
+                            runStarted = started;
+                        }
+                    } else if ("testRunFinished".equals(type)) {
+                        runFinished = combineFinished(runFinished, message(line, type));
+                    } else if (DEFINITIONS.contains(type)) {
+                        if ("pickle".equals(type)) {
+                            Map<String, Object> pickle = message(line, type);
+                            pickleNames.put(String.valueOf(pickle.get("id")), pickle.get("name") + " (" + pickle.get("uri") + ")");
+                        }
+                        emit(line);
+                    }
+                }
+            }
+        }
+        if (runStarted != null) {
+            emitMessage("testRunStarted", runStarted);
+        }
+
+        // Passagem 2: casos de teste (precisam vir antes das suas execuções)
+        for (Path shard : shards) {
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    if ("testCase".equals(typeOf(line))) {
+                        Map<String, Object> testCase = message(line, "testCase");
+                        testCasePickles.put(String.valueOf(testCase.get("id")), String.valueOf(testCase.get("pickleId")));
+                        emit(line);
+                    }
+                }
+            }
+        }
+
+        // Passagem 3: execuções, arquivo por arquivo (a ordem de cada thread é preservada); o resumo é gravado a cada cenário
+        writeSummaryHeader();
+        for (Path shard : shards) {
+            String thread = shard.getFileName().toString().replace(".ndjson", "");
+            try (BufferedReader reader = Files.newBufferedReader(shard, StandardCharsets.UTF_8)) {
+                for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                    String type = typeOf(line);
+                    if (type == null || "meta".equals(type) || "testRunStarted".equals(type) || "testRunFinished".equals(type)
+                            || "testCase".equals(type) || DEFINITIONS.contains(type)) {
+                        continue;
+                    }
+                    summarize(type, line, thread);
+                    emit("attachment".equals(type) && line.contains("text/uri-list") ? relocateLinks(line) : line);
+                }
+            }
+        }
+        if (runFinished != null) {
+            emitMessage("testRunFinished", runFinished);
+        }
+        writeSummaryFooter();
+    }
+
+    private void summarize(String type, String line, String thread) throws IOException {
+        if ("testCaseStarted".equals(type)) {
+            Map<String, Object> started = message(line, type);
+            openScenarios.put(String.valueOf(started.get("id")), new Object[]{started.get("testCaseId"), seconds(started), "UNKNOWN"});
+        } else if ("testStepFinished".equals(type)) {
+            Map<String, Object> finished = message(line, type);
+            Object[] scenario = openScenarios.get(String.valueOf(finished.get("testCaseStartedId")));
+            Object result = finished.get("testStepResult");
+            if (scenario != null && result instanceof Map) {
+                String status = String.valueOf(((Map<?, ?>) result).get("status"));
+                if (SEVERITY.indexOf(status) > SEVERITY.indexOf(String.valueOf(scenario[2]))) {
+                    scenario[2] = status;
+                }
+            }
+        } else if ("testCaseFinished".equals(type)) {
+            Map<String, Object> finished = message(line, type);
+            Object[] scenario = openScenarios.remove(String.valueOf(finished.get("testCaseStartedId")));
+            if (scenario != null) {
+                String pickleId = testCasePickles.remove(String.valueOf(scenario[0])); // Cada caso de teste termina uma única vez
+                String name = pickleNames.getOrDefault(pickleId, String.valueOf(scenario[0]));
+                long durationMs = Math.round((seconds(finished) - (Double) scenario[1]) * 1000);
+                boolean retried = Boolean.TRUE.equals(finished.get("willBeRetried"));
+                String status = retried ? "RETRIED" : String.valueOf(scenario[2]);
+                int attempt = recordAttempt(pickleId, (Double) scenario[1], status);
+                totals.merge(status, 1, Integer::sum);
+                rows++;
+                if (attempt > 1) {
+                    name += " [tentativa " + attempt + "]";
+                }
+                summary.write("<tr class=\"" + status.toLowerCase() + "\"><td>" + rows + "</td><td>" + escape(name) + "</td><td>" + status
+                        + "</td><td>" + durationMs + "</td><td>" + escape(thread) + "</td></tr>\n");
+            }
+        }
+    }
+
+    /**
+     * Registra uma tentativa de um pickle, mantendo a primeira e a última pelo horário de início (as tentativas
+     * podem estar em arquivos de threads diferentes).
+     * @return A quantidade de tentativas do pickle lidas até agora.
+     */
+    private int recordAttempt(String pickleId, double start, String status) {
+        Object[] attempts = pickleAttempts.get(pickleId);
+        if (attempts == null) {
+            pickleAttempts.put(pickleId, new Object[]{start, status, start, status, 1});
+            return 1;
+        }
+        if (start < (Double) attempts[0]) {
+            attempts[0] = start;
+            attempts[1] = status;
+        }
+        if (start >= (Double) attempts[2]) {
+            attempts[2] = start;
+            attempts[3] = status;
+        }
+        attempts[4] = (Integer) attempts[4] + 1;
+        return (Integer) attempts[4];
+    }
+
+    private void writeSummaryHeader() throws IOException {
+        summary.write("<!DOCTYPE html>\n<html><head><meta charset=\"UTF-8\"><title>Resumo da execução</title>\n"
+                + "<style>body{font-family:sans-serif}table{border-collapse:collapse}td,th{border:1px solid #ccc;padding:4px 8px}"
+                + ".failed td{background:#fdd}.passed td{background:#dfd}.skipped td,.retried td{background:#ffd}</style></head><body>\n"
+                + "<h1>Resumo da execução</h1>\n<table><tr><th>#</th><th>Cenário</th><th>Status</th><th>Duração (ms)</th><th>Arquivo</th></tr>\n");
+    }
+
+    private void writeSummaryFooter() throws IOException {
+        summary.write("</table>\n<h2>Total: " + rows + " cenário(s)</h2>\n<ul>\n");
+        for (Map.Entry<String, Integer> total : totals.entrySet()) {
+            summary.write("<li>" + total.getKey() + ": " + total.getValue() + "</li>\n");
+        }
+        summary.write("</ul>\n");
+        writeRerunSection();
+        summary.write("</body></html>\n");
+    }
+
+    /**
+     * Lista os cenários executados mais de uma vez (reexecução na mesma JVM): resultado da primeira tentativa,
+     * resultado final e se o cenário é flaky (falhou e depois passou).
+     */
+    private void writeRerunSection() throws IOException {
+        List<String> rerun = new ArrayList<>();
+        int flaky = 0;
+        for (Map.Entry<String, Object[]> entry : pickleAttempts.entrySet()) {
+            Object[] attempts = entry.getValue();
+            if ((Integer) attempts[4] < 2) {
+                continue;
+            }
+            boolean isFlaky = !"PASSED".equals(attempts[1]) && "PASSED".equals(attempts[3]);
+            flaky += isFlaky ? 1 : 0;
+            rerun.add("<tr class=\"" + String.valueOf(attempts[3]).toLowerCase() + "\"><td>"
+                    + escape(pickleNames.getOrDefault(entry.getKey(), entry.getKey())) + "</td><td>" + attempts[1] + "</td><td>"
+                    + attempts[3] + "</td><td>" + attempts[4] + "</td><td>" + (isFlaky ? "sim" : "não") + "</td></tr>\n");
+        }
+        if (rerun.isEmpty()) {
+            return;
+        }
+        summary.write("<h2>Reexecuções: " + rerun.size() + " cenário(s), " + flaky + " flaky</h2>\n"
+                + "<table><tr><th>Cenário</th><th>Primeira tentativa</th><th>Resultado final</th><th>Tentativas</th><th>Flaky</th></tr>\n");
+        for (String row : rerun) {
+            summary.write(row);
+        }
+        summary.write("</table>\n");
+    }
+
+    /**
+     * Reescreve os links relativos de um anexo text/uri-list para o diretório do HTML mesclado.
+     */
+    private String relocateLinks(String line) {
+        Map<String, Object> attachment = message(line, "attachment");
+        Object body = attachment.get("body");
+        if (!"text/uri-list".equals(attachment.get("mediaType")) || !(body instanceof String)) {
+            return line;
+        }
+        List<String> links = new ArrayList<>();
+        for (String link : ((String) body).split("\n", -1)) {
+            String trimmed = link.trim();
+            boolean relative = !trimmed.isEmpty() && !trimmed.startsWith("#") && !trimmed.startsWith("/")
+                    && !URI_SCHEME.matcher(trimmed).lookingAt();
+            links.add(relative ? outputDir.relativize(linkBase.resolve(trimmed).normalize()).toString().replace('\\', '/') : link);
+        }
+        attachment.put("body", String.join("\n", links));
+        return serialize("attachment", attachment);
+    }
+
+    private void emit(String line) throws IOException {
+        merged.write(line);
+        merged.write('\n');
+        currentLine = line;
+        html.write(RAW_LINE);
+    }
+
+    private void emitMessage(String type, Map<String, Object> message) throws IOException {
+        emit(serialize(type, message));
+    }
+
+    private String serialize(String type, Map<String, Object> message) {
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put(type, message);
+        StringBuilder out = new StringBuilder();
+        json.newOutput(out).setPrettyPrint(false).write(envelope);
+        return out.toString();
+    }
+
+    /**
+     * Combina o fim da execução de duas JVMs: sucesso somente se ambas tiveram sucesso; horário do último fim.
+     */
+    private static Map<String, Object> combineFinished(Map<String, Object> current, Map<String, Object> next) {
+        if (current == null) {
+            return next;
+        }
+        Map<String, Object> combined = new LinkedHashMap<>(seconds(next) > seconds(current) ? next : current);
+        boolean success = Boolean.TRUE.equals(current.get("success")) && Boolean.TRUE.equals(next.get("success"));
+        combined.put("success", success);
+        if (!success && !combined.containsKey("message")) {
+            Object message = current.containsKey("message") ? current.get("message") : next.get("message");
+            if (message != null) {
+                combined.put("message", message);
+            }
+        }
+        return combined;
+    }
+
+    /**
+     * Identifica o tipo da mensagem pela primeira chave da linha (ex: {"testCaseStarted":...}), sem interpretar o JSON.
+     */
+    private static String typeOf(String line) {
+        int start = line.indexOf('"');
+        int end = start < 0 ? -1 : line.indexOf('"', start + 1);
+        return end < 0 ? null : line.substring(start + 1, end);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> message(String line, String type) {
+        Map<String, Object> envelope = json.toType(line, Json.MAP_TYPE);
+        Object message = envelope.get(type);
+        return message instanceof Map ? (Map<String, Object>) message : new HashMap<>();
+    }
+
+    private static double seconds(Map<String, Object> message) {
+        Object timestamp = message.get("timestamp");
+        if (!(timestamp instanceof Map)) {
+            return 0;
+        }
+        Object seconds = ((Map<?, ?>) timestamp).get("seconds");
+        Object nanos = ((Map<?, ?>) timestamp).get("nanos");
+        return (seconds instanceof Number ? ((Number) seconds).doubleValue() : 0)
+                + (nanos instanceof Number ? ((Number) nanos).doubleValue() / 1e9 : 0);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+    }
+
+    private void close() throws IOException {
+        try {
+            merged.close();
+            summary.close();
+        } finally {
+            html.close();
+        }
+    }
+}
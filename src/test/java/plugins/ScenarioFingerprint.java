@@ -0,0 +1,269 @@
+package plugins;
+
+import utils.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Impressões digitais (SHA-256) das entradas de um cenário, usadas pelo {@link IncrementalRunPlugin}:
+ * o texto da feature, os arquivos de dados que ela referencia, as classes do projeto que o cenário usa e a
+ * configuração declarada.
+ *
+ * As classes de um cenário são as dos seus steps e hooks (pela localização do código no Cucumber) e, a partir
+ * delas, todas as classes do projeto referenciadas no constant pool do bytecode, transitivamente (ex: AmazonSteps ->
+ * AmazonHomePage -> BasePage -> DriverPool). Classes de dependências (jars) e do JDK ficam de fora: somente as
+ * compiladas em target/classes e target/test-classes entram na impressão digital.
+ *
+ * Os arquivos de dados de um cenário são os argumentos entre aspas dos seus steps que apontam para um arquivo
+ * existente (ex: "src/test/resources/data/search-terms.csv" no cenário @bulk). O conteúdo dos arquivos informados
+ * nas propriedades de entrada (ex: bulk.file, que substitui o arquivo do cenário) entra no hash da configuração.
+ *
+ * Os hashes são calculados uma vez por execução e reaproveitados entre os cenários.
+ */
+final class ScenarioFingerprint {
+
+    // Configurações que não mudam o resultado de um cenário
+    private static final List<String> IGNORED_CONFIG_PREFIXES = Arrays.asList("incremental.", "rerun.");
+    // Configurações que apontam para arquivos lidos pelos cenários: o conteúdo do arquivo entra no hash
+    private static final List<String> INPUT_FILE_CONFIG_KEYS = Arrays.asList("bulk.file");
+    private static final Pattern QUOTED_ARGUMENT = Pattern.compile("\"([^\"]+)\"");
+
+    private static final Map<String, String> classHashes = new ConcurrentHashMap<>();
+    private static final Map<URI, String> featureHashes = new ConcurrentHashMap<>();
+    private static final Map<String, String> fileHashes = new ConcurrentHashMap<>();
+    private static final Map<String, List<String>> classReferences = new ConcurrentHashMap<>();
+    private static volatile String configHash;
+
+    private static final String MISSING = "";
+
+    private ScenarioFingerprint() {
+    }
+
+    /**
+     * @param codeLocation A localização de um step ou hook (ex: steps.AmazonSteps.euBuscoPor(java.lang.String)).
+     * @return A classe da localização (ex: steps.AmazonSteps), ou null se não for um método Java.
+     */
+    static String classOf(String codeLocation) {
+        if (codeLocation == null) {
+            return null;
+        }
+        int end = codeLocation.indexOf('(');
+        String method = end < 0 ? codeLocation : codeLocation.substring(0, end);
+        int dot = method.lastIndexOf('.');
+        return dot <= 0 ? null : method.substring(0, dot);
+    }
+
+    /**
+     * Fecha o conjunto de classes do projeto alcançáveis a partir das classes informadas.
+     * @param roots As classes dos steps e hooks do cenário.
+     * @return As classes do projeto (as raízes inclusive), ordenadas pelo nome.
+     */
+    static Set<String> projectClosure(Collection<String> roots) {
+        Set<String> closure = new TreeSet<>();
+        Deque<String> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            String name = pending.pop();
+            if (closure.contains(name) || hashClass(name) == null) {
+                continue;
+            }
+            closure.add(name);
+            pending.addAll(classReferences.getOrDefault(name, new ArrayList<>()));
+        }
+        return closure;
+    }
+
+    /**
+     * @param name O nome da classe (ex: pages.AmazonResultsPage).
+     * @return O hash do bytecode atual da classe, ou null se ela não for uma classe compilada do projeto.
+     */
+    static String hashClass(String name) {
+        String hash = classHashes.computeIfAbsent(name, ScenarioFingerprint::readClass);
+        return hash.equals(MISSING) ? null : hash;
+    }
+
+    /**
+     * @param uri A URI da feature (file: ou classpath:).
+     * @return O hash do texto atual da feature, ou null se ela não for encontrada.
+     */
+    static String hashFeature(URI uri) {
+        String hash = featureHashes.computeIfAbsent(uri, u -> {
+            try {
+                if ("classpath".equals(u.getScheme())) {
+                    String path = u.getSchemeSpecificPart().replaceFirst("^/", "");
+                    try (InputStream input = ScenarioFingerprint.class.getClassLoader().getResourceAsStream(path)) {
+                        return input == null ? MISSING : sha256(input.readAllBytes());
+                    }
+                }
+                return sha256(Files.readAllBytes(Paths.get(u)));
+            } catch (IOException | IllegalArgumentException e) {
+                return MISSING;
+            }
+        });
+        return hash.equals(MISSING) ? null : hash;
+    }
+
+    /**
+     * @param stepTexts Os textos dos steps do cenário.
+     * @return Os caminhos citados entre aspas nos steps que apontam para um arquivo existente, ordenados.
+     */
+    static Set<String> dataFiles(Collection<String> stepTexts) {
+        Set<String> files = new TreeSet<>();
+        for (String text : stepTexts) {
+            Matcher matcher = QUOTED_ARGUMENT.matcher(text);
+            while (matcher.find()) {
+                if (hashFile(matcher.group(1)) != null) {
+                    files.add(matcher.group(1));
+                }
+            }
+        }
+        return files;
+    }
+
+    /**
+     * @param path O caminho do arquivo (relativo ao diretório do projeto ou absoluto).
+     * @return O hash do conteúdo atual do arquivo, ou null se ele não existir.
+     */
+    static String hashFile(String path) {
+        String hash = fileHashes.computeIfAbsent(path, p -> {
+            try {
+                Path file = Paths.get(p);
+                return Files.isRegularFile(file) ? sha256(Files.readAllBytes(file)) : MISSING;
+            } catch (IOException | InvalidPathException e) {
+                return MISSING;
+            }
+        });
+        return hash.equals(MISSING) ? null : hash;
+    }
+
+    /**
+     * @return O hash das configurações declaradas (config.properties e perfis, com as sobrescritas de ambiente e
+     * sistema) e do conteúdo dos arquivos de entrada informados nelas (bulk.file), exceto as configurações que só
+     * controlam a execução (incremental.*, rerun.*).
+     */
+    static String hashConfig() {
+        if (configHash == null) {
+            StringBuilder text = new StringBuilder();
+            Config.getDeclaredValues().forEach((key, value) -> {
+                if (IGNORED_CONFIG_PREFIXES.stream().noneMatch(key::startsWith)) {
+                    text.append(key).append('=').append(value).append('\n');
+                }
+            });
+            for (String key : INPUT_FILE_CONFIG_KEYS) {
+                String file = Config.get().getString(key, null);
+                if (file != null) {
+                    text.append(key).append('=').append(file).append(':').append(hashFile(file)).append('\n');
+                }
+            }
+            configHash = sha256(text.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return configHash;
+    }
+
+    /**
+     * Lê o bytecode de uma classe do projeto, guarda as classes que ela referencia e devolve o seu hash.
+     */
+    private static String readClass(String name) {
+        URL resource = ScenarioFingerprint.class.getClassLoader().getResource(name.replace('.', '/') + ".class");
+        if (resource == null || !"file".equals(resource.getProtocol())) {
+            return MISSING; // JDK, dependência ou classe inexistente
+        }
+        try (InputStream input = resource.openStream()) {
+            byte[] bytes = input.readAllBytes();
+            classReferences.put(name, referencedClasses(bytes));
+            return sha256(bytes);
+        } catch (IOException e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * Lê as entradas CONSTANT_Class do constant pool de um arquivo .class (classes chamadas, estendidas, instanciadas
+     * ou aninhadas), sem carregar a classe.
+     */
+    private static List<String> referencedClasses(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        in.readInt();   // magic
+        in.readUnsignedShort(); // minor
+        in.readUnsignedShort(); // major
+        int count = in.readUnsignedShort();
+        String[] utf8 = new String[count];
+        int[] classIndexes = new int[count];
+        int classes = 0;
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classIndexes[classes++] = in.readUnsignedShort();
+                    break;
+                case 8: case 16: case 19: case 20: // String, MethodType, Module, Package
+                    in.readUnsignedShort();
+                    break;
+                case 15: // MethodHandle
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    in.readInt();
+                    break;
+                case 5: case 6: // Long e Double ocupam duas entradas
+                    in.readLong();
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Constant pool inválido (tag " + tag + ")");
+            }
+        }
+        List<String> references = new ArrayList<>();
+        for (int i = 0; i < classes; i++) {
+            String internal = utf8[classIndexes[i]];
+            if (internal == null || internal.startsWith("java/")) {
+                continue;
+            }
+            // Arrays: [Lpages/ProductCard; -> pages/ProductCard
+            internal = internal.replaceFirst("^\\[+L", "").replaceFirst(";$", "");
+            if (!internal.startsWith("[")) {
+                references.add(internal.replace('/', '.'));
+            }
+        }
+        return references;
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            StringBuilder hex = new StringBuilder();
+            for (byte b : MessageDigest.getInstance("SHA-256").digest(bytes)) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package runners;
+
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.Pickle;
+import io.cucumber.testng.PickleWrapper;
+import org.openqa.selenium.json.Json;
+import org.testng.SkipException;
+import utils.Config;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reexecução opcional, na mesma JVM, dos cenários que falharam, ao final da execução e nas sessões já aquecidas do pool
+ * (no lugar de repetir o mvn test inteiro, com todas as inicializações de navegador).
+ *
+ * A primeira falha de um cenário é registrada e o cenário é marcado como pulado no TestNG; depois que todos os
+ * cenários terminam, o {@link TestRunner} reexecuta os registrados, um por vez, até rerun.count vezes, com espera
+ * crescente entre as tentativas. Somente o resultado final conta para o TestNG: um cenário que passa em uma
+ * reexecução é registrado como flaky, e um que falha em todas as tentativas falha com o erro da última.
+ *
+ * Propriedades (sistema ou config.properties):
+ * - rerun.count: reexecuções por cenário que falhou (padrão 0, desativada; ex: -Drerun.count=1).
+ * - rerun.backoff.ms: espera antes da primeira reexecução (padrão 2000).
+ * - rerun.backoff.multiplier: fator de crescimento da espera entre as reexecuções (padrão 2).
+ * - rerun.summary.file: resumo JSON das reexecuções (padrão target/cucumber-reports/rerun-summary.json).
+ */
+final class ScenarioRerun {
+
+    private static final Config config = Config.get();
+    private static final int rerunCount = Math.max(0, config.getInt("rerun.count", 0));
+    private static final long backoffMs = Math.max(0, config.getLong("rerun.backoff.ms", 2000));
+    private static final double backoffMultiplier = parseMultiplier(config.getString("rerun.backoff.multiplier", "2"));
+    private static final Path summaryFile = Paths.get(config.getString("rerun.summary.file", "target/cucumber-reports/rerun-summary.json"));
+
+    private static final List<Attempts> failedScenarios = new ArrayList<>(); // Protegido pelo monitor da classe
+
+    /**
+     * Tentativas de um cenário que falhou na primeira execução.
+     */
+    static final class Attempts {
+        private final PickleWrapper pickle;
+        private final FeatureWrapper feature;
+        private final String firstError;
+        private int attempts = 1;
+        private String finalStatus = "FAILED";
+        private String lastError;
+
+        private Attempts(PickleWrapper pickle, FeatureWrapper feature, String firstError) {
+            this.pickle = pickle;
+            this.feature = feature;
+            this.firstError = firstError;
+            this.lastError = firstError;
+        }
+
+        private boolean isFlaky() {
+            return "PASSED".equals(finalStatus);
+        }
+    }
+
+    private ScenarioRerun() {
+    }
+
+    /**
+     * Executa a primeira tentativa de um cenário. Se falhar e a reexecução estiver habilitada, registra o cenário
+     * para o final da execução e o marca como pulado no TestNG.
+     * @param pickle O cenário.
+     * @param feature A funcionalidade do cenário.
+     * @param scenario A execução do cenário.
+     */
+    static void firstAttempt(PickleWrapper pickle, FeatureWrapper feature, Runnable scenario) {
+        try {
+            scenario.run();
+        } catch (SkipException e) {
+            throw e; // Pendente, indefinido ou pulado: não é falha
+        } catch (Throwable e) {
+            if (rerunCount == 0) {
+                throw e;
+            }
+            synchronized (ScenarioRerun.class) {
+                failedScenarios.add(new Attempts(pickle, feature, describe(e)));
+            }
+            System.out.println("REEXECUÇÃO: '" + pickle.getPickle().getName() + "' falhou na primeira tentativa e será reexecutado ao final.");
+            throw new SkipException("Falhou na primeira tentativa; reexecutado ao final da execução. Erro: " + describe(e));
+        }
+    }
+
+    /**
+     * @return Os cenários que falharam na primeira tentativa, no formato do @DataProvider do TestNG.
+     */
+    static synchronized Object[][] failedScenarios() {
+        Object[][] data = new Object[failedScenarios.size()][];
+        for (int i = 0; i < data.length; i++) {
+            Attempts attempts = failedScenarios.get(i);
+            data[i] = new Object[]{attempts.pickle, attempts.feature};
+        }
+        return data;
+    }
+
+    /**
+     * Reexecuta um cenário que falhou na primeira tentativa, até rerun.count vezes, com espera crescente.
+     * @param pickle O cenário.
+     * @param scenario A execução do cenário.
+     */
+    static void rerun(PickleWrapper pickle, Runnable scenario) {
+        Attempts attempts = attemptsOf(pickle);
+        Throwable last = null;
+        long backoff = backoffMs;
+        for (int i = 1; i <= rerunCount; i++) {
+            sleep(backoff);
+            backoff = (long) (backoff * backoffMultiplier);
+            attempts.attempts++;
+            System.out.println("REEXECUÇÃO: '" + pickle.getPickle().getName() + "' tentativa " + attempts.attempts + " de " + (rerunCount + 1) + ".");
+            try {
+                scenario.run();
+                attempts.finalStatus = "PASSED";
+                break;
+            } catch (SkipException e) {
+                attempts.finalStatus = "SKIPPED";
+                last = e;
+                break;
+            } catch (Throwable e) {
+                attempts.lastError = describe(e);
+                last = e;
+            }
+        }
+        writeSummary();
+        if (attempts.isFlaky()) {
+            System.out.println("REEXECUÇÃO: '" + pickle.getPickle().getName() + "' passou na tentativa " + attempts.attempts + " (flaky).");
+            return;
+        }
+        rethrow(last);
+    }
+
+    /**
+     * Imprime o resumo das reexecuções: cenários reexecutados, flaky e que falharam em todas as tentativas.
+     */
+    static synchronized void printSummary() {
+        if (failedScenarios.isEmpty()) {
+            return;
+        }
+        long flaky = failedScenarios.stream().filter(Attempts::isFlaky).count();
+        System.out.println("REEXECUÇÃO - RESUMO: " + failedScenarios.size() + " cenário(s) reexecutado(s) | flaky: " + flaky
+                + " | falharam em todas as tentativas: " + (failedScenarios.size() - flaky) + " | resumo em " + summaryFile);
+        for (Attempts attempts : failedScenarios) {
+            System.out.println("  " + (attempts.isFlaky() ? "FLAKY " : attempts.finalStatus + " ") + attempts.pickle.getPickle().getName()
+                    + " (" + attempts.attempts + " tentativa(s))");
+        }
+    }
+
+    private static synchronized Attempts attemptsOf(PickleWrapper pickle) {
+        for (Attempts attempts : failedScenarios) {
+            if (attempts.pickle == pickle) {
+                return attempts;
+            }
+        }
+        throw new IllegalStateException("Cenário não registrado para reexecução: " + pickle.getPickle().getName());
+    }
+
+    /**
+     * Grava o resumo JSON: primeira tentativa e resultado final de cada cenário reexecutado.
+     */
+    private static synchronized void writeSummary() {
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        int flaky = 0;
+        for (Attempts attempts : failedScenarios) {
+            Pickle pickle = attempts.pickle.getPickle();
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", pickle.getName());
+            scenario.put("uri", pickle.getUri().toString());
+            scenario.put("line", pickle.getLine());
+            scenario.put("firstAttempt", "FAILED");
+            scenario.put("finalStatus", attempts.finalStatus);
+            scenario.put("flaky", attempts.isFlaky());
+            scenario.put("attempts", attempts.attempts);
+            scenario.put("firstError", attempts.firstError);
+            if (!attempts.isFlaky()) {
+                scenario.put("lastError", attempts.lastError);
+            }
+            scenarios.add(scenario);
+            flaky += attempts.isFlaky() ? 1 : 0;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("rerunCount", rerunCount);
+        summary.put("rerun", scenarios.size());
+        summary.put("flaky", flaky);
+        summary.put("scenarios", scenarios);
+        try {
+            if (summaryFile.getParent() != null) {
+                Files.createDirectories(summaryFile.getParent());
+            }
+            try (Writer writer = Files.newBufferedWriter(summaryFile, StandardCharsets.UTF_8)) {
+                writer.write(new Json().toJson(summary));
+            }
+        } catch (IOException e) {
+            System.err.println("ERRO AO GRAVAR RESUMO DE REEXECUÇÃO: " + e.getMessage());
+        }
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getMessage() == null ? "" : error.getMessage();
+        int end = message.indexOf('\n');
+        return error.getClass().getSimpleName() + ": " + (end < 0 ? message : message.substring(0, end));
+    }
+
+    /**
+     * Relança o erro da última tentativa como ele é (os steps podem lançar exceções verificadas).
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Throwable> void rethrow(Throwable error) throws T {
+        throw (T) error;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double parseMultiplier(String value) {
+        try {
+            return Math.max(1, Double.parseDouble(value));
+        } catch (NumberFormatException e) {
+            System.err.println("AVISO: Valor inválido para rerun.backoff.multiplier: '" + value + "'. Usando 2.");
+            return 2;
+        }
+    }
+}
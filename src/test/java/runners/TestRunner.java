@@ -2,7 +2,12 @@ package runners;
 
 import io.cucumber.testng.AbstractTestNGCucumberTests;
 import io.cucumber.testng.CucumberOptions;
-// import org.testng.annotations.DataProvider; // Descomente para habilitar execução paralela de cenários via TestNG
+import io.cucumber.testng.FeatureWrapper;
+import io.cucumber.testng.PickleWrapper;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import plugins.IncrementalRunPlugin;
 
 /**
  * Classe Test Runner para executar os testes Cucumber com TestNG.
@@ -15,9 +20,11 @@ import io.cucumber.testng.CucumberOptions;
         plugin = { // Formatos de relatório
                 "pretty", // Saída legível no console
                 "html:target/cucumber-reports/cucumber-html-report.html", // Relatório HTML
-                "json:target/cucumber-reports/cucumber.json", // Relatório JSON
+                "plugins.MessageShardPlugin:target/cucumber-reports/messages", // Mensagens do Cucumber (NDJSON) por thread, mescladas ao final com resumo HTML
                 "testng:target/cucumber-reports/cucumber-testng.xml", // Relatório XML para TestNG
-                "timeline:target/cucumber-reports/timeline" // Relatório de timeline
+                "timeline:target/cucumber-reports/timeline", // Relatório de timeline
+                "plugins.LatencyHistogramPlugin:target/cucumber-reports/latency-histograms.json", // Percentis de latência por step e por comando do WebDriver
+                "plugins.IncrementalRunPlugin" // Cache de cenários aprovados para a execução incremental (-Dincremental.enabled=true)
         },
         monochrome = true, // Saída do console mais legível (remove caracteres de cor)
         tags = "@regression or @magalu or @amazon" // Executa cenários com qualquer uma destas tags.
@@ -27,11 +34,51 @@ public class TestRunner extends AbstractTestNGCucumberTests {
 
         /**
          * Sobrescreve o método scenarios para habilitar a execução paralela de cenários com TestNG.
-         * Descomente o método e a anotação @DataProvider(parallel = true) para ativar.
+         * A quantidade de threads é definida por -Dthreads=N (repassada ao TestNG como dataproviderthreadcount no pom.xml).
+         * Cada thread empresta sua própria sessão do DriverPool, então nenhum navegador é compartilhado entre threads.
+         * Com -Dthreads=1 (padrão) a execução é sequencial.
+         * No modo incremental (-Dincremental.enabled=true), os cenários aprovados recentemente com as mesmas entradas
+         * são removidos ({@link IncrementalRunPlugin}).
          */
-        // @Override
-        // @DataProvider(parallel = true)
-        // public Object[][] scenarios() {
-        //     return super.scenarios();
-        // }
-}
\ No newline at end of file
+        @Override
+        @DataProvider(parallel = true)
+        public Object[][] scenarios() {
+            return IncrementalRunPlugin.select(super.scenarios());
+        }
+
+        /**
+         * Executa a primeira tentativa de um cenário. Se falhar, o cenário é registrado para reexecução ao final
+         * da execução ({@link ScenarioRerun}, rerun.count) e marcado como pulado no TestNG.
+         */
+        @Override
+        @Test(groups = "cucumber", description = "Runs Cucumber Scenarios", dataProvider = "scenarios")
+        public void runScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+            ScenarioRerun.firstAttempt(pickleWrapper, featureWrapper, () -> super.runScenario(pickleWrapper, featureWrapper));
+        }
+
+        /**
+         * Reexecuta, depois de todos os cenários e antes do @AfterAll (sessões do pool ainda abertas), os cenários que
+         * falharam na primeira tentativa. Um por vez, para não repetir a concorrência que pode ter causado a falha.
+         */
+        @Test(groups = "cucumber", description = "Reruns failed Cucumber Scenarios", dataProvider = "failedScenarios",
+                dependsOnMethods = "runScenario", alwaysRun = true)
+        public void rerunFailedScenario(PickleWrapper pickleWrapper, FeatureWrapper featureWrapper) {
+            ScenarioRerun.rerun(pickleWrapper, () -> super.runScenario(pickleWrapper, featureWrapper));
+        }
+
+        /**
+         * @return Os cenários que falharam na primeira tentativa (avaliado depois de todos os cenários).
+         */
+        @DataProvider
+        public Object[][] failedScenarios() {
+            return ScenarioRerun.failedScenarios();
+        }
+
+        /**
+         * Imprime o resumo das reexecuções (flaky e falhas definitivas).
+         */
+        @AfterClass(alwaysRun = true)
+        public void printRerunSummary() {
+            ScenarioRerun.printSummary();
+        }
+}
@@ -1,9 +1,11 @@
 package steps;
 
+import driver.DriverPool;
 import io.cucumber.java.pt.*;
 import org.testng.Assert;
 import pages.AmazonHomePage;
 import pages.AmazonResultsPage;
+import pages.ResultsSnapshot;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
 import java.util.List;
@@ -21,9 +23,9 @@ public class AmazonSteps {
      */
     @Dado("que estou na página inicial da Amazon")
     public void queEstouNaPaginaInicialDaAmazon() {
-        amazonHomePage = new AmazonHomePage(Hooks.driver);
+        amazonHomePage = new AmazonHomePage(DriverPool.getDriver());
         amazonHomePage.navigateToHomePage();
-        Assert.assertTrue(amazonHomePage.getCurrentUrl().contains("amazon.com.br"),
+        Assert.assertTrue(amazonHomePage.getCurrentUrl().contains(amazonHomePage.getExpectedHost()),
                 "Não navegou para a página correta da Amazon. URL atual: " + amazonHomePage.getCurrentUrl());
     }
 
@@ -37,6 +39,16 @@ public class AmazonSteps {
         amazonResultsPage = amazonHomePage.searchFor(produto);
     }
 
+    /**
+     * Realiza uma busca na Amazon navegando diretamente para a URL de resultados, sem passar pela página inicial.
+     * @param produto O nome do produto a ser buscado.
+     */
+    @Quando("eu busco diretamente por {string} na Amazon")
+    public void euBuscoDiretamentePorNaAmazon(String produto) {
+        amazonHomePage = new AmazonHomePage(DriverPool.getDriver());
+        amazonResultsPage = amazonHomePage.searchDirect(produto);
+    }
+
     /**
      * Verifica se a página de resultados da Amazon exibe resultados para o produto buscado.
      * @param produto O nome do produto que foi buscado.
@@ -44,10 +56,11 @@ public class AmazonSteps {
     @Então("devo ver resultados para {string} na Amazon")
     public void devoVerResultadosParaNaAmazon(String produto) {
         Assert.assertNotNull(amazonResultsPage, "Página de resultados da Amazon não foi inicializada.");
-        Assert.assertTrue(amazonResultsPage.isResultadosTitleVisible(), "Título 'Resultados' não visível na página de busca.");
-        Assert.assertTrue(amazonResultsPage.hasResults(), "Nenhum resultado encontrado para '" + produto + "' na Amazon.");
+        ResultsSnapshot resultados = amazonResultsPage.getSnapshot();
+        Assert.assertTrue(resultados.isHeaderVisible(), "Título 'Resultados' não visível na página de busca.");
+        Assert.assertTrue(resultados.hasResults(), "Nenhum resultado encontrado para '" + produto + "' na Amazon. " + resultados);
 
-        String searchTermDisplayed = amazonResultsPage.getSearchTermEchoText();
+        String searchTermDisplayed = resultados.getSearchTermEcho();
         Assert.assertTrue(searchTermDisplayed.toLowerCase().contains(produto.toLowerCase()),
                 "O termo de busca ecoado ('" + searchTermDisplayed + "') não corresponde a '" + produto + "'.");
     }
@@ -97,7 +110,7 @@ public class AmazonSteps {
         // estaria encapsulada em um método na AmazonHomePage ou uma Page Object específica para Ofertas do Dia.
         String seletorItensDeOferta = "//*[@id=\"DealsGridScrollAnchor\"]/div[3]/div/div/div[2]/div[1]/div/div";
 
-        List<WebElement> itensDeOferta = Hooks.driver.findElements(By.xpath(seletorItensDeOferta));
+        List<WebElement> itensDeOferta = DriverPool.getDriver().findElements(By.xpath(seletorItensDeOferta));
 
         Assert.assertFalse(itensDeOferta.isEmpty(), "Nenhum item de oferta encontrado na página de Ofertas do Dia da Amazon usando o seletor: " + seletorItensDeOferta);
         System.out.println("Encontrados " + itensDeOferta.size() + " itens de oferta na página de Ofertas do Dia da Amazon.");
@@ -111,8 +124,9 @@ public class AmazonSteps {
     @Então("devo ver a mensagem {string} na Amazon para o produto {string}")
     public void devoVerAMensagemNaAmazonParaOProduto(String mensagemEsperada, String produtoInexistente) {
         Assert.assertNotNull(amazonResultsPage, "Página de resultados da Amazon não foi inicializada.");
-        String mensagemPrincipal = amazonResultsPage.getNoResultsMessageText();
-        String termoBuscado = amazonResultsPage.getNoResultsSearchedTermText();
+        ResultsSnapshot resultados = amazonResultsPage.getSnapshot();
+        String mensagemPrincipal = resultados.getNoResultsMessage();
+        String termoBuscado = resultados.getNoResultsTerm();
 
         Assert.assertTrue(mensagemPrincipal.toLowerCase().contains(mensagemEsperada.toLowerCase()),
                 "Parte principal da mensagem de 'nenhum resultado' incorreta. Esperado contendo: '" + mensagemEsperada + "', mas foi: '" + mensagemPrincipal + "'");
@@ -127,8 +141,9 @@ public class AmazonSteps {
     @Então("o primeiro resultado na Amazon deve conter {string}")
     public void oPrimeiroResultadoNaAmazonDeveConter(String termoEsperado) {
         Assert.assertNotNull(amazonResultsPage, "Página de resultados da Amazon não foi inicializada.");
-        Assert.assertTrue(amazonResultsPage.hasResults(), "Não há resultados para verificar o primeiro produto.");
-        String primeiroTitulo = amazonResultsPage.getFirstProductTitle();
+        ResultsSnapshot resultados = amazonResultsPage.getSnapshot();
+        Assert.assertTrue(resultados.hasResults(), "Não há resultados para verificar o primeiro produto.");
+        String primeiroTitulo = resultados.getFirstProductTitle();
         Assert.assertTrue(primeiroTitulo.toLowerCase().contains(termoEsperado.toLowerCase()),
                 "O primeiro resultado ('" + primeiroTitulo + "') não contém o termo esperado '" + termoEsperado + "'.");
     }
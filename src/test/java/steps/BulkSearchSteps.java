@@ -0,0 +1,55 @@
+package steps;
+
+import bulk.BulkSearchReport;
+import bulk.BulkSearchRunner;
+import io.cucumber.java.pt.Dado;
+import io.cucumber.java.pt.Então;
+import io.cucumber.java.pt.Quando;
+import org.testng.Assert;
+import utils.Config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Step Definitions para a validação em lote de termos de busca ({@link BulkSearchRunner}).
+ */
+public class BulkSearchSteps {
+
+    private Path termsFile;
+    private BulkSearchReport report;
+
+    /**
+     * Define o arquivo de termos a ser validado. A propriedade bulk.file, se informada, substitui o arquivo do cenário
+     * (ex: mvn test -Dcucumber.filter.tags="@bulk" -Dbulk.file=/caminho/termos.csv).
+     * @param arquivo O caminho do arquivo de termos (.csv, .ndjson ou .jsonl).
+     */
+    @Dado("o arquivo de termos de busca {string}")
+    public void oArquivoDeTermosDeBusca(String arquivo) {
+        termsFile = Paths.get(Config.get().getString("bulk.file", arquivo));
+        Assert.assertTrue(Files.isReadable(termsFile), "Arquivo de termos não encontrado: " + termsFile.toAbsolutePath());
+    }
+
+    /**
+     * Valida todos os termos do arquivo em paralelo, nas sessões do pool.
+     * @throws IOException se o arquivo de resultados não puder ser gravado.
+     */
+    @Quando("eu valido todos os termos do arquivo")
+    public void euValidoTodosOsTermosDoArquivo() throws IOException {
+        Assert.assertNotNull(termsFile, "Arquivo de termos não foi definido.");
+        report = new BulkSearchRunner(termsFile).run();
+        System.out.println(report);
+    }
+
+    /**
+     * Verifica se todas as buscas do arquivo tiveram o resultado esperado.
+     */
+    @Então("todas as buscas devem corresponder ao esperado")
+    public void todasAsBuscasDevemCorresponderAoEsperado() {
+        Assert.assertNotNull(report, "A validação em lote não foi executada.");
+        Assert.assertTrue(report.getTotal() > 0, "Nenhum termo foi validado. " + report);
+        Assert.assertTrue(report.isSuccessful(), report.toString());
+    }
+}
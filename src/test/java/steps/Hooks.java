@@ -1,39 +1,62 @@
 package steps;
 
+import driver.DriverBinaryResolver;
+import driver.DriverFactory;
+import driver.DriverPool;
+import driver.NetworkBlocker;
+import driver.PageLoadPolicy;
+import driver.ResourceScheduler;
+import driver.RoundTripBudgetListener;
+import driver.ScreenshotPipeline;
 import io.cucumber.java.*;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
-import org.openqa.selenium.firefox.FirefoxOptions;
-import utils.ConfigReader;
+import pages.BasePage;
+import pages.LocatorChain;
+import pages.WaitEngine;
+import server.RecordReplayProxy;
+import server.StorefrontServer;
+import utils.Config;
 
 /**
  * Hooks do Cucumber para configurar e limpar o ambiente de teste.
- * Inclui configuração do WebDriver antes de cada cenário e limpeza após cada cenário.
+ * Cada cenário empresta uma sessão de WebDriver do {@link DriverPool} e a devolve ao final.
  */
 public class Hooks {
-    public static WebDriver driver;
+
+    // Conta as idas e voltas ao WebDriver por método público de Page Object (budget.mode=off|warn|fail)
+    private static final RoundTripBudgetListener roundTripBudget = new RoundTripBudgetListener(BasePage.class::isAssignableFrom);
+
+    // Uma instância de Hooks por cenário: indica se o screenshot da falha já foi capturado (screenshot.on.step.failure)
+    private boolean screenshotCaptured;
 
     /**
      * Executado uma vez antes de todos os cenários.
-     * Loga o início da configuração global.
+     * Loga o início da configuração global e aquece o pool de drivers.
      */
     @BeforeAll
     public static void beforeAll() {
         System.out.println("====================================================");
         System.out.println("INICIANDO CONFIGURAÇÃO GLOBAL DOS TESTES...");
-        // ConfigReader é carregado estaticamente na sua primeira utilização.
-        // WebDriverManager será chamado no @Before de cada cenário.
+        // A configuração (sistema, ambiente, perfis e config.properties) é resolvida uma única vez, no primeiro acesso.
+        System.out.println(Config.get());
+        // Com -Dtarget=local, sobe o servidor local e aponta amazon.url/magalu.url para ele.
+        // Caso contrário, com -Dproxy.mode=record|replay, navega pelos sites reais através do proxy de gravação/replay.
+        if (StorefrontServer.isLocalTarget()) {
+            StorefrontServer.startShared();
+        } else {
+            RecordReplayProxy.startSharedIfEnabled();
+        }
+        if (roundTripBudget.getMode() != RoundTripBudgetListener.Mode.OFF) {
+            DriverFactory.registerListener(roundTripBudget);
+        }
+        // Pré-cria as sessões do pool para que os primeiros cenários não paguem a inicialização do navegador.
+        DriverPool.warmUp();
         System.out.println("====================================================");
     }
 
     /**
      * Executado antes de cada cenário.
-     * Configura e inicializa o WebDriver com base nas propriedades definidas.
+     * Aguarda a admissão do {@link ResourceScheduler} (memória e CPU disponíveis) e empresta uma sessão de WebDriver
+     * do {@link DriverPool} para a thread do cenário.
      * @param scenario Informações sobre o cenário atual.
      */
     @Before
@@ -41,49 +64,18 @@ public class Hooks {
         System.out.println("----------------------------------------------------");
         System.out.println("INICIANDO CENÁRIO: " + scenario.getName() + " | TAGS: " + scenario.getSourceTagNames());
 
-        // Prioriza propriedades de sistema (ex: -Dbrowser=firefox), depois config.properties, depois default ("chrome")
-        String browserType = System.getProperty("browser", ConfigReader.getProperty("browser", "chrome")).toLowerCase();
-        String headlessProp = System.getProperty("headless", ConfigReader.getProperty("headless", "false"));
-        boolean isHeadless = "true".equalsIgnoreCase(headlessProp);
-
-        System.out.println("NAVEGADOR: " + browserType + " | HEADLESS: " + isHeadless);
-
-        switch (browserType) {
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                FirefoxOptions firefoxOptions = new FirefoxOptions();
-                if (isHeadless) {
-                    firefoxOptions.addArguments("--headless");
-                }
-                // firefoxOptions.addArguments("--start-maximized"); // Maximizar pode ser instável em headless no Firefox
-                driver = new FirefoxDriver(firefoxOptions);
-                break;
-            case "chrome":
-            default: // Chrome como padrão
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--disable-extensions"); // Desabilita extensões
-                chromeOptions.addArguments("--disable-popup-blocking"); // Desabilita bloqueio de pop-ups
-                // chromeOptions.addArguments("--incognito"); // Para rodar em modo anônimo
-
-                if (isHeadless) {
-                    chromeOptions.addArguments("--headless=new"); // Novo modo headless do Chrome
-                    chromeOptions.addArguments("--disable-gpu"); // Necessário para algumas versões/ambientes em headless
-                    chromeOptions.addArguments("--window-size=1920,1080"); // Garante tamanho consistente em headless
-                } else {
-                    chromeOptions.addArguments("--start-maximized"); // Inicia o navegador maximizado
-                }
-                driver = new ChromeDriver(chromeOptions);
-                break;
+        // Back-pressure: com muitas threads, o cenário aguarda até que a máquina tenha memória e CPU para mais um navegador
+        long queuedMs = ResourceScheduler.admit();
+        if (queuedMs > 0) {
+            String queueReport = "AGENDADOR: cenário aguardou " + queuedMs + " ms por recursos.";
+            System.out.println(queueReport);
+            scenario.log(queueReport);
         }
 
-        // É recomendado evitar misturar waits implícitos e explícitos.
-        // A BasePage já utiliza waits explícitos (WebDriverWait).
-        // Se fosse usar implicit wait:
-        // int implicitWait = ConfigReader.getIntProperty("implicit.wait.seconds", 0);
-        // if (implicitWait > 0) {
-        //     driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(implicitWait));
-        // }
+        // Empresta uma sessão do pool para a thread deste cenário (criada pelo DriverFactory se necessário)
+        DriverPool.lease();
+        // Descarta o log de rede da navegação de reset para contar apenas as requisições deste cenário
+        NetworkBlocker.startScenario(DriverPool.getDriver());
 
         // A opção --start-maximized no Chrome já trata da maximização.
         // Para Firefox (se não usar --start-maximized) ou outros navegadores em modo não-headless:
@@ -92,45 +84,113 @@ public class Hooks {
         // }
     }
 
+    /**
+     * Executado após cada step.
+     * Verifica os orçamentos de idas e voltas ao WebDriver dos métodos de Page Object chamados no step
+     * (no modo budget.mode=fail, o step falha se algum orçamento for excedido).
+     * @param scenario Informações sobre o cenário atual.
+     */
+    @AfterStep
+    public void checkRoundTripBudget(Scenario scenario) {
+        for (String violation : roundTripBudget.finishStep()) {
+            System.out.println("AVISO: " + violation);
+            scenario.log(violation);
+        }
+    }
+
+    /**
+     * Executado após cada step.
+     * Com screenshot.on.step.failure=true, captura o screenshot no primeiro step que falhar, com a página ainda
+     * no estado da falha (os steps seguintes são pulados e o teardown não captura novamente).
+     * @param scenario Informações sobre o cenário atual.
+     */
+    @AfterStep
+    public void captureOnFirstFailure(Scenario scenario) {
+        if (ScreenshotPipeline.isCaptureOnStepFailure() && scenario.isFailed() && DriverPool.hasDriver()) {
+            attachScreenshot(scenario);
+        }
+    }
+
     /**
      * Executado após cada cenário.
-     * Tira um screenshot se o cenário falhar e fecha o WebDriver.
+     * Tira um screenshot se o cenário falhar (se ainda não capturado) e devolve a sessão ao pool.
      * @param scenario Informações sobre o cenário atual, incluindo seu status.
      */
     @After
     public void teardownTest(Scenario scenario) {
         System.out.println("FINALIZANDO CENÁRIO: " + scenario.getName() + " | STATUS: " + scenario.getStatus());
-        if (driver != null) {
+        if (DriverPool.hasDriver()) {
+            String blockReport = NetworkBlocker.finishScenario(DriverPool.getDriver());
+            if (blockReport != null) {
+                System.out.println(blockReport);
+                scenario.log(blockReport);
+            }
+            String pageLoadReport = PageLoadPolicy.finishScenario(DriverPool.getDriver());
+            if (pageLoadReport != null) {
+                System.out.println(pageLoadReport);
+                scenario.log(pageLoadReport);
+            }
+            String waitReport = WaitEngine.finishScenario();
+            if (waitReport != null) {
+                System.out.println(waitReport);
+                scenario.log(waitReport);
+            }
             if (scenario.isFailed()) {
-                System.out.println("CENÁRIO FALHOU. Capturando screenshot...");
-                try {
-                    final byte[] screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
-                    // Nome do arquivo de screenshot mais descritivo para facilitar a identificação
-                    String screenshotName = scenario.getName().replaceAll("[^a-zA-Z0-9.-]", "_") + "_failure.png";
-                    scenario.attach(screenshot, "image/png", screenshotName);
-                    System.out.println("Screenshot anexado ao relatório como: " + screenshotName);
-                } catch (Exception e) {
-                    System.err.println("ERRO AO CAPTURAR SCREENSHOT: " + e.getMessage());
-                    e.printStackTrace();
-                }
+                attachScreenshot(scenario);
             }
-            driver.quit(); // Fecha todas as janelas do navegador e encerra a sessão do WebDriver
-            driver = null; // Limpa a referência para a próxima execução de cenário
-            System.out.println("NAVEGADOR FECHADO.");
+            // Devolve a sessão ao pool: resetada para o próximo cenário ou reciclada em caso de falha
+            DriverPool.release(scenario.isFailed());
+            System.out.println("SESSÃO DEVOLVIDA AO POOL.");
         } else {
-            System.out.println("Driver não estava inicializado, nada para fechar.");
+            System.out.println("Driver não estava inicializado, nada para devolver.");
         }
+        ResourceScheduler.release();
         System.out.println("----------------------------------------------------");
     }
 
+    /**
+     * Captura o screenshot da falha (uma vez por cenário) e anexa ao relatório o link para o arquivo,
+     * que é gravado em segundo plano pelo {@link ScreenshotPipeline}.
+     * @param scenario Informações sobre o cenário atual.
+     */
+    private void attachScreenshot(Scenario scenario) {
+        if (screenshotCaptured) {
+            return;
+        }
+        screenshotCaptured = true;
+        System.out.println("CENÁRIO FALHOU. Capturando screenshot...");
+        try {
+            // Nome do arquivo de screenshot mais descritivo para facilitar a identificação
+            String screenshotName = scenario.getName() + "_failure";
+            String link = ScreenshotPipeline.capture(DriverPool.getDriver(), screenshotName);
+            scenario.attach(link, "text/uri-list", screenshotName);
+            System.out.println("Screenshot vinculado ao relatório: " + link);
+        } catch (Exception e) {
+            System.err.println("ERRO AO CAPTURAR SCREENSHOT: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Executado uma vez após todos os cenários.
-     * Loga a finalização da execução dos testes.
+     * Encerra as sessões do pool e loga a finalização da execução dos testes.
      */
     @AfterAll
     public static void afterAll() {
         System.out.println("====================================================");
         System.out.println("FINALIZANDO EXECUÇÃO DE TODOS OS TESTES.");
+        DriverPool.shutdown();
+        ScreenshotPipeline.flush();
+        DriverBinaryResolver.printStats();
+        ResourceScheduler.printStats();
+        NetworkBlocker.printStats();
+        PageLoadPolicy.printStats();
+        WaitEngine.printStats();
+        LocatorChain.printStats();
+        LocatorChain.saveCache();
+        roundTripBudget.printStats();
+        StorefrontServer.stopShared();
+        RecordReplayProxy.stopShared();
         System.out.println("====================================================");
     }
 }
\ No newline at end of file
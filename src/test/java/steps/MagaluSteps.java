@@ -1,11 +1,13 @@
 package steps;
 
+import driver.DriverPool;
 import io.cucumber.java.pt.Dado;
 import io.cucumber.java.pt.Quando;
 import io.cucumber.java.pt.Então;
 import org.testng.Assert;
 import pages.MagaluHomePage;
 import pages.MagaluResultsPage;
+import pages.ResultsSnapshot;
 // import org.openqa.selenium.By; // Removido se não usado diretamente aqui
 // import org.openqa.selenium.WebElement; // Removido se não usado diretamente aqui
 // import java.util.List; // Removido se não usado diretamente aqui
@@ -23,9 +25,9 @@ public class MagaluSteps {
      */
     @Dado("que estou na página inicial da Magazine Luiza")
     public void queEstouNaPaginaInicialDaMagazineLuiza() {
-        magaluHomePage = new MagaluHomePage(Hooks.driver);
+        magaluHomePage = new MagaluHomePage(DriverPool.getDriver());
         magaluHomePage.navigateToHomePage();
-        Assert.assertTrue(magaluHomePage.getCurrentUrl().contains("magazineluiza.com.br"),
+        Assert.assertTrue(magaluHomePage.getCurrentUrl().contains(magaluHomePage.getExpectedHost()),
                 "Não navegou para a página correta da Magazine Luiza. URL atual: " + magaluHomePage.getCurrentUrl());
     }
 
@@ -39,6 +41,16 @@ public class MagaluSteps {
         magaluResultsPage = magaluHomePage.searchFor(produto);
     }
 
+    /**
+     * Realiza uma busca na Magazine Luiza navegando diretamente para a URL de resultados, sem passar pela página inicial.
+     * @param produto O nome do produto a ser buscado.
+     */
+    @Quando("eu busco diretamente por {string} na Magazine Luiza")
+    public void euBuscoDiretamentePorNaMagazineLuiza(String produto) {
+        magaluHomePage = new MagaluHomePage(DriverPool.getDriver());
+        magaluResultsPage = magaluHomePage.searchDirect(produto);
+    }
+
     /**
      * Verifica se a página de resultados da Magazine Luiza exibe resultados para o produto buscado.
      * @param produto O nome do produto que foi buscado (usado para mensagem de erro).
@@ -46,8 +58,9 @@ public class MagaluSteps {
     @Então("devo ver resultados para {string} na Magazine Luiza")
     public void devoVerResultadosParaNaMagazineLuiza(String produto) {
         Assert.assertNotNull(magaluResultsPage, "Página de resultados da Magazine Luiza não foi inicializada.");
-        Assert.assertTrue(magaluResultsPage.isSearchResultsTitleVisible(), "Título 'Resultados para' não visível na página de busca.");
-        Assert.assertTrue(magaluResultsPage.hasResults(), "Nenhum resultado encontrado para '" + produto + "' na Magazine Luiza.");
+        ResultsSnapshot resultados = magaluResultsPage.getSnapshot();
+        Assert.assertTrue(resultados.isHeaderVisible(), "Título 'Resultados para' não visível na página de busca.");
+        Assert.assertTrue(resultados.hasResults(), "Nenhum resultado encontrado para '" + produto + "' na Magazine Luiza. " + resultados);
         // A validação do termo buscado (ex: "iPhone") para além do título "Resultados para"
         // dependeria de um elemento específico na página de resultados da Magalu que ecoe o termo buscado.
         // Se tal elemento existir, um método como `getActualSearchedTermText()` poderia ser implementado na MagaluResultsPage.
@@ -60,8 +73,9 @@ public class MagaluSteps {
     @Então("o primeiro resultado na Magazine Luiza deve conter {string}")
     public void oPrimeiroResultadoNaMagazineLuizaDeveConter(String termoEsperado) {
         Assert.assertNotNull(magaluResultsPage, "Página de resultados da Magazine Luiza não foi inicializada.");
-        Assert.assertTrue(magaluResultsPage.hasResults(), "Não há resultados para verificar o primeiro produto na Magazine Luiza.");
-        String primeiroTitulo = magaluResultsPage.getFirstProductTitle();
+        ResultsSnapshot resultados = magaluResultsPage.getSnapshot();
+        Assert.assertTrue(resultados.hasResults(), "Não há resultados para verificar o primeiro produto na Magazine Luiza.");
+        String primeiroTitulo = resultados.getFirstProductTitle();
         Assert.assertTrue(primeiroTitulo.toLowerCase().contains(termoEsperado.toLowerCase()),
                 "O primeiro resultado ('" + primeiroTitulo + "') na Magazine Luiza não contém o termo esperado '" + termoEsperado + "'.");
     }
@@ -109,10 +123,10 @@ public class MagaluSteps {
         // assumindo que ela tem uma estrutura de resultados que pode ser lida por esta Page Object.
         // Se a estrutura for muito diferente, uma Page Object específica para Ofertas do Dia Magalu seria melhor.
         if (magaluResultsPage == null) { // Garante que magaluResultsPage seja instanciada se não foi por uma busca.
-            magaluResultsPage = new MagaluResultsPage(Hooks.driver);
+            magaluResultsPage = new MagaluResultsPage(DriverPool.getDriver());
         }
         Assert.assertNotNull(magaluResultsPage, "Página de resultados da Magazine Luiza (Ofertas do Dia) não foi inicializada.");
-        Assert.assertTrue(magaluResultsPage.resultsCount() > 0, "Nenhum resultado (item de oferta) encontrado na página de Ofertas do Dia da Magalu.");
+        Assert.assertTrue(magaluResultsPage.getSnapshot().resultsCount() > 0, "Nenhum resultado (item de oferta) encontrado na página de Ofertas do Dia da Magalu.");
     }
 
     /**
@@ -122,7 +136,7 @@ public class MagaluSteps {
     @Então("devo ver mais de {int} resultados na Magazine Luiza")
     public void devoVerMaisDeResultadosNaMagazineLuiza(int quantidade) {
         Assert.assertNotNull(magaluResultsPage, "Página de resultados da Magazine Luiza não foi inicializada.");
-        int actualCount = magaluResultsPage.resultsCount();
+        int actualCount = magaluResultsPage.getSnapshot().resultsCount();
         Assert.assertTrue(actualCount > quantidade,
                 "Esperado mais de " + quantidade + " resultados, mas foram encontrados " + actualCount + ".");
     }
@@ -135,7 +149,7 @@ public class MagaluSteps {
     @Então("devo ver a mensagem {string} na Magazine Luiza para o produto {string}")
     public void devoVerAMensagemNaMagazineLuizaParaOProduto(String parteDaMensagemEsperada, String produtoInexistente) {
         Assert.assertNotNull(magaluResultsPage, "Página de resultados da Magazine Luiza não foi inicializada.");
-        String mensagemCompletaAtual = magaluResultsPage.getNoResultsMessageText();
+        String mensagemCompletaAtual = magaluResultsPage.getSnapshot().getNoResultsMessage();
 
         Assert.assertTrue(mensagemCompletaAtual.toLowerCase().contains(parteDaMensagemEsperada.toLowerCase()),
                 "A mensagem de 'nenhum resultado' não contém o trecho esperado. Esperado contendo: '" + parteDaMensagemEsperada + "', mas foi: '" + mensagemCompletaAtual + "'");
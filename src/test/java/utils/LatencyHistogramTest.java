@@ -0,0 +1,136 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Testes dos buckets log-lineares e dos percentis do {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void smallValuesHaveExactBuckets() {
+        for (int micros = 0; micros < 8; micros++) {
+            Assert.assertEquals(LatencyHistogram.indexOf(micros), micros);
+            Assert.assertEquals(LatencyHistogram.upperBoundOf(micros), micros);
+        }
+    }
+
+    @Test
+    public void bucketBoundaries() {
+        // 8 a 15: ainda um valor por bucket
+        Assert.assertEquals(LatencyHistogram.indexOf(8), 8);
+        Assert.assertEquals(LatencyHistogram.indexOf(15), 15);
+        Assert.assertEquals(LatencyHistogram.upperBoundOf(15), 15);
+        // A partir de 16, cada potência de 2 é dividida em 8 sub-buckets
+        Assert.assertEquals(LatencyHistogram.indexOf(16), 16);
+        Assert.assertEquals(LatencyHistogram.indexOf(17), 16);
+        Assert.assertEquals(LatencyHistogram.upperBoundOf(16), 17);
+        Assert.assertEquals(LatencyHistogram.indexOf(18), 17);
+        Assert.assertEquals(LatencyHistogram.indexOf(31), 23);
+        Assert.assertEquals(LatencyHistogram.indexOf(32), 24);
+        // O último bucket cobre Long.MAX_VALUE
+        Assert.assertEquals(LatencyHistogram.indexOf(Long.MAX_VALUE), 487);
+        Assert.assertEquals(LatencyHistogram.upperBoundOf(487), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void bucketsAreContiguousWithBoundedError() {
+        for (long micros = 1; micros < 10_000_000L; micros = micros * 3 / 2 + 1) {
+            for (long value : new long[] {micros - 1, micros, micros + 1}) {
+                int index = LatencyHistogram.indexOf(value);
+                long upper = LatencyHistogram.upperBoundOf(index);
+                Assert.assertTrue(upper >= value, "Limite superior " + upper + " abaixo do valor " + value);
+                Assert.assertTrue(upper - value <= value / 8, "Erro acima de 12,5% para " + value + ": " + upper);
+                if (index > 0) {
+                    Assert.assertTrue(LatencyHistogram.upperBoundOf(index - 1) < value,
+                            "Valor " + value + " também cabe no bucket anterior");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void percentilesOfKnownSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 100; ms++) {
+            histogram.record(ms * 1_000_000L);
+        }
+
+        Assert.assertEquals(histogram.getCount(), 100);
+        Assert.assertEquals(histogram.percentileMicros(50), LatencyHistogram.upperBoundOf(LatencyHistogram.indexOf(50_000)));
+        Assert.assertEquals(histogram.percentileMicros(50), 53_247);
+        Assert.assertEquals(histogram.percentileMicros(95), 98_303);
+        // O limite superior do bucket (106495) é limitado ao máximo registrado
+        Assert.assertEquals(histogram.percentileMicros(99), 100_000);
+        Assert.assertEquals(histogram.percentileMicros(100), 100_000);
+
+        Assert.assertEquals(histogram.summary().get("count"), 100L);
+        Assert.assertEquals(histogram.summary().get("p50Ms"), 53.25);
+        Assert.assertEquals(histogram.summary().get("meanMs"), 50.5);
+        Assert.assertEquals(histogram.summary().get("maxMs"), 100.0);
+        Assert.assertEquals(histogram.summary().get("totalMs"), 5050.0);
+    }
+
+    @Test
+    public void percentilesOfSmallSamplesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 0; micros < 8; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+        Assert.assertEquals(histogram.percentileMicros(50), 3);
+        Assert.assertEquals(histogram.percentileMicros(99), 7);
+    }
+
+    @Test
+    public void emptyAndNegativeSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(histogram.percentileMicros(50), 0);
+        Assert.assertEquals(histogram.summary().get("meanMs"), 0.0);
+
+        histogram.record(-5_000);
+        histogram.record(999);
+        Assert.assertEquals(histogram.getCount(), 2);
+        Assert.assertEquals(histogram.percentileMicros(100), 0);
+    }
+
+    @Test
+    public void samplesFromSeveralThreadsMergeIntoOneHistogram() throws Exception {
+        LatencyHistogram sequential = new LatencyHistogram();
+        for (int i = 1; i <= 4_000; i++) {
+            sequential.record(i * 25_000L);
+        }
+
+        // Como no LatencyRegistry e no BulkSearchReport, as threads gravam no mesmo histograma
+        LatencyHistogram shared = new LatencyHistogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 1 + offset; i <= 4_000; i += 4) {
+                        shared.record(i * 25_000L);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(shared.getCount(), sequential.getCount());
+        for (double percentile : new double[] {50, 95, 99, 100}) {
+            Assert.assertEquals(shared.percentileMicros(percentile), sequential.percentileMicros(percentile), "p" + percentile);
+        }
+        Assert.assertEquals(shared.summary(), sequential.summary());
+    }
+}
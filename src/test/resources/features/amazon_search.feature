@@ -20,4 +20,15 @@ Funcionalidade: Busca de produtos e navegação na Amazon
   Cenário: Busca por produto inexistente na Amazon
     Dado que estou na página inicial da Amazon
     Quando eu busco por "ProdutoSuperInexistenteKlok456" na Amazon
+    Então devo ver a mensagem "Nenhum resultado para" na Amazon para o produto "ProdutoSuperInexistenteKlok456"
+
+  @busca_direta
+  Cenário: Busca direta por produto existente na Amazon
+    Quando eu busco diretamente por "Kindle" na Amazon
+    Então devo ver resultados para "Kindle" na Amazon
+    E o primeiro resultado na Amazon deve conter "Kindle"
+
+  @busca_direta
+  Cenário: Busca direta por produto inexistente na Amazon
+    Quando eu busco diretamente por "ProdutoSuperInexistenteKlok456" na Amazon
     Então devo ver a mensagem "Nenhum resultado para" na Amazon para o produto "ProdutoSuperInexistenteKlok456"
\ No newline at end of file
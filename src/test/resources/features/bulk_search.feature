@@ -0,0 +1,11 @@
+# language: pt
+@bulk
+Funcionalidade: Validação em lote de buscas a partir de um arquivo de termos
+
+  # Não faz parte da regressão padrão. Para executar:
+  # mvn test -Dcucumber.filter.tags="@bulk" -Dtarget=local -Dbulk.workers=4 -Ddriver.pool.size=4
+  # Outro arquivo (CSV ou NDJSON) pode ser informado com -Dbulk.file=/caminho/termos.csv
+  Cenário: Validar todas as buscas do arquivo de termos
+    Dado o arquivo de termos de busca "src/test/resources/data/search-terms.csv"
+    Quando eu valido todos os termos do arquivo
+    Então todas as buscas devem corresponder ao esperado
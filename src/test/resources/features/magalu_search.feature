@@ -20,4 +20,15 @@ Funcionalidade: Busca de produtos e navegação na Magazine Luiza
     Dado que estou na página inicial da Magazine Luiza
     Quando eu clico em "Ofertas do Dia" na Magazine Luiza
     Então devo ver a página de "Ofertas do Dia" na Magazine Luiza
-    E devo ver resultados para Ofertas do Dia na Magazine Luiza
\ No newline at end of file
+    E devo ver resultados para Ofertas do Dia na Magazine Luiza
+
+  @busca_direta
+  Cenário: Busca direta por produto existente na Magazine Luiza
+    Quando eu busco diretamente por "iPhone" na Magazine Luiza
+    Então devo ver resultados para "iPhone" na Magazine Luiza
+    E o primeiro resultado na Magazine Luiza deve conter "iPhone"
+
+  @busca_direta
+  Cenário: Busca direta por produto inexistente na Magazine Luiza
+    Quando eu busco diretamente por "ProdutoSuperInexistenteKlok123" na Magazine Luiza
+    Então devo ver a mensagem "não encontrou resultado algum" na Magazine Luiza para o produto "ProdutoSuperInexistenteKlok123"
\ No newline at end of file